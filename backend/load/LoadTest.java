@@ -0,0 +1,159 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Charge en boucle fermée sur l'API : N clients simultanés enchaînent chacun des lectures paginées
+ * (événements, projets, tâches, transactions) avec le même jeton, pendant une durée fixe après un
+ * échauffement. Affiche le débit, les erreurs et les percentiles de latence, et ajoute une ligne
+ * au fichier CSV indiqué.
+ *
+ * Sans dépendance, lancé directement par le JDK 21 :
+ *   java -Dload.clients=2000 -Dload.label=virtual load/LoadTest.java
+ *
+ * Propriétés : load.url (http://localhost:8080/api/api), load.email, load.password, load.clients (2000),
+ * load.warmup (15 s), load.duration (60 s), load.label, load.csv.
+ */
+public class LoadTest {
+    private static final List<String> PATHS = List.of("/events?limit=50", "/projects?limit=50",
+            "/tasks?limit=50", "/transactions?limit=50");
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+
+    public static void main(String[] args) throws Exception {
+        String baseUrl = System.getProperty("load.url", "http://localhost:8080/api/api");
+        String email = System.getProperty("load.email", "load@example.com");
+        String password = System.getProperty("load.password", "load-test-password");
+        int clients = Integer.getInteger("load.clients", 2000);
+        Duration warmup = Duration.ofSeconds(Integer.getInteger("load.warmup", 15));
+        Duration duration = Duration.ofSeconds(Integer.getInteger("load.duration", 60));
+        String label = System.getProperty("load.label", "run");
+        String csv = System.getProperty("load.csv");
+
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        String token = login(http, baseUrl, email, password);
+
+        long warmupEnd = System.nanoTime() + warmup.toNanos();
+        long end = warmupEnd + duration.toNanos();
+        LongAdder errors = new LongAdder();
+        List<long[]> latencies = new ArrayList<>(clients);
+        int[] counts = new int[clients];
+        CountDownLatch done = new CountDownLatch(clients);
+        System.out.printf("%s: %d clients, warmup %d s, measure %d s on %s%n", label, clients,
+                warmup.toSeconds(), duration.toSeconds(), baseUrl);
+
+        // Un thread virtuel par client : le générateur ne doit pas être la limite
+        for (int client = 0; client < clients; client++) {
+            long[] samples = new long[1024];
+            latencies.add(samples);
+            int id = client;
+            Thread.ofVirtual().start(() -> {
+                try {
+                    long[] own = samples;
+                    int request = id;
+                    while (true) {
+                        long start = System.nanoTime();
+                        if (start >= end) {
+                            break;
+                        }
+                        boolean ok = get(http, baseUrl + PATHS.get(request++ % PATHS.size()), token);
+                        long finished = System.nanoTime();
+                        if (start < warmupEnd) {
+                            continue;
+                        }
+                        if (!ok) {
+                            errors.increment();
+                        } else if (finished <= end) {
+                            if (counts[id] == own.length) {
+                                own = Arrays.copyOf(own, own.length * 2);
+                                latencies.set(id, own);
+                            }
+                            own[counts[id]++] = (finished - start) / 1_000;
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+
+        int total = Arrays.stream(counts).sum();
+        long[] all = new long[total];
+        int offset = 0;
+        for (int client = 0; client < clients; client++) {
+            System.arraycopy(latencies.get(client), 0, all, offset, counts[client]);
+            offset += counts[client];
+        }
+        Arrays.sort(all);
+        double throughput = total / (double) duration.toSeconds();
+        String result = String.format("%s,%d,%d,%d,%.0f,%d,%d,%d,%d", label, clients, total, errors.sum(), throughput,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999), total == 0 ? 0 : all[total - 1]);
+        System.out.printf("%s: %d requests, %d errors, %.0f req/s, p50 %d us, p99 %d us, p99.9 %d us, max %d us%n",
+                label, total, errors.sum(), throughput, percentile(all, 0.50), percentile(all, 0.99),
+                percentile(all, 0.999), total == 0 ? 0 : all[total - 1]);
+        if (csv != null) {
+            Path path = Path.of(csv);
+            if (Files.notExists(path)) {
+                Files.writeString(path, "label,clients,requests,errors,req_per_s,p50_us,p99_us,p999_us,max_us\n");
+            }
+            Files.writeString(path, result + "\n", StandardOpenOption.APPEND);
+        }
+    }
+
+    private static boolean get(HttpClient http, String url, String token) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Authorization", "Bearer " + token)
+                    .timeout(Duration.ofSeconds(30))
+                    .GET()
+                    .build();
+            return http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    // Connexion, avec création du compte au premier lancement
+    private static String login(HttpClient http, String baseUrl, String email, String password) throws Exception {
+        String credentials = "{\"email\":\"" + email + "\",\"password\":\"" + password + "\"}";
+        HttpResponse<String> response = post(http, baseUrl + "/auth/login", credentials);
+        if (response.statusCode() != 200) {
+            post(http, baseUrl + "/auth/register", "{\"email\":\"" + email + "\",\"password\":\"" + password
+                    + "\",\"firstName\":\"Load\",\"lastName\":\"Test\"}");
+            response = post(http, baseUrl + "/auth/login", credentials);
+        }
+        Matcher token = TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !token.find()) {
+            throw new IllegalStateException("Login failed (" + response.statusCode() + "): " + response.body());
+        }
+        return token.group(1);
+    }
+
+    private static HttpResponse<String> post(HttpClient http, String url, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .timeout(Duration.ofSeconds(30))
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return http.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static long percentile(long[] sorted, double quantile) {
+        return sorted.length == 0 ? 0 : sorted[Math.min(sorted.length - 1, (int) (sorted.length * quantile))];
+    }
+}
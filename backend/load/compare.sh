@@ -0,0 +1,59 @@
+#!/usr/bin/env bash
+# Comparaison threads de plateforme / threads virtuels sous la même charge.
+# Pour chaque mode : démarrage de l'application (enregistrement JFR actif), charge de CLIENTS clients
+# simultanés, arrêt. Résultats dans load/results/results.csv, enregistrements dans load/results/*.jfr.
+#
+# Prérequis : JDK 21, Maven, la base MySQL de application.properties, et de préférence le générateur
+# de charge sur une autre machine que l'application (LOAD_URL) pour ne pas partager les cœurs.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+CLIENTS=${CLIENTS:-2000}
+WARMUP=${WARMUP:-15}
+DURATION=${DURATION:-60}
+# Même pool JDBC dans les deux modes : seul le modèle de threads change
+POOL_SIZE=${POOL_SIZE:-20}
+PORT=${PORT:-8080}
+LOAD_URL=${LOAD_URL:-http://localhost:$PORT/api/api}
+MODES=${MODES:-"platform virtual"}
+RESULTS=load/results
+
+mkdir -p "$RESULTS"
+mvn -B -q -DskipTests package
+JAR=$(ls target/backend-*.jar | grep -v original | head -1)
+
+for mode in $MODES; do
+  profile_args=()
+  jvm_args=(-XX:StartFlightRecording=filename="$RESULTS/$mode.jfr",settings=profile,dumponexit=true)
+  if [ "$mode" = virtual ]; then
+    profile_args=(--spring.profiles.active=virtual)
+    # Pile complète à chaque épinglage d'un thread porteur
+    jvm_args+=(-Djdk.tracePinnedThreads=full)
+  fi
+
+  echo "== $mode"
+  java "${jvm_args[@]}" -jar "$JAR" "${profile_args[@]}" \
+      --server.port="$PORT" \
+      --spring.datasource.hikari.maximum-pool-size="$POOL_SIZE" \
+      > "$RESULTS/$mode.log" 2>&1 &
+  app=$!
+  trap 'kill $app 2>/dev/null || true' EXIT
+
+  # Prêt dès que la connexion répond (401 attendu sans identifiants)
+  for _ in $(seq 1 120); do
+    if curl -s -o /dev/null "http://localhost:$PORT/api/api/auth/login"; then
+      break
+    fi
+    sleep 1
+  done
+
+  java -Dload.url="$LOAD_URL" -Dload.clients="$CLIENTS" -Dload.warmup="$WARMUP" -Dload.duration="$DURATION" \
+      -Dload.label="$mode" -Dload.csv="$RESULTS/results.csv" load/LoadTest.java
+
+  kill "$app"
+  wait "$app" || true
+  trap - EXIT
+done
+
+column -s, -t < "$RESULTS/results.csv"
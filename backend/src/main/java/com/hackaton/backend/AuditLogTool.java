@@ -0,0 +1,76 @@
+package com.hackaton.backend;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.service.AuditLogReader;
+
+import java.io.UncheckedIOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outil en ligne de commande du journal d'audit, sans démarrer l'application (lecture seule, utilisable
+ * pendant que le serveur écrit) :
+ *
+ * <pre>
+ * java -cp backend.jar -Dloader.main=com.hackaton.backend.AuditLogTool \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher &lt;commande&gt; &lt;répertoire&gt; [séquence]
+ * </pre>
+ *
+ * {@code replay} écrit en NDJSON les enregistrements qui suivent la séquence (0 par défaut),
+ * {@code tail} fait de même puis suit les nouveaux enregistrements, {@code verify} contrôle en-têtes,
+ * CRC et continuité des séquences (code de sortie 1 en cas d'anomalie).
+ */
+public final class AuditLogTool {
+    private static final int BATCH = 1000;
+    private static final long POLL_MILLIS = 200;
+
+    private AuditLogTool() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage : AuditLogTool replay|tail|verify <répertoire> [séquence]");
+            System.exit(2);
+        }
+        AuditLogReader reader = new AuditLogReader(Paths.get(args[1]));
+        long after = args.length > 2 ? Long.parseLong(args[2]) : 0;
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        switch (args[0]) {
+            case "replay" -> {
+                List<AuditRecord> records;
+                while (!(records = reader.read(after, BATCH, Long.MAX_VALUE)).isEmpty()) {
+                    for (AuditRecord record : records) {
+                        System.out.println(objectMapper.writeValueAsString(record));
+                        after = record.sequence();
+                    }
+                }
+            }
+            case "tail" -> reader.tail(after, record -> {
+                try {
+                    System.out.println(objectMapper.writeValueAsString(record));
+                } catch (JsonProcessingException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, POLL_MILLIS);
+            case "verify" -> {
+                List<String> problems = new ArrayList<>();
+                long count = reader.verify(problems::add);
+                problems.forEach(System.out::println);
+                System.out.println(count + " enregistrement(s), " + problems.size() + " anomalie(s)");
+                if (!problems.isEmpty()) {
+                    System.exit(1);
+                }
+            }
+            default -> {
+                System.err.println("Commande inconnue : " + args[0]);
+                System.exit(2);
+            }
+        }
+    }
+}
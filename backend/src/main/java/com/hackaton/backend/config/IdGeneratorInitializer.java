@@ -0,0 +1,36 @@
+package com.hackaton.backend.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Aligne les générateurs d'identifiants par table sur les identifiants déjà présents,
+ * pour les tables qui utilisaient auparavant l'auto-incrément. Exécuté avant le démarrage du serveur
+ * web : aucune insertion ne peut obtenir un identifiant d'un générateur pas encore aligné.
+ */
+@Component
+public class IdGeneratorInitializer implements SmartInitializingSingleton {
+
+    // Doit rester supérieur ou égal à l'allocationSize des @TableGenerator
+    private static final int ALLOCATION_MARGIN = 51;
+
+    private static final String[] TABLES = {"transactions", "contributions"};
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public IdGeneratorInitializer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        for (String table : TABLES) {
+            jdbcTemplate.update(
+                    "INSERT INTO id_generators (sequence_name, next_val) " +
+                    "SELECT ?, COALESCE(MAX(id), 0) + ? FROM " + table + " " +
+                    "ON DUPLICATE KEY UPDATE next_val = GREATEST(next_val, VALUES(next_val))",
+                    table, ALLOCATION_MARGIN);
+        }
+    }
+}
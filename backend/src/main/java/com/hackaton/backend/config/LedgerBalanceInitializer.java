@@ -0,0 +1,24 @@
+package com.hackaton.backend.config;
+
+import com.hackaton.backend.service.LedgerBalanceService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Initialise la ligne du solde courant. Exécuté une fois tous les singletons créés, donc avant le
+ * démarrage du serveur web : aucune écriture ne peut précéder l'initialisation.
+ */
+@Component
+public class LedgerBalanceInitializer implements SmartInitializingSingleton {
+
+    private final LedgerBalanceService ledgerBalanceService;
+
+    public LedgerBalanceInitializer(LedgerBalanceService ledgerBalanceService) {
+        this.ledgerBalanceService = ledgerBalanceService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        ledgerBalanceService.seed();
+    }
+}
@@ -0,0 +1,67 @@
+package com.hackaton.backend.config;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cache.spi.RegionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import java.time.Duration;
+import java.util.List;
+import java.util.OptionalLong;
+
+/**
+ * Cache de second niveau Hibernate en mémoire (Caffeine via JCache) pour les données de référence
+ * (utilisateurs, projets, événements) et les résultats des requêtes marquées cacheables.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+    public static final String USERS = "users";
+    public static final String USER_EVENTS = "users.events";
+    public static final String USER_PROJECTS = "users.projects";
+    public static final String PROJECTS = "projects";
+    public static final String EVENTS = "events";
+
+    @Value("${cache.reference.max-size:10000}")
+    private long referenceMaxSize;
+
+    @Value("${cache.reference.ttl:PT10M}")
+    private Duration referenceTtl;
+
+    @Value("${cache.query.max-size:1000}")
+    private long queryMaxSize;
+
+    @Value("${cache.query.ttl:PT1M}")
+    private Duration queryTtl;
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager() {
+        CacheManager cacheManager = Caching.getCachingProvider(CaffeineCachingProvider.class.getName()).getCacheManager();
+        for (String region : List.of(USERS, USER_EVENTS, USER_PROJECTS, PROJECTS, EVENTS)) {
+            cacheManager.createCache(region, bounded(referenceMaxSize, referenceTtl));
+        }
+        cacheManager.createCache(RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME, bounded(queryMaxSize, queryTtl));
+        // Les horodatages d'invalidation ne doivent pas expirer avant les résultats de requêtes qu'ils protègent
+        cacheManager.createCache(RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME,
+                new CaffeineConfiguration<>().setStatisticsEnabled(true));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+    }
+
+    private static CaffeineConfiguration<Object, Object> bounded(long maxSize, Duration ttl) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setMaximumSize(OptionalLong.of(maxSize));
+        configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        configuration.setStatisticsEnabled(true);
+        return configuration;
+    }
+}
@@ -0,0 +1,24 @@
+package com.hackaton.backend.config;
+
+import com.hackaton.backend.service.TaskCounterService;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construit les compteurs de tâches par statut au premier démarrage. Exécuté une fois tous les
+ * singletons créés, donc avant le démarrage du serveur web : aucune écriture ne peut précéder la construction.
+ */
+@Component
+public class TaskCounterInitializer implements SmartInitializingSingleton {
+
+    private final TaskCounterService taskCounterService;
+
+    public TaskCounterInitializer(TaskCounterService taskCounterService) {
+        this.taskCounterService = taskCounterService;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        taskCounterService.seed();
+    }
+}
@@ -0,0 +1,35 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.service.AuditLogService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/audit")
+@CrossOrigin(origins = "*")
+public class AuditLogController {
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    // Journal des écritures financières dans l'ordre, à partir du numéro de séquence ?after= (exclu)
+    @GetMapping
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<CursorPage<AuditRecord>> getRecords(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(auditLogService.getRecords(after, limit));
+    }
+
+    @GetMapping("/status")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        return ResponseEntity.ok(auditLogService.getStatus());
+    }
+}
@@ -3,57 +3,50 @@ package com.hackaton.backend.controller;
 
 import com.hackaton.backend.model.User;
 import com.hackaton.backend.security.JwtTokenProvider;
+import com.hackaton.backend.security.PasswordHashingService;
 import com.hackaton.backend.service.UserService;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/auth")
 @CrossOrigin(origins = "*")
 public class AuthController {
 
-    private final AuthenticationManager authenticationManager;
+    private final PasswordHashingService passwordHashingService;
     private final JwtTokenProvider tokenProvider;
     private final UserService userService;
 
-    public AuthController(AuthenticationManager authenticationManager,
+    public AuthController(PasswordHashingService passwordHashingService,
                          JwtTokenProvider tokenProvider,
                          UserService userService) {
-        this.authenticationManager = authenticationManager;
+        this.passwordHashingService = passwordHashingService;
         this.tokenProvider = tokenProvider;
         this.userService = userService;
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
-        Authentication authentication = authenticationManager.authenticate(
+    public CompletableFuture<ResponseEntity<?>> authenticateUser(@RequestBody LoginRequest loginRequest) {
+        // BCrypt s'exécute sur le pool dédié ; le thread de requête est libéré pendant la vérification
+        return passwordHashingService.authenticate(
             new UsernamePasswordAuthenticationToken(
-                loginRequest.getUsername(),
+                loginRequest.getEmail(),
                 loginRequest.getPassword()
             )
-        );
-
-        SecurityContextHolder.getContext().setAuthentication(authentication);
-        String jwt = tokenProvider.generateToken(authentication);
-
-        Map<String, String> response = new HashMap<>();
-        response.put("token", jwt);
-        return ResponseEntity.ok(response);
+        ).<ResponseEntity<?>>thenApply(authentication -> {
+            Map<String, String> response = new HashMap<>();
+            response.put("token", tokenProvider.generateToken(authentication));
+            return ResponseEntity.ok(response);
+        });
     }
 
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody User user) {
-        if (userService.existsByUsername(user.getUsername())) {
-            return ResponseEntity.badRequest().body("Nom d'utilisateur déjà pris");
-        }
-
         if (userService.existsByEmail(user.getEmail())) {
             return ResponseEntity.badRequest().body("Email déjà utilisé");
         }
@@ -64,15 +57,15 @@ public class AuthController {
 }
 
 class LoginRequest {
-    private String username;
+    private String email;
     private String password;
 
-    public String getUsername() {
-        return username;
+    public String getEmail() {
+        return email;
     }
 
-    public void setUsername(String username) {
-        this.username = username;
+    public void setEmail(String email) {
+        this.email = email;
     }
 
     public String getPassword() {
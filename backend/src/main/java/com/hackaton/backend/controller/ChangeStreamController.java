@@ -0,0 +1,48 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.security.UserPrincipal;
+import com.hackaton.backend.service.ChangeFeedService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/stream")
+@CrossOrigin(origins = "*")
+public class ChangeStreamController {
+
+    @Autowired
+    private ChangeFeedService changeFeedService;
+
+    // Notifications de changement (événements "change", "resync") ; ?types=task,project&userId=42
+    // Un utilisateur ne suit que ses propres changements, hors transactions et contributions (réservées aux administrateurs)
+    @GetMapping(value = "/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamChanges(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String types,
+            @RequestParam(required = false) Long userId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Set<String> entities = types == null ? Set.of() : Arrays.stream(types.split(","))
+                .map(String::trim)
+                .filter(type -> !type.isEmpty())
+                .collect(Collectors.toSet());
+        boolean admin = principal.isAdmin();
+        if (!admin) {
+            if (userId != null && !userId.equals(principal.getId())) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Accès refusé aux changements d'un autre utilisateur");
+            }
+            userId = principal.getId();
+        }
+        return changeFeedService.subscribe(entities, userId, admin, lastEventId);
+    }
+}
@@ -0,0 +1,32 @@
+package com.hackaton.backend.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * GET conditionnels : la réponse n'est construite (lignes chargées, JSON sérialisé) que si l'ETag
+ * ne correspond pas à If-None-Match.
+ */
+final class ConditionalGet {
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> ifNoneMatch(WebRequest request, String etag, Supplier<T> body) {
+        if (etag == null) {
+            return ResponseEntity.ok(body.get());
+        }
+        if (request.checkNotModified(etag)) {
+            // Statut 304 et ETag déjà posés par checkNotModified
+            return null;
+        }
+        // no-cache : le client peut conserver la réponse mais doit la revalider à chaque fois
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache().cachePrivate())
+                .body(body.get());
+    }
+}
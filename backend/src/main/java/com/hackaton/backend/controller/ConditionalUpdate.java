@@ -0,0 +1,83 @@
+package com.hackaton.backend.controller;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Écritures conditionnées par la version : la version attendue vient de If-Match (l'ETag renvoyé par
+ * le GET) ou du corps. Un conflit répond 409 avec l'état courant et son ETag, pour que le client
+ * réapplique sa modification sans relire la ressource.
+ */
+final class ConditionalUpdate {
+
+    private ConditionalUpdate() {
+    }
+
+    /**
+     * Version attendue : If-Match en priorité ("3" ou W/"3" ; * = n'importe laquelle ; pour un ETag
+     * composé "3.1.7", la première version, celle de la ressource), sinon la clé "version" du corps,
+     * retirée des champs à modifier.
+     */
+    static Long expectedVersion(String ifMatch, Map<String, Object> changes) {
+        Object bodyVersion = changes.remove("version");
+        // Identifiant pris dans l'URL
+        changes.remove("id");
+        if (ifMatch != null && !ifMatch.isBlank()) {
+            return parseIfMatch(ifMatch);
+        }
+        if (bodyVersion == null) {
+            return null;
+        }
+        if (!(bodyVersion instanceof Number number)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Version invalide : " + bodyVersion);
+        }
+        return number.longValue();
+    }
+
+    static Long expectedVersion(String ifMatch, Long bodyVersion) {
+        return ifMatch != null && !ifMatch.isBlank() ? parseIfMatch(ifMatch) : bodyVersion;
+    }
+
+    static <T> ResponseEntity<T> apply(Supplier<T> update, Supplier<T> current, Function<T, String> etagOf) {
+        try {
+            T saved = update.get();
+            return ResponseEntity.ok().eTag(etagOf.apply(saved)).body(saved);
+        } catch (OptimisticLockingFailureException e) {
+            // La transaction de l'écriture est annulée : l'état courant est relu dans une nouvelle
+            T latest = current.get();
+            return ResponseEntity.status(HttpStatus.CONFLICT).eTag(etagOf.apply(latest)).body(latest);
+        }
+    }
+
+    private static Long parseIfMatch(String ifMatch) {
+        String tag = ifMatch.trim();
+        if (tag.equals("*")) {
+            return null;
+        }
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        int nested = tag.indexOf('.');
+        if (nested >= 0) {
+            tag = tag.substring(0, nested);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "En-tête If-Match invalide : " + ifMatch);
+        }
+    }
+
+    static String etag(Long version) {
+        return "\"" + version + "\"";
+    }
+}
@@ -1,15 +1,24 @@
 package com.hackaton.backend.controller;
 
+import com.hackaton.backend.dto.BulkImportReportDTO;
+import com.hackaton.backend.dto.ContributionDTO;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.RelatedEntityReportDTO;
 import com.hackaton.backend.model.Contribution;
+import com.hackaton.backend.service.BulkImportService;
 import com.hackaton.backend.service.ContributionService;
+import com.hackaton.backend.service.ExportService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/contributions")
@@ -19,16 +28,32 @@ public class ContributionController {
     @Autowired
     private ContributionService contributionService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Contribution> createContribution(@RequestBody Contribution contribution) {
         return ResponseEntity.ok(contributionService.save(contribution));
     }
 
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReportDTO> importContributions(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer batchSize) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importContributions(request.getInputStream(), batchSize));
+    }
+
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Contribution>> getAllContributions() {
-        return ResponseEntity.ok(contributionService.findAll());
+    public ResponseEntity<CursorPage<ContributionDTO>> getAllContributions(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findPage(after, limit));
     }
 
     @GetMapping("/{id}")
@@ -39,28 +64,61 @@ public class ContributionController {
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Contribution>> getContributionsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(contributionService.findByUserId(userId));
+    public ResponseEntity<CursorPage<ContributionDTO>> getContributionsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findPageByUserId(userId, after, limit));
     }
 
     @GetMapping("/type/{type}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Contribution>> getContributionsByType(@PathVariable String type) {
-        return ResponseEntity.ok(contributionService.findByType(type));
+    public ResponseEntity<CursorPage<ContributionDTO>> getContributionsByType(
+            @PathVariable String type,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findPageByType(type, after, limit));
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Contribution>> getContributionsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(contributionService.findByStatus(status));
+    public ResponseEntity<CursorPage<ContributionDTO>> getContributionsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findPageByStatus(status, after, limit));
     }
 
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Contribution>> getContributionsByDateRange(
+    public ResponseEntity<CursorPage<ContributionDTO>> getContributionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(contributionService.findByDateRange(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findPageByDateRange(startDate, endDate, after, limit));
+    }
+
+    @GetMapping("/related/{type}/{relatedId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<RelatedEntityReportDTO<ContributionDTO>> getContributionsByRelatedEntity(
+            @PathVariable String type,
+            @PathVariable Long relatedId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(contributionService.findRelatedEntityReport(type, relatedId, after, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportContributions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.toResponse("contributions", exportFormat, gzip,
+                out -> exportService.exportContributions(startDate, endDate, exportFormat, out));
     }
 
     @PutMapping("/{id}")
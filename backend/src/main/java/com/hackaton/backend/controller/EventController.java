@@ -1,15 +1,23 @@
 package com.hackaton.backend.controller;
 
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.EventDTO;
+import com.hackaton.backend.dto.EventRegistrationDTO;
+import com.hackaton.backend.dto.EventSeatsDTO;
 import com.hackaton.backend.model.Event;
 import com.hackaton.backend.service.EventService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/events")
@@ -22,68 +30,115 @@ public class EventController {
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Event> createEvent(@RequestBody Event event) {
-        return ResponseEntity.ok(eventService.save(event));
+        return ResponseEntity.ok(eventService.createEvent(event));
     }
 
     @GetMapping
-    public ResponseEntity<List<Event>> getAllEvents() {
-        return ResponseEntity.ok(eventService.findAll());
+    public ResponseEntity<CursorPage<?>> getAllEvents(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, eventService.getEventsPageETag(fields, after, limit),
+                () -> fields != null
+                        ? eventService.getEventsFieldsPage(fields, after, limit)
+                        : eventService.getEventsPage(after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Event> getEventById(@PathVariable Long id) {
-        return ResponseEntity.ok(eventService.findById(id));
+    public ResponseEntity<Event> getEventById(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, eventService.getEventETag(id),
+                () -> eventService.getEventById(id));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Event>> getEventsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(eventService.findByUserId(userId));
+    public ResponseEntity<CursorPage<EventDTO>> getEventsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, eventService.getEventsByUserPageETag(userId, after, limit),
+                () -> eventService.getEventsByUserPage(userId, after, limit));
     }
 
-    @GetMapping("/category/{category}")
-    public ResponseEntity<List<Event>> getEventsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(eventService.findByCategory(category));
+    @GetMapping("/date-range")
+    public ResponseEntity<CursorPage<EventDTO>> getEventsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, eventService.getEventsByDateRangePageETag(startDate, endDate, after, limit),
+                () -> eventService.getEventsByDateRangePage(startDate, endDate, after, limit));
     }
 
-    @GetMapping("/date-range")
-    public ResponseEntity<List<Event>> getEventsByDateRange(
+    // Autres événements au même lieu dont le créneau recouvre [startDate, endDate]
+    @GetMapping("/conflicts")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<EventDTO>> getLocationConflicts(
+            @RequestParam String location,
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(eventService.findByDateRange(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) Long excludeId) {
+        return ResponseEntity.ok(eventService.getLocationConflicts(location, startDate, endDate, excludeId));
     }
 
     @GetMapping("/upcoming")
-    public ResponseEntity<List<Event>> getUpcomingEvents() {
-        return ResponseEntity.ok(eventService.findUpcomingEvents());
+    public ResponseEntity<CursorPage<EventDTO>> getUpcomingEvents(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, eventService.getUpcomingEventsPageETag(after, limit),
+                () -> eventService.getUpcomingEventsPage(after, limit));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Event> updateEvent(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             @RequestBody Event eventDetails) {
-        return ResponseEntity.ok(eventService.update(id, eventDetails));
+        eventDetails.setId(id);
+        eventDetails.setVersion(ConditionalUpdate.expectedVersion(ifMatch, eventDetails.getVersion()));
+        return ConditionalUpdate.apply(() -> eventService.updateEvent(eventDetails),
+                () -> eventService.getEventById(id), eventService::getEventETag);
+    }
+
+    // Seuls les champs présents sont modifiés ; 409 avec l'état courant si la version a changé
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Event> patchEvent(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestBody Map<String, Object> changes) {
+        Long version = ConditionalUpdate.expectedVersion(ifMatch, changes);
+        return ConditionalUpdate.apply(() -> eventService.patchEvent(id, version, changes),
+                () -> eventService.getEventById(id), eventService::getEventETag);
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteEvent(@PathVariable Long id) {
-        eventService.deleteById(id);
+        eventService.deleteEvent(id);
         return ResponseEntity.ok().build();
     }
 
+    // Réponse une fois l'inscription enregistrée : place confirmée ou rang en liste d'attente
     @PostMapping("/{id}/register")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Void> registerForEvent(@PathVariable Long id, @RequestParam Long userId) {
-        eventService.registerUserForEvent(id, userId);
-        return ResponseEntity.ok().build();
+    public CompletableFuture<ResponseEntity<EventRegistrationDTO>> registerForEvent(@PathVariable Long id, @RequestParam Long userId) {
+        return eventService.registerUserForEvent(id, userId).thenApply(ResponseEntity::ok);
     }
 
     @PostMapping("/{id}/unregister")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Void> unregisterFromEvent(@PathVariable Long id, @RequestParam Long userId) {
-        eventService.unregisterUserFromEvent(id, userId);
-        return ResponseEntity.ok().build();
+    public CompletableFuture<ResponseEntity<Void>> unregisterFromEvent(@PathVariable Long id, @RequestParam Long userId) {
+        return eventService.unregisterUserFromEvent(id, userId).thenApply(done -> ResponseEntity.ok().<Void>build());
+    }
+
+    @GetMapping("/{id}/seats")
+    public ResponseEntity<EventSeatsDTO> getEventSeats(@PathVariable Long id) {
+        return ResponseEntity.ok(eventService.getEventSeats(id));
     }
 }
\ No newline at end of file
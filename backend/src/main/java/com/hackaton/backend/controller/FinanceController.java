@@ -0,0 +1,31 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.dto.FinanceDashboardDTO;
+import com.hackaton.backend.security.UserPrincipal;
+import com.hackaton.backend.service.FinanceDashboardService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/finance")
+@CrossOrigin(origins = "*")
+public class FinanceController {
+
+    @Autowired
+    private FinanceDashboardService financeDashboardService;
+
+    // Dernières transactions réservées aux administrateurs, comme GET /transactions : absentes (null) sinon
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<FinanceDashboardDTO> getDashboard(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(defaultValue = "12") int months,
+            @RequestParam(defaultValue = "5") int topCategories,
+            @RequestParam(defaultValue = "5") int recent) {
+        return ResponseEntity.ok(financeDashboardService.getDashboard(months, topCategories,
+                principal.isAdmin() ? recent : 0));
+    }
+}
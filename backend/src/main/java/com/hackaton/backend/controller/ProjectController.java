@@ -1,13 +1,19 @@
 package com.hackaton.backend.controller;
 
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.ProjectDTO;
 import com.hackaton.backend.model.Project;
 import com.hackaton.backend.service.ProjectService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
-import java.util.List;
+import java.time.LocalDateTime;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/projects")
@@ -20,61 +26,88 @@ public class ProjectController {
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Project> createProject(@RequestBody Project project) {
-        return ResponseEntity.ok(projectService.save(project));
+        return ResponseEntity.ok(projectService.createProject(project));
     }
 
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
-        return ResponseEntity.ok(projectService.findAll());
+    public ResponseEntity<CursorPage<?>> getAllProjects(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, projectService.getProjectsPageETag(fields, after, limit),
+                () -> fields != null
+                        ? projectService.getProjectsFieldsPage(fields, after, limit)
+                        : projectService.getProjectsPage(after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
-        return ResponseEntity.ok(projectService.findById(id));
+    public ResponseEntity<Project> getProjectById(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, projectService.getProjectETag(id),
+                () -> projectService.getProjectById(id));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Project>> getProjectsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(projectService.findByUserId(userId));
+    public ResponseEntity<CursorPage<ProjectDTO>> getProjectsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, projectService.getProjectsByUserPageETag(userId, after, limit),
+                () -> projectService.getProjectsByUserPage(userId, after, limit));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Project>> getProjectsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(projectService.findByStatus(status));
+    public ResponseEntity<CursorPage<ProjectDTO>> getProjectsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, projectService.getProjectsByStatusPageETag(status, after, limit),
+                () -> projectService.getProjectsByStatusPage(status, after, limit));
     }
 
-    @GetMapping("/category/{category}")
-    public ResponseEntity<List<Project>> getProjectsByCategory(@PathVariable String category) {
-        return ResponseEntity.ok(projectService.findByCategory(category));
+    // Projets en cours à un moment quelconque de la période, y compris ceux commencés avant
+    @GetMapping("/date-range")
+    public ResponseEntity<CursorPage<ProjectDTO>> getProjectsByDateRange(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, projectService.getProjectsOverlappingPageETag(startDate, endDate, after, limit),
+                () -> projectService.getProjectsOverlappingPage(startDate, endDate, after, limit));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Project> updateProject(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             @RequestBody Project projectDetails) {
-        return ResponseEntity.ok(projectService.update(id, projectDetails));
+        projectDetails.setId(id);
+        projectDetails.setVersion(ConditionalUpdate.expectedVersion(ifMatch, projectDetails.getVersion()));
+        return ConditionalUpdate.apply(() -> projectService.updateProject(projectDetails),
+                () -> projectService.getProjectById(id), projectService::getProjectETag);
     }
 
-    @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
-        projectService.deleteById(id);
-        return ResponseEntity.ok().build();
-    }
-
-    @PostMapping("/{id}/join")
+    // Seuls les champs présents sont modifiés ; 409 avec l'état courant si la version a changé
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Void> joinProject(@PathVariable Long id, @RequestParam Long userId) {
-        projectService.addUserToProject(id, userId);
-        return ResponseEntity.ok().build();
+    public ResponseEntity<Project> patchProject(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestBody Map<String, Object> changes) {
+        Long version = ConditionalUpdate.expectedVersion(ifMatch, changes);
+        return ConditionalUpdate.apply(() -> projectService.patchProject(id, version, changes),
+                () -> projectService.getProjectById(id), projectService::getProjectETag);
     }
 
-    @PostMapping("/{id}/leave")
-    @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<Void> leaveProject(@PathVariable Long id, @RequestParam Long userId) {
-        projectService.removeUserFromProject(id, userId);
+    @DeleteMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
+        projectService.deleteProject(id);
         return ResponseEntity.ok().build();
     }
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.dto.FinancialReportDTO;
+import com.hackaton.backend.service.ReportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    @Autowired
+    private ReportService reportService;
+
+    @GetMapping("/financial")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<FinancialReportDTO> getFinancialReport(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+        return ResponseEntity.ok(reportService.getFinancialReport(startDate, endDate));
+    }
+
+    @GetMapping("/monthly")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<FinancialReportDTO>> getMonthlyReports(@RequestParam int year) {
+        return ResponseEntity.ok(reportService.getPeriodReports(
+                LocalDate.of(year, 1, 1), LocalDate.of(year, 12, 31), ChronoUnit.MONTHS));
+    }
+
+    @GetMapping("/yearly")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<FinancialReportDTO>> getYearlyReports(
+            @RequestParam int fromYear,
+            @RequestParam int toYear) {
+        return ResponseEntity.ok(reportService.getPeriodReports(
+                LocalDate.of(fromYear, 1, 1), LocalDate.of(toYear, 12, 31), ChronoUnit.YEARS));
+    }
+
+    @PostMapping("/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildRollups() {
+        return ResponseEntity.ok(reportService.rebuild());
+    }
+}
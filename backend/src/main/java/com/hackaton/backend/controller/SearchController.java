@@ -0,0 +1,27 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.dto.SearchResultDTO;
+import com.hackaton.backend.service.SearchService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*")
+public class SearchController {
+
+    @Autowired
+    private SearchService searchService;
+
+    @GetMapping
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<SearchResultDTO> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") int offset,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(searchService.search(q, type, offset, limit));
+    }
+}
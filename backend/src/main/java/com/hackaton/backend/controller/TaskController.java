@@ -1,13 +1,19 @@
 package com.hackaton.backend.controller;
 
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.TaskDTO;
 import com.hackaton.backend.model.Task;
 import com.hackaton.backend.service.TaskService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
+import org.springframework.web.context.request.WebRequest;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/tasks")
@@ -20,52 +26,138 @@ public class TaskController {
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Task> createTask(@RequestBody Task task) {
-        return ResponseEntity.ok(taskService.save(task));
+        return ResponseEntity.ok(taskService.createTask(task));
     }
 
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.findAll());
+    public ResponseEntity<CursorPage<?>> getAllTasks(
+            @RequestParam(required = false) String fields,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTasksPageETag(fields, after, limit),
+                () -> fields != null
+                        ? taskService.getTasksFieldsPage(fields, after, limit)
+                        : taskService.getTasksPage(after, limit));
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
-        return ResponseEntity.ok(taskService.findById(id));
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id, WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTaskETag(id),
+                () -> taskService.getTaskById(id));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Task>> getTasksByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(taskService.findByUserId(userId));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTasksByAssignedUserPageETag(userId, after, limit),
+                () -> taskService.getTasksByAssignedUserPage(userId, after, limit));
     }
 
     @GetMapping("/project/{projectId}")
-    public ResponseEntity<List<Task>> getTasksByProjectId(@PathVariable Long projectId) {
-        return ResponseEntity.ok(taskService.findByProjectId(projectId));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByProjectId(
+            @PathVariable Long projectId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTasksByProjectPageETag(projectId, after, limit),
+                () -> taskService.getTasksByProjectPage(projectId, after, limit));
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(taskService.findByStatus(status));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTasksByStatusPageETag(status, after, limit),
+                () -> taskService.getTasksByStatusPage(status, after, limit));
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable String priority) {
-        return ResponseEntity.ok(taskService.findByPriority(priority));
+    public ResponseEntity<CursorPage<TaskDTO>> getTasksByPriority(
+            @PathVariable String priority,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit,
+            WebRequest request) {
+        return ConditionalGet.ifNoneMatch(request, taskService.getTasksByPriorityPageETag(priority, after, limit),
+                () -> taskService.getTasksByPriorityPage(priority, after, limit));
+    }
+
+    // Progression de plusieurs projets en un appel : {projectId: {statut: nombre}}
+    @GetMapping("/counts/projects")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getProjectStatusCounts(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(taskService.getProjectStatusCounts(ids));
+    }
+
+    // Variante pour les listes trop longues pour une URL
+    @PostMapping("/counts/projects")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getProjectStatusCountsFromBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.getProjectStatusCounts(ids));
+    }
+
+    @GetMapping("/counts/assignees")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getAssigneeStatusCounts(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(taskService.getAssigneeStatusCounts(ids));
+    }
+
+    @PostMapping("/counts/assignees")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Map<Long, Map<String, Long>>> getAssigneeStatusCountsFromBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(taskService.getAssigneeStatusCounts(ids));
+    }
+
+    @PostMapping("/counts/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildStatusCounts() {
+        return ResponseEntity.ok(taskService.rebuildStatusCounts());
+    }
+
+    // Tâches non terminées dont l'échéance est passée (à maintenant ou à ?date=), par échéance croissante
+    @GetMapping("/overdue")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<CursorPage<TaskDTO>> getOverdueTasks(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime date,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(taskService.getOverdueTasksPage(date != null ? date : LocalDateTime.now(), after, limit));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Task> updateTask(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             @RequestBody Task taskDetails) {
-        return ResponseEntity.ok(taskService.update(id, taskDetails));
+        taskDetails.setId(id);
+        taskDetails.setVersion(ConditionalUpdate.expectedVersion(ifMatch, taskDetails.getVersion()));
+        return ConditionalUpdate.apply(() -> taskService.updateTask(taskDetails),
+                () -> taskService.getTaskById(id), taskService::getTaskETag);
+    }
+
+    // Seuls les champs présents sont modifiés ; 409 avec l'état courant si la version a changé
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<Task> patchTask(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestBody Map<String, Object> changes) {
+        Long version = ConditionalUpdate.expectedVersion(ifMatch, changes);
+        return ConditionalUpdate.apply(() -> taskService.patchTask(id, version, changes),
+                () -> taskService.getTaskById(id), taskService::getTaskETag);
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteTask(@PathVariable Long id) {
-        taskService.deleteById(id);
+        taskService.deleteTask(id);
         return ResponseEntity.ok().build();
     }
 
@@ -1,15 +1,26 @@
 package com.hackaton.backend.controller;
 
+import com.hackaton.backend.dto.BalanceDTO;
+import com.hackaton.backend.dto.BulkImportReportDTO;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.RelatedEntityReportDTO;
+import com.hackaton.backend.dto.TransactionDTO;
 import com.hackaton.backend.model.Transaction;
+import com.hackaton.backend.service.BulkImportService;
+import com.hackaton.backend.service.ExportService;
 import com.hackaton.backend.service.TransactionService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -19,62 +30,139 @@ public class TransactionController {
     @Autowired
     private TransactionService transactionService;
 
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
     @PostMapping
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Transaction> createTransaction(@RequestBody Transaction transaction) {
-        return ResponseEntity.ok(transactionService.save(transaction));
+        return ResponseEntity.ok(transactionService.createTransaction(transaction));
+    }
+
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, "application/x-ndjson"})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<BulkImportReportDTO> importTransactions(
+            HttpServletRequest request,
+            @RequestParam(required = false) Integer batchSize) throws IOException {
+        return ResponseEntity.ok(bulkImportService.importTransactions(request.getInputStream(), batchSize));
     }
 
     @GetMapping
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Transaction>> getAllTransactions() {
-        return ResponseEntity.ok(transactionService.findAll());
+    public ResponseEntity<CursorPage<TransactionDTO>> getAllTransactions(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getTransactionsPage(after, limit));
+    }
+
+    @GetMapping("/balance")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<BalanceDTO> getCurrentBalance() {
+        return ResponseEntity.ok(transactionService.getCurrentBalance());
+    }
+
+    @PostMapping("/balance/rebuild")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> rebuildBalance() {
+        return ResponseEntity.ok(transactionService.rebuildBalance());
     }
 
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<Transaction> getTransactionById(@PathVariable Long id) {
-        return ResponseEntity.ok(transactionService.findById(id));
+        return ResponseEntity.ok(transactionService.getTransactionById(id));
     }
 
     @GetMapping("/user/{userId}")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<List<Transaction>> getTransactionsByUserId(@PathVariable Long userId) {
-        return ResponseEntity.ok(transactionService.findByUserId(userId));
+    public ResponseEntity<CursorPage<TransactionDTO>> getTransactionsByUserId(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getTransactionsByUserPage(userId, after, limit));
     }
 
     @GetMapping("/type/{type}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByType(@PathVariable String type) {
-        return ResponseEntity.ok(transactionService.findByType(type));
+    public ResponseEntity<CursorPage<TransactionDTO>> getTransactionsByType(
+            @PathVariable String type,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getTransactionsByTypePage(type, after, limit));
     }
 
     @GetMapping("/status/{status}")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(transactionService.findByStatus(status));
+    public ResponseEntity<CursorPage<TransactionDTO>> getTransactionsByStatus(
+            @PathVariable String status,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getTransactionsByStatusPage(status, after, limit));
     }
 
     @GetMapping("/date-range")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Transaction>> getTransactionsByDateRange(
+    public ResponseEntity<CursorPage<TransactionDTO>> getTransactionsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
-        return ResponseEntity.ok(transactionService.findByDateRange(startDate, endDate));
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getTransactionsByDateRangePage(startDate, endDate, after, limit));
+    }
+
+    @GetMapping("/related/{type}/{relatedId}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<RelatedEntityReportDTO<TransactionDTO>> getTransactionsByRelatedEntity(
+            @PathVariable String type,
+            @PathVariable Long relatedId,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(transactionService.getRelatedEntityReport(type, relatedId, after, limit));
+    }
+
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "ndjson") String format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        ExportService.Format exportFormat = ExportService.Format.parse(format);
+        return ExportService.toResponse("transactions", exportFormat, gzip,
+                out -> exportService.exportTransactions(startDate, endDate, exportFormat, out));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Transaction> updateTransaction(
             @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
             @RequestBody Transaction transactionDetails) {
-        return ResponseEntity.ok(transactionService.update(id, transactionDetails));
+        transactionDetails.setId(id);
+        transactionDetails.setVersion(ConditionalUpdate.expectedVersion(ifMatch, transactionDetails.getVersion()));
+        return ConditionalUpdate.apply(() -> transactionService.updateTransaction(transactionDetails),
+                () -> transactionService.getTransactionById(id), transaction -> ConditionalUpdate.etag(transaction.getVersion()));
+    }
+
+    // Seuls les champs présents sont modifiés ; 409 avec l'état courant si la version a changé
+    @PatchMapping(value = "/{id}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Transaction> patchTransaction(
+            @PathVariable Long id,
+            @RequestHeader(value = "If-Match", required = false) String ifMatch,
+            @RequestBody Map<String, Object> changes) {
+        Long version = ConditionalUpdate.expectedVersion(ifMatch, changes);
+        return ConditionalUpdate.apply(() -> transactionService.patchTransaction(id, version, changes),
+                () -> transactionService.getTransactionById(id), transaction -> ConditionalUpdate.etag(transaction.getVersion()));
     }
 
     @DeleteMapping("/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deleteTransaction(@PathVariable Long id) {
-        transactionService.deleteById(id);
+        transactionService.deleteTransaction(id);
         return ResponseEntity.ok().build();
     }
 
@@ -0,0 +1,32 @@
+package com.hackaton.backend.controller;
+
+import com.hackaton.backend.dto.UserDTO;
+import com.hackaton.backend.service.UserService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/users")
+@CrossOrigin(origins = "*")
+public class UserController {
+
+    @Autowired
+    private UserService userService;
+
+    @GetMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<UserDTO>> getUsersBatch(@RequestParam List<Long> ids) {
+        return ResponseEntity.ok(userService.getUserSummaries(ids));
+    }
+
+    // Variante pour les listes trop longues pour une URL
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<List<UserDTO>> getUsersBatchFromBody(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(userService.getUserSummaries(ids));
+    }
+}
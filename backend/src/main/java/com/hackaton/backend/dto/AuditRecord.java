@@ -0,0 +1,48 @@
+package com.hackaton.backend.dto;
+
+import com.hackaton.backend.model.Contribution;
+import com.hackaton.backend.model.Transaction;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.LocalDateTime;
+
+/**
+ * Entrée du journal d'audit des écritures financières : état avant et après (null à la création,
+ * à la suppression), auteur de la modification et numéro de séquence attribué à l'écriture dans le journal.
+ */
+public record AuditRecord(long sequence, Instant timestamp, String entity, String action, Long entityId,
+                          Long actorId, State before, State after) {
+
+    public static final String ENTITY_TRANSACTION = "transaction";
+    public static final String ENTITY_CONTRIBUTION = "contribution";
+
+    public static final String ACTION_CREATE = "create";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_PROCESS = "process";
+    public static final String ACTION_CANCEL = "cancel";
+    public static final String ACTION_DELETE = "delete";
+
+    public AuditRecord withSequence(long sequence) {
+        return new AuditRecord(sequence, timestamp, entity, action, entityId, actorId, before, after);
+    }
+
+    /**
+     * Champs financiers d'une transaction ou d'une contribution (une contribution n'a pas de catégorie).
+     */
+    public record State(Long userId, String type, String category, BigDecimal amount, String status,
+                        LocalDateTime date) {
+
+        public static State of(Transaction transaction) {
+            return new State(transaction.getUser() != null ? transaction.getUser().getId() : null,
+                    transaction.getType(), transaction.getCategory(), transaction.getAmount(),
+                    transaction.getStatus(), transaction.getDate());
+        }
+
+        public static State of(Contribution contribution) {
+            return new State(contribution.getUser() != null ? contribution.getUser().getId() : null,
+                    contribution.getType(), null, contribution.getAmount(), contribution.getStatus(),
+                    contribution.getDate());
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class BalanceDTO {
+    private BigDecimal balance;
+    private BigDecimal totalDeposits;
+    private BigDecimal totalWithdrawals;
+    private Long transactionCount;
+    private LocalDateTime updatedAt;
+
+    // Constructeur par défaut
+    public BalanceDTO() {}
+
+    // Constructeur avec tous les champs
+    public BalanceDTO(BigDecimal balance, BigDecimal totalDeposits, BigDecimal totalWithdrawals,
+                      Long transactionCount, LocalDateTime updatedAt) {
+        this.balance = balance;
+        this.totalDeposits = totalDeposits;
+        this.totalWithdrawals = totalWithdrawals;
+        this.transactionCount = transactionCount;
+        this.updatedAt = updatedAt;
+    }
+}
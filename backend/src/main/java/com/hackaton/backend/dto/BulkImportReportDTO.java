@@ -0,0 +1,29 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class BulkImportReportDTO {
+    private long received;
+    private long inserted;
+    private long failed;
+    private int batches;
+    private List<RowError> errors = new ArrayList<>();
+
+    @Data
+    public static class RowError {
+        private long index;
+        private String message;
+
+        // Constructeur par défaut
+        public RowError() {}
+
+        // Constructeur avec tous les champs
+        public RowError(long index, String message) {
+            this.index = index;
+            this.message = message;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import org.springframework.util.DigestUtils;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+/**
+ * État d'une collection filtrée (nombre de lignes, dernière modification), calculé sans charger les lignes.
+ * Toute création, modification ou suppression dans le filtre change l'un des deux.
+ */
+@Data
+public class CollectionStamp {
+    private Long count;
+    private LocalDateTime lastUpdated;
+
+    // Constructeur par défaut
+    public CollectionStamp() {}
+
+    // Constructeur avec tous les champs
+    public CollectionStamp(Long count, LocalDateTime lastUpdated) {
+        this.count = count;
+        this.lastUpdated = lastUpdated;
+    }
+
+    /**
+     * ETag fort d'une page : état de la collection plus les paramètres qui déterminent son contenu
+     * (nom du filtre, valeurs, curseur, taille).
+     */
+    public String etag(Object... request) {
+        StringBuilder key = new StringBuilder().append(count).append('|').append(lastUpdated);
+        for (Object part : request) {
+            key.append('|').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+}
@@ -1,5 +1,6 @@
 package com.hackaton.backend.dto;
 
+import com.hackaton.backend.model.RelatedEntity;
 import lombok.Data;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ public class ContributionDTO {
     private String status;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    private RelatedEntity relatedTo;
 
     // Constructeur par défaut
     public ContributionDTO() {}
@@ -33,4 +35,17 @@ public class ContributionDTO {
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
     }
+
+    // Constructeur avec le lien vers l'entité concernée
+    public ContributionDTO(Long id, Long userId, String type, BigDecimal amount,
+                           String description, LocalDateTime date, String status,
+                           LocalDateTime createdAt, LocalDateTime updatedAt,
+                           String relatedType, Long relatedId) {
+        this(id, userId, type, amount, description, date, status, createdAt, updatedAt);
+        if (relatedType != null) {
+            this.relatedTo = new RelatedEntity();
+            this.relatedTo.setType(relatedType);
+            this.relatedTo.setId(relatedId);
+        }
+    }
 }
\ No newline at end of file
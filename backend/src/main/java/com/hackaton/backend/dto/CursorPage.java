@@ -0,0 +1,32 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+import java.util.function.Function;
+
+@Data
+public class CursorPage<T> {
+    private List<T> items;
+    private String next;
+    private Integer limit;
+
+    // Constructeur par défaut
+    public CursorPage() {}
+
+    // Constructeur avec tous les champs
+    public CursorPage(List<T> items, String next, Integer limit) {
+        this.items = items;
+        this.next = next;
+        this.limit = limit;
+    }
+
+    public static <T> CursorPage<T> of(Slice<T> slice, Function<T, PageCursor> cursorOf) {
+        List<T> items = slice.getContent();
+        String next = slice.hasNext() && !items.isEmpty()
+                ? cursorOf.apply(items.get(items.size() - 1)).encode()
+                : null;
+        return new CursorPage<>(items, next, slice.getSize());
+    }
+}
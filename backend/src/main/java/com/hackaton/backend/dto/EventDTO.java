@@ -0,0 +1,49 @@
+package com.hackaton.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class EventDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String location;
+    private String status;
+    private Long userId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Version de la ligne, pour ignorer une mise à jour en mémoire plus ancienne ; absente des réponses
+    @JsonIgnore
+    private Long version;
+
+    // Constructeur par défaut
+    public EventDTO() {}
+
+    // Constructeur avec tous les champs
+    public EventDTO(Long id, String title, String description, LocalDateTime startDate,
+                    LocalDateTime endDate, String location, String status, Long userId,
+                    LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.location = location;
+        this.status = status;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Constructeur avec la version de la ligne
+    public EventDTO(Long id, String title, String description, LocalDateTime startDate,
+                    LocalDateTime endDate, String location, String status, Long userId,
+                    LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, description, startDate, endDate, location, status, userId, createdAt, updatedAt);
+        this.version = version;
+    }
+}
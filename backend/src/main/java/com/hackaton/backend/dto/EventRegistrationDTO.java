@@ -0,0 +1,23 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class EventRegistrationDTO {
+    private Long eventId;
+    private Long userId;
+    private String status;
+    // Rang dans la liste d'attente (1 = prochain promu), null si la place est confirmée
+    private Integer waitlistPosition;
+
+    // Constructeur par défaut
+    public EventRegistrationDTO() {}
+
+    // Constructeur avec tous les champs
+    public EventRegistrationDTO(Long eventId, Long userId, String status, Integer waitlistPosition) {
+        this.eventId = eventId;
+        this.userId = userId;
+        this.status = status;
+        this.waitlistPosition = waitlistPosition;
+    }
+}
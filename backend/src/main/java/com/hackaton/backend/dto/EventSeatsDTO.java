@@ -0,0 +1,22 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class EventSeatsDTO {
+    private Long eventId;
+    private Integer capacity;
+    private Integer registered;
+    private Integer waitlisted;
+
+    // Constructeur par défaut
+    public EventSeatsDTO() {}
+
+    // Constructeur avec tous les champs
+    public EventSeatsDTO(Long eventId, Integer capacity, Integer registered, Integer waitlisted) {
+        this.eventId = eventId;
+        this.capacity = capacity;
+        this.registered = registered;
+        this.waitlisted = waitlisted;
+    }
+}
@@ -0,0 +1,39 @@
+package com.hackaton.backend.dto;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Champs demandés par {@code ?fields=a,b,c}, validés contre ceux qu'expose une liste
+ * (nom du champ JSON vers chemin JPQL). Les champs obligatoires (identifiant, clé du curseur)
+ * sont toujours sélectionnés.
+ */
+public record FieldSelection(Map<String, String> columns) {
+
+    public static FieldSelection parse(String fields, Map<String, String> allowed, String... required) {
+        Map<String, String> columns = new LinkedHashMap<>();
+        for (String field : required) {
+            columns.put(field, allowed.get(field));
+        }
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            String path = allowed.get(name);
+            if (path == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ inconnu : " + name);
+            }
+            columns.put(name, path);
+        }
+        return new FieldSelection(columns);
+    }
+
+    public String select() {
+        return columns.values().stream().collect(Collectors.joining(", ", "SELECT ", ""));
+    }
+}
@@ -0,0 +1,20 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class FinanceDashboardDTO {
+    private BalanceDTO balance;
+    private List<FinancialReportDTO> months;
+    private List<RollupTotalDTO> topCategories;
+    private List<RollupTotalDTO> contributionsByRelatedType;
+    private Map<String, Long> pendingCounts;
+    private List<TransactionDTO> recentTransactions;
+    // Sections non calculées dans le délai imparti (ou en erreur), laissées à null
+    private List<String> unavailable;
+
+    // Constructeur par défaut
+    public FinanceDashboardDTO() {}
+}
@@ -0,0 +1,23 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+public class FinancialReportDTO {
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private BigDecimal initialBalance;
+    private BigDecimal finalBalance;
+    private BigDecimal totalDeposits;
+    private BigDecimal totalWithdrawals;
+    private BigDecimal totalContributions;
+    private Long transactionCount;
+    private Long contributionCount;
+    private List<RollupTotalDTO> categories;
+
+    // Constructeur par défaut
+    public FinancialReportDTO() {}
+}
@@ -0,0 +1,51 @@
+package com.hackaton.backend.dto;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+
+/**
+ * Position dans une liste triée par (date, id), transmise au client sous forme opaque.
+ */
+public record PageCursor(LocalDateTime key, Long id) {
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 500;
+
+    private static final PageCursor FIRST_DESCENDING = new PageCursor(LocalDateTime.of(9999, 12, 31, 23, 59, 59), Long.MAX_VALUE);
+    private static final PageCursor FIRST_ASCENDING = new PageCursor(LocalDateTime.of(1000, 1, 1, 0, 0), Long.MIN_VALUE);
+
+    // Curseur de départ pour un tri décroissant
+    public static PageCursor descendingFrom(String after) {
+        return after == null || after.isBlank() ? FIRST_DESCENDING : decode(after);
+    }
+
+    // Curseur de départ pour un tri croissant
+    public static PageCursor ascendingFrom(String after) {
+        return after == null || after.isBlank() ? FIRST_ASCENDING : decode(after);
+    }
+
+    // Toujours la première "page" : le curseur remplace l'OFFSET
+    public static Pageable limit(int limit) {
+        return PageRequest.of(0, Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    public String encode() {
+        String raw = key + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static PageCursor decode(String after) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(after), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur de pagination invalide");
+        }
+    }
+}
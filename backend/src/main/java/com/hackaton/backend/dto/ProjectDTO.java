@@ -0,0 +1,49 @@
+package com.hackaton.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class ProjectDTO {
+    private Long id;
+    private String name;
+    private String description;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    private String status;
+    private Double budget;
+    private Long userId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Version de la ligne, pour ignorer une mise à jour en mémoire plus ancienne ; absente des réponses
+    @JsonIgnore
+    private Long version;
+
+    // Constructeur par défaut
+    public ProjectDTO() {}
+
+    // Constructeur avec tous les champs
+    public ProjectDTO(Long id, String name, String description, LocalDateTime startDate,
+                      LocalDateTime endDate, String status, Double budget, Long userId,
+                      LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.name = name;
+        this.description = description;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.status = status;
+        this.budget = budget;
+        this.userId = userId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Constructeur avec la version de la ligne
+    public ProjectDTO(Long id, String name, String description, LocalDateTime startDate,
+                      LocalDateTime endDate, String status, Double budget, Long userId,
+                      LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, name, description, startDate, endDate, status, budget, userId, createdAt, updatedAt);
+        this.version = version;
+    }
+}
@@ -0,0 +1,40 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+public class RelatedEntityReportDTO<T> {
+    private String relatedType;
+    private Long relatedId;
+    private List<T> items;
+    private String next;
+    private BigDecimal totalAmount;
+    private BigDecimal netAmount;
+    private Long count;
+    private List<RollupTotalDTO> totalsByType;
+
+    // Constructeur par défaut
+    public RelatedEntityReportDTO() {}
+
+    public static <T> RelatedEntityReportDTO<T> of(String relatedType, Long relatedId, CursorPage<T> page,
+                                                   List<RollupTotalDTO> totalsByType) {
+        RelatedEntityReportDTO<T> report = new RelatedEntityReportDTO<>();
+        report.setRelatedType(relatedType);
+        report.setRelatedId(relatedId);
+        report.setItems(page.getItems());
+        report.setNext(page.getNext());
+        report.setTotalsByType(totalsByType);
+        BigDecimal total = BigDecimal.ZERO;
+        long count = 0;
+        for (RollupTotalDTO totalByType : totalsByType) {
+            total = total.add(totalByType.getAmount());
+            count += totalByType.getCount();
+        }
+        report.setTotalAmount(total);
+        report.setNetAmount(total);
+        report.setCount(count);
+        return report;
+    }
+}
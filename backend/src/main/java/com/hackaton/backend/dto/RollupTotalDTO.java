@@ -0,0 +1,44 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+public class RollupTotalDTO {
+    private LocalDate day;
+    private String type;
+    private String category;
+    private String status;
+    private BigDecimal amount;
+    private Long count;
+
+    // Constructeur par défaut
+    public RollupTotalDTO() {}
+
+    // Totaux par type
+    public RollupTotalDTO(String type, BigDecimal amount, Long count) {
+        this.type = type;
+        this.amount = amount;
+        this.count = count;
+    }
+
+    // Totaux par jour et par type
+    public RollupTotalDTO(LocalDate day, String type, BigDecimal amount, Long count) {
+        this(type, amount, count);
+        this.day = day;
+    }
+
+    // Totaux par type et par catégorie
+    public RollupTotalDTO(String type, String category, BigDecimal amount, Long count) {
+        this(type, amount, count);
+        this.category = category;
+    }
+
+    // Totaux d'un cumul complet (jour, type, catégorie, statut), pour la reconstruction
+    public RollupTotalDTO(LocalDate day, String type, String category, String status, BigDecimal amount, Long count) {
+        this(type, category, amount, count);
+        this.day = day;
+        this.status = status;
+    }
+}
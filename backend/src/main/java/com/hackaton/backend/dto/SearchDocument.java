@@ -0,0 +1,28 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+/**
+ * Texte indexé d'un événement, d'un projet ou d'une tâche : le titre (ou nom) pèse plus
+ * que le reste du texte (description, lieu).
+ */
+@Data
+public class SearchDocument {
+    private String type;
+    private Long id;
+    private Long version;
+    private String title;
+    private String text;
+
+    // Constructeur par défaut
+    public SearchDocument() {}
+
+    // Constructeur avec tous les champs
+    public SearchDocument(String type, Long id, Long version, String title, String text) {
+        this.type = type;
+        this.id = id;
+        this.version = version;
+        this.title = title;
+        this.text = text;
+    }
+}
@@ -0,0 +1,22 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class SearchHitDTO {
+    private String type;
+    private Long id;
+    private String title;
+    private Double score;
+
+    // Constructeur par défaut
+    public SearchHitDTO() {}
+
+    // Constructeur avec tous les champs
+    public SearchHitDTO(String type, Long id, String title, Double score) {
+        this.type = type;
+        this.id = id;
+        this.title = title;
+        this.score = score;
+    }
+}
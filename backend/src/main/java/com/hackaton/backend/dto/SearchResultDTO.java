@@ -0,0 +1,27 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class SearchResultDTO {
+    private String query;
+    // Nombre total de documents correspondant à tous les mots de la requête
+    private Integer total;
+    private Integer offset;
+    private Integer limit;
+    private List<SearchHitDTO> hits;
+
+    // Constructeur par défaut
+    public SearchResultDTO() {}
+
+    // Constructeur avec tous les champs
+    public SearchResultDTO(String query, Integer total, Integer offset, Integer limit, List<SearchHitDTO> hits) {
+        this.query = query;
+        this.total = total;
+        this.offset = offset;
+        this.limit = limit;
+        this.hits = hits;
+    }
+}
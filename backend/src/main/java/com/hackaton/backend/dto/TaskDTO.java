@@ -0,0 +1,49 @@
+package com.hackaton.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+@Data
+public class TaskDTO {
+    private Long id;
+    private String title;
+    private String description;
+    private LocalDateTime dueDate;
+    private String priority;
+    private String status;
+    private Long projectId;
+    private Long assignedToId;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    // Version de la ligne, pour ignorer une mise à jour en mémoire plus ancienne ; absente des réponses
+    @JsonIgnore
+    private Long version;
+
+    // Constructeur par défaut
+    public TaskDTO() {}
+
+    // Constructeur avec tous les champs
+    public TaskDTO(Long id, String title, String description, LocalDateTime dueDate,
+                   String priority, String status, Long projectId, Long assignedToId,
+                   LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.title = title;
+        this.description = description;
+        this.dueDate = dueDate;
+        this.priority = priority;
+        this.status = status;
+        this.projectId = projectId;
+        this.assignedToId = assignedToId;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Constructeur avec la version de la ligne
+    public TaskDTO(Long id, String title, String description, LocalDateTime dueDate,
+                   String priority, String status, Long projectId, Long assignedToId,
+                   LocalDateTime createdAt, LocalDateTime updatedAt, Long version) {
+        this(id, title, description, dueDate, priority, status, projectId, assignedToId, createdAt, updatedAt);
+        this.version = version;
+    }
+}
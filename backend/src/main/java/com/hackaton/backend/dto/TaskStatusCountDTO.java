@@ -0,0 +1,20 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class TaskStatusCountDTO {
+    private Long scopeId;
+    private String status;
+    private Long count;
+
+    // Constructeur par défaut
+    public TaskStatusCountDTO() {}
+
+    // Constructeur avec tous les champs
+    public TaskStatusCountDTO(Long scopeId, String status, Long count) {
+        this.scopeId = scopeId;
+        this.status = status;
+        this.count = count;
+    }
+}
@@ -0,0 +1,53 @@
+package com.hackaton.backend.dto;
+
+import com.hackaton.backend.model.RelatedEntity;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+public class TransactionDTO {
+    private Long id;
+    private Long userId;
+    private String type;
+    private BigDecimal amount;
+    private String description;
+    private LocalDateTime date;
+    private String category;
+    private String status;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private RelatedEntity relatedTo;
+
+    // Constructeur par défaut
+    public TransactionDTO() {}
+
+    // Constructeur avec tous les champs
+    public TransactionDTO(Long id, Long userId, String type, BigDecimal amount,
+                          String description, LocalDateTime date, String category, String status,
+                          LocalDateTime createdAt, LocalDateTime updatedAt) {
+        this.id = id;
+        this.userId = userId;
+        this.type = type;
+        this.amount = amount;
+        this.description = description;
+        this.date = date;
+        this.category = category;
+        this.status = status;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+    }
+
+    // Constructeur avec le lien vers l'entité concernée
+    public TransactionDTO(Long id, Long userId, String type, BigDecimal amount,
+                          String description, LocalDateTime date, String category, String status,
+                          LocalDateTime createdAt, LocalDateTime updatedAt,
+                          String relatedType, Long relatedId) {
+        this(id, userId, type, amount, description, date, category, status, createdAt, updatedAt);
+        if (relatedType != null) {
+            this.relatedTo = new RelatedEntity();
+            this.relatedTo.setType(relatedType);
+            this.relatedTo.setId(relatedId);
+        }
+    }
+}
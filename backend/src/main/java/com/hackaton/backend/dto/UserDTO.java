@@ -0,0 +1,24 @@
+package com.hackaton.backend.dto;
+
+import lombok.Data;
+
+@Data
+public class UserDTO {
+    private Long id;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private String role;
+
+    // Constructeur par défaut
+    public UserDTO() {}
+
+    // Constructeur avec tous les champs
+    public UserDTO(Long id, String email, String firstName, String lastName, String role) {
+        this.id = id;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+    }
+}
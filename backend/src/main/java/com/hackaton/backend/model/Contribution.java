@@ -7,10 +7,17 @@ import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "contributions")
+@Table(name = "contributions", indexes = {
+        @Index(name = "idx_contributions_date", columnList = "date, id"),
+        @Index(name = "idx_contributions_user_date", columnList = "user_id, date, id"),
+        @Index(name = "idx_contributions_status_date", columnList = "status, date, id"),
+        @Index(name = "idx_contributions_related", columnList = "related_type, related_id, date, id")
+})
 public class Contribution {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "contributions_id")
+    @TableGenerator(name = "contributions_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "contributions", allocationSize = 50)
     private Long id;
 
     @ManyToOne
@@ -32,6 +39,9 @@ public class Contribution {
     @Column(nullable = false)
     private String status;
 
+    @Embedded
+    private RelatedEntity relatedTo;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,42 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Entity
+@Table(name = "daily_rollups",
+       uniqueConstraints = @UniqueConstraint(name = "uk_daily_rollup_bucket", columnNames = "bucket_key"))
+public class DailyRollup {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Empreinte SHA-256 de (source, jour, type, catégorie, statut) : ces colonnes ont la longueur des
+    // colonnes sources, trop longues ensemble pour une clé unique InnoDB (3072 octets en utf8mb4)
+    @Column(name = "bucket_key", nullable = false, length = 64)
+    private String bucketKey;
+
+    @Column(nullable = false, length = 32)
+    private String source;
+
+    @Column(name = "bucket_day", nullable = false)
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private String type;
+
+    @Column(nullable = false)
+    private String category;
+
+    @Column(nullable = false)
+    private String status;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalAmount;
+
+    @Column(nullable = false)
+    private Long entryCount;
+}
@@ -1,13 +1,27 @@
 package com.hackaton.backend.model;
 
+import com.hackaton.backend.config.SecondLevelCacheConfig;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "events")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.EVENTS)
+@NamedEntityGraph(name = Event.WITH_OWNER, attributeNodes = @NamedAttributeNode("user"))
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_events_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_events_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_events_start_date", columnList = "start_date, id")
+})
 public class Event {
+    public static final String WITH_OWNER = "Event.withOwner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -30,10 +44,18 @@ public class Event {
     @Column(nullable = false)
     private String status;
 
-    @ManyToOne
+    // Nombre de places ; null = illimité. Au-delà, les inscriptions vont en liste d'attente
+    @Column
+    private Integer capacity;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
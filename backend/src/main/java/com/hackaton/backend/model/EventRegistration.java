@@ -0,0 +1,34 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.time.LocalDateTime;
+
+/**
+ * Inscription d'un utilisateur à un événement, confirmée ou en liste d'attente.
+ * Écrite par lots par {@code RegistrationService} ; l'ordre d'inscription fait foi pour la liste d'attente.
+ */
+@Data
+@Entity
+@Table(name = "event_registrations",
+       uniqueConstraints = @UniqueConstraint(name = "uk_event_registration", columnNames = {"event_id", "user_id"}),
+       indexes = @Index(name = "idx_event_registrations_event", columnList = "event_id, registered_at, id"))
+public class EventRegistration {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "event_id", nullable = false)
+    private Event event;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(name = "registered_at", nullable = false)
+    private LocalDateTime registeredAt;
+}
@@ -0,0 +1,36 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Entity
+@Table(name = "ledger_balances")
+public class LedgerBalance {
+    @Id
+    @Column(name = "ledger_key", length = 64)
+    private String ledgerKey;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalDeposits = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal totalWithdrawals = BigDecimal.ZERO;
+
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    @Column(nullable = false)
+    private Long transactionCount = 0L;
+
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
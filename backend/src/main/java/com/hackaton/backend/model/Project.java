@@ -1,14 +1,31 @@
 package com.hackaton.backend.model;
 
+import com.hackaton.backend.config.SecondLevelCacheConfig;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.Set;
 
 @Data
 @Entity
-@Table(name = "projects")
+@DynamicUpdate
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.PROJECTS)
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
+@NamedEntityGraph(name = Project.WITH_OWNER, attributeNodes = @NamedAttributeNode("user"))
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_projects_user_created_at", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_projects_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_projects_start_date", columnList = "start_date, id")
+})
 public class Project {
+    public static final String WITH_OWNER = "Project.withOwner";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -31,13 +48,18 @@ public class Project {
     @Column(nullable = false)
     private Double budget;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     private User user;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "project")
     private Set<Task> tasks;
 
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,17 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Ligne de verrou d'un agrégat maintenu par deltas (cumuls, compteurs) : les écritures la verrouillent
+ * en partage avant d'appliquer leur delta, la reconstruction en exclusif avant de recalculer.
+ */
+@Data
+@Entity
+@Table(name = "rebuild_locks")
+public class RebuildLock {
+    @Id
+    @Column(name = "lock_name", length = 64)
+    private String name;
+}
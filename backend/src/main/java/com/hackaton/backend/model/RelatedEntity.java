@@ -0,0 +1,35 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import lombok.Data;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Lien polymorphe vers l'entité concernée par une écriture financière (événement, projet, organisation).
+ */
+@Data
+@Embeddable
+public class RelatedEntity {
+    public static final String EVENT = "event";
+    public static final String PROJECT = "project";
+    public static final String ORGANIZATION = "organization";
+
+    @Column(name = "related_type", length = 32)
+    private String type;
+
+    @Column(name = "related_id")
+    private Long id;
+
+    public static boolean isSupportedType(String type) {
+        return EVENT.equals(type) || PROJECT.equals(type) || ORGANIZATION.equals(type);
+    }
+
+    public static String requireSupportedType(String type) {
+        if (!isSupportedType(type)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type d'entité liée non supporté : " + type);
+        }
+        return type;
+    }
+}
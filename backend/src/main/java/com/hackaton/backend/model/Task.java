@@ -2,12 +2,27 @@ package com.hackaton.backend.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "tasks")
+// UPDATE limité aux colonnes modifiées (PATCH, changements de statut)
+@DynamicUpdate
+@NamedEntityGraph(name = Task.WITH_PROJECT_AND_ASSIGNEE, attributeNodes = {
+        @NamedAttributeNode(value = "project", subgraph = "project"),
+        @NamedAttributeNode("assignedTo")
+}, subgraphs = @NamedSubgraph(name = "project", attributeNodes = @NamedAttributeNode("user")))
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_tasks_project_created_at", columnList = "project_id, created_at, id"),
+        @Index(name = "idx_tasks_assignee_created_at", columnList = "assigned_to, created_at, id"),
+        @Index(name = "idx_tasks_status_created_at", columnList = "status, created_at, id"),
+        @Index(name = "idx_tasks_due_date", columnList = "due_date, id")
+})
 public class Task {
+    public static final String WITH_PROJECT_AND_ASSIGNEE = "Task.withProjectAndAssignee";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -27,14 +42,19 @@ public class Task {
     @Column(nullable = false)
     private String status;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
     private Project project;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "assigned_to", nullable = false)
     private User assignedTo;
 
+    // Valeur par défaut pour les lignes existantes lors de l'ajout de la colonne
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
@@ -0,0 +1,28 @@
+package com.hackaton.backend.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+@Data
+@Entity
+@Table(name = "task_status_counts",
+       uniqueConstraints = @UniqueConstraint(name = "uk_task_status_count",
+               columnNames = {"scope", "scope_id", "status"}))
+public class TaskStatusCount {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // "project" ou "assignee" : nature de l'identifiant scopeId
+    @Column(nullable = false, length = 16)
+    private String scope;
+
+    @Column(name = "scope_id", nullable = false)
+    private Long scopeId;
+
+    @Column(nullable = false, length = 64)
+    private String status;
+
+    @Column(nullable = false)
+    private Long taskCount;
+}
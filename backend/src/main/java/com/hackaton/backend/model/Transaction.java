@@ -2,15 +2,26 @@ package com.hackaton.backend.model;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.math.BigDecimal;
 
 @Data
 @Entity
-@Table(name = "transactions")
+@DynamicUpdate
+@Table(name = "transactions", indexes = {
+        @Index(name = "idx_transactions_date", columnList = "date, id"),
+        @Index(name = "idx_transactions_user_date", columnList = "user_id, date, id"),
+        @Index(name = "idx_transactions_type_date", columnList = "type, date, id"),
+        @Index(name = "idx_transactions_status_date", columnList = "status, date, id"),
+        @Index(name = "idx_transactions_related", columnList = "related_type, related_id, date, id")
+})
 public class Transaction {
+    // Générateur par table avec allocation groupée : contrairement à IDENTITY, il permet le batching JDBC
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "transactions_id")
+    @TableGenerator(name = "transactions_id", table = "id_generators", pkColumnName = "sequence_name",
+            valueColumnName = "next_val", pkColumnValue = "transactions", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -35,6 +46,13 @@ public class Transaction {
     @Column(nullable = false)
     private String status;
 
+    @Embedded
+    private RelatedEntity relatedTo;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
     @Column(nullable = false)
     private LocalDateTime createdAt;
 
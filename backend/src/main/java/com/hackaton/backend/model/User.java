@@ -1,12 +1,22 @@
 package com.hackaton.backend.model;
 
+import com.hackaton.backend.config.SecondLevelCacheConfig;
+import com.hackaton.backend.security.UserChangeListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import java.util.Set;
 
 @Data
 @Entity
+@JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 @Table(name = "users")
+@EntityListeners(UserChangeListener.class)
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USERS)
 public class User {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -15,6 +25,7 @@ public class User {
     @Column(nullable = false, unique = true)
     private String email;
 
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     @Column(nullable = false)
     private String password;
 
@@ -27,18 +38,35 @@ public class User {
     @Column(nullable = false)
     private String role;
 
+    // Fait partie de l'ETag des tâches, projets et événements qui l'incluent
+    @Version
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long version;
+
+    // Incrémentée à chaque modification hors re-hachage du mot de passe : les claims des jetons d'une version antérieure ne font plus foi
+    @JsonIgnore
+    @Column(nullable = false, columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long tokenVersion = 0L;
+
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_EVENTS)
     private Set<Event> events;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = SecondLevelCacheConfig.USER_PROJECTS)
     private Set<Project> projects;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "assignedTo")
     private Set<Task> tasks;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
     private Set<Transaction> transactions;
 
+    @JsonIgnore
     @OneToMany(mappedBy = "user")
     private Set<Contribution> contributions;
 }
\ No newline at end of file
@@ -1,17 +1,75 @@
 package com.hackaton.backend.repository;
 
+import com.hackaton.backend.dto.ContributionDTO;
+import com.hackaton.backend.dto.RollupTotalDTO;
 import com.hackaton.backend.model.Contribution;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface ContributionRepository extends JpaRepository<Contribution, Long> {
+    // Pagination par curseur sur (date, id) décroissant
+    String AFTER_DATE = " (c.date < :key OR (c.date = :key AND c.id < :id)) ORDER BY c.date DESC, c.id DESC";
+    String LIST_PROJECTION = "SELECT new com.hackaton.backend.dto.ContributionDTO(" +
+            "c.id, c.user.id, c.type, c.amount, c.description, c.date, c.status, c.createdAt, c.updatedAt, c.relatedTo.type, c.relatedTo.id) FROM Contribution c";
+
     List<Contribution> findByUserId(Long userId);
     List<Contribution> findByType(String type);
     List<Contribution> findByStatus(String status);
     List<Contribution> findByDateBetween(LocalDateTime startDate, LocalDateTime endDate);
     List<Contribution> findByUserIdAndStatus(Long userId, String status);
-}
\ No newline at end of file
+
+    // Curseur en lecture seule : fetchSize = Integer.MIN_VALUE active le streaming ligne à ligne du driver MySQL
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT new com.hackaton.backend.dto.ContributionDTO(c.id, c.user.id, c.type, c.amount, c.description, " +
+           "c.date, c.status, c.createdAt, c.updatedAt) " +
+           "FROM Contribution c WHERE c.date BETWEEN :start AND :end ORDER BY c.date, c.id")
+    Stream<ContributionDTO> streamByDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(c.relatedTo.type, SUM(c.amount), COUNT(c)) " +
+           "FROM Contribution c WHERE c.status <> :excludedStatus GROUP BY c.relatedTo.type")
+    List<RollupTotalDTO> sumByRelatedType(@Param("excludedStatus") String excludedStatus);
+
+    @Query(LIST_PROJECTION + " WHERE" + AFTER_DATE)
+    Slice<ContributionDTO> findPage(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.user.id = :userId AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByUserId(@Param("userId") Long userId,
+                                            @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.type = :type AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByType(@Param("type") String type,
+                                          @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.status = :status AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByStatus(@Param("status") String status,
+                                            @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.date BETWEEN :startDate AND :endDate AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByDateBetween(@Param("startDate") LocalDateTime startDate, @Param("endDate") LocalDateTime endDate,
+                                                 @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.user.id = :userId AND c.status = :status AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                                     @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE c.relatedTo.type = :relatedType AND c.relatedTo.id = :relatedId AND" + AFTER_DATE)
+    Slice<ContributionDTO> findPageByRelatedTo(@Param("relatedType") String relatedType, @Param("relatedId") Long relatedId,
+                                               @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(c.type, SUM(c.amount), COUNT(c)) FROM Contribution c " +
+           "WHERE c.relatedTo.type = :relatedType AND c.relatedTo.id = :relatedId AND c.status <> :excludedStatus " +
+           "GROUP BY c.type")
+    List<RollupTotalDTO> sumByTypeForRelatedTo(@Param("relatedType") String relatedType, @Param("relatedId") Long relatedId,
+                                               @Param("excludedStatus") String excludedStatus);
+}
@@ -0,0 +1,79 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.model.DailyRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyRollupRepository extends JpaRepository<DailyRollup, Long> {
+    // Les écritures natives ne touchent que daily_rollups : sans cela Hibernate vide tout le cache de second niveau
+    String ROLLUP_SPACE = "daily_rollups";
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_SPACE))
+    @Query(value = "INSERT INTO daily_rollups (bucket_key, source, bucket_day, type, category, status, total_amount, entry_count) " +
+                   "VALUES (:bucketKey, :source, :day, :type, :category, :status, :amount, :count) " +
+                   "ON DUPLICATE KEY UPDATE total_amount = total_amount + VALUES(total_amount), " +
+                   "entry_count = entry_count + VALUES(entry_count)",
+           nativeQuery = true)
+    int upsert(@Param("bucketKey") String bucketKey,
+               @Param("source") String source,
+               @Param("day") LocalDate day,
+               @Param("type") String type,
+               @Param("category") String category,
+               @Param("status") String status,
+               @Param("amount") BigDecimal amount,
+               @Param("count") long count);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(r.type, SUM(r.totalAmount), SUM(r.entryCount)) " +
+           "FROM DailyRollup r WHERE r.source = :source AND r.day < :before AND r.status <> :excludedStatus " +
+           "GROUP BY r.type")
+    List<RollupTotalDTO> sumByTypeBefore(@Param("source") String source,
+                                         @Param("before") LocalDate before,
+                                         @Param("excludedStatus") String excludedStatus);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(r.day, r.type, SUM(r.totalAmount), SUM(r.entryCount)) " +
+           "FROM DailyRollup r WHERE r.source = :source AND r.day BETWEEN :start AND :end AND r.status <> :excludedStatus " +
+           "GROUP BY r.day, r.type ORDER BY r.day")
+    List<RollupTotalDTO> sumByDayAndType(@Param("source") String source,
+                                         @Param("start") LocalDate start,
+                                         @Param("end") LocalDate end,
+                                         @Param("excludedStatus") String excludedStatus);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(r.type, r.category, SUM(r.totalAmount), SUM(r.entryCount)) " +
+           "FROM DailyRollup r WHERE r.source = :source AND r.day BETWEEN :start AND :end AND r.status <> :excludedStatus " +
+           "GROUP BY r.type, r.category")
+    List<RollupTotalDTO> sumByTypeAndCategory(@Param("source") String source,
+                                              @Param("start") LocalDate start,
+                                              @Param("end") LocalDate end,
+                                              @Param("excludedStatus") String excludedStatus);
+
+    // Nombre de lignes par source (type porte ici la source : transaction, contribution) pour un statut donné
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(r.source, SUM(r.totalAmount), SUM(r.entryCount)) " +
+           "FROM DailyRollup r WHERE r.status = :status GROUP BY r.source")
+    List<RollupTotalDTO> sumBySourceForStatus(@Param("status") String status);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = ROLLUP_SPACE))
+    @Query(value = "DELETE FROM daily_rollups", nativeQuery = true)
+    void deleteAllBuckets();
+
+    // Lectures cohérentes, sans verrou sur les tables sources (voir RebuildLockService)
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(CAST(t.date AS LocalDate), t.type, t.category, t.status, " +
+           "SUM(t.amount), COUNT(t)) FROM Transaction t GROUP BY CAST(t.date AS LocalDate), t.type, t.category, t.status")
+    List<RollupTotalDTO> computeTransactionBuckets();
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(CAST(c.date AS LocalDate), c.type, '', c.status, " +
+           "SUM(c.amount), COUNT(c)) FROM Contribution c GROUP BY CAST(c.date AS LocalDate), c.type, c.status")
+    List<RollupTotalDTO> computeContributionBuckets();
+}
@@ -0,0 +1,28 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.EventRegistrationDTO;
+import com.hackaton.backend.model.EventRegistration;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+
+@Repository
+public interface EventRegistrationRepository extends JpaRepository<EventRegistration, Long> {
+    // Écritures par lots (JDBC) : l'identifiant est attribué par la base, pas par Hibernate
+    String INSERT = "INSERT INTO event_registrations (event_id, user_id, status, registered_at) VALUES (?, ?, ?, ?) " +
+                    "ON DUPLICATE KEY UPDATE status = VALUES(status)";
+    String DELETE = "DELETE FROM event_registrations WHERE event_id = ? AND user_id = ?";
+    String UPDATE_STATUS = "UPDATE event_registrations SET status = ? WHERE event_id = ? AND user_id = ?";
+
+    // Par ordre d'inscription : la liste d'attente se reconstruit dans le même ordre
+    @Query("SELECT new com.hackaton.backend.dto.EventRegistrationDTO(r.event.id, r.user.id, r.status, CAST(NULL AS Integer)) " +
+           "FROM EventRegistration r WHERE r.event.id = :eventId ORDER BY r.registeredAt, r.id")
+    List<EventRegistrationDTO> findByEventIdInOrder(@Param("eventId") Long eventId);
+
+    @Modifying
+    @Query("DELETE FROM EventRegistration r WHERE r.event.id = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
@@ -1,15 +1,113 @@
 package com.hackaton.backend.repository;
 
+import com.hackaton.backend.dto.CollectionStamp;
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.EventDTO;
 import com.hackaton.backend.model.Event;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
+    // Pagination par curseur sur (createdAt, id) décroissant ou (startDate, id) croissant
+    String AFTER_CREATED_AT = " (e.createdAt < :key OR (e.createdAt = :key AND e.id < :id)) ORDER BY e.createdAt DESC, e.id DESC";
+    String AFTER_START_DATE = " (e.startDate > :key OR (e.startDate = :key AND e.id > :id)) ORDER BY e.startDate ASC, e.id ASC";
+    String LIST_PROJECTION = "SELECT new com.hackaton.backend.dto.EventDTO(" +
+            "e.id, e.title, e.description, e.startDate, e.endDate, e.location, e.status, e.user.id, e.createdAt, e.updatedAt) FROM Event e";
+    // Champs exposés par ?fields= et leur chemin JPQL
+    Map<String, String> LIST_FIELDS = Map.of(
+            "id", "e.id", "title", "e.title",
+            "description", "e.description", "startDate", "e.startDate",
+            "endDate", "e.endDate", "location", "e.location",
+            "status", "e.status", "userId", "e.user.id",
+            "createdAt", "e.createdAt", "updatedAt", "e.updatedAt");
+    // Texte indexé par la recherche plein texte
+    String SEARCH_DOCUMENT = "SELECT new com.hackaton.backend.dto.SearchDocument(" +
+            "'event', e.id, e.version, e.title, CONCAT(COALESCE(e.description, ''), ' ', COALESCE(e.location, ''))) FROM Event e";
+    // Nombre de lignes et dernière modification d'une liste filtrée, pour ses ETag
+    String STAMP = "SELECT new com.hackaton.backend.dto.CollectionStamp(COUNT(e), MAX(e.updatedAt)) FROM Event e";
+
+    @EntityGraph(Event.WITH_OWNER)
+    Optional<Event> findById(Long id);
+
+    @EntityGraph(Event.WITH_OWNER)
+    List<Event> findAll();
+
+    @EntityGraph(Event.WITH_OWNER)
     List<Event> findByUserId(Long userId);
+
+    @EntityGraph(Event.WITH_OWNER)
     List<Event> findByStartDateBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(Event.WITH_OWNER)
     List<Event> findByStatus(String status);
+
+    @EntityGraph(Event.WITH_OWNER)
     List<Event> findByUserIdAndStatus(Long userId, String status);
-}
\ No newline at end of file
+
+    @Query(LIST_PROJECTION + " WHERE" + AFTER_CREATED_AT)
+    Slice<EventDTO> findPage(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE e.user.id = :userId AND" + AFTER_CREATED_AT)
+    Slice<EventDTO> findPageByUserId(@Param("userId") Long userId,
+                                     @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE e.status = :status AND" + AFTER_CREATED_AT)
+    Slice<EventDTO> findPageByStatus(@Param("status") String status,
+                                     @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE e.user.id = :userId AND e.status = :status AND" + AFTER_CREATED_AT)
+    Slice<EventDTO> findPageByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                              @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE e.startDate BETWEEN :start AND :end AND" + AFTER_START_DATE)
+    Slice<EventDTO> findPageByStartDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                               @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE e.startDate > :now AND" + AFTER_START_DATE)
+    Slice<EventDTO> findUpcomingPage(@Param("now") LocalDateTime now,
+                                     @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Curseur en lecture seule : fetchSize = Integer.MIN_VALUE active le streaming ligne à ligne du driver MySQL
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    // Avec la version de la ligne, pour le calendrier en mémoire
+    @Query("SELECT new com.hackaton.backend.dto.EventDTO(e.id, e.title, e.description, e.startDate, e.endDate, " +
+           "e.location, e.status, e.user.id, e.createdAt, e.updatedAt, e.version) FROM Event e")
+    Stream<EventDTO> streamAll();
+
+    @Query("SELECT e.capacity FROM Event e WHERE e.id = :id")
+    Optional<Integer> findCapacityById(@Param("id") Long id);
+
+    // Versions de l'événement et de son propriétaire
+    @Query("SELECT CONCAT(CAST(e.version AS String), '.', CAST(o.version AS String)) "
+            + "FROM Event e JOIN e.user o WHERE e.id = :id")
+    Optional<String> findVersionsById(@Param("id") Long id);
+
+    // Par ordre d'identifiant, pour reconstruire l'index de recherche lot par lot
+    @Query(SEARCH_DOCUMENT + " WHERE e.id > :afterId ORDER BY e.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(STAMP)
+    CollectionStamp stamp();
+
+    @Query(STAMP + " WHERE e.user.id = :userId")
+    CollectionStamp stampByUserId(@Param("userId") Long userId);
+
+    @Query(STAMP + " WHERE e.startDate BETWEEN :start AND :end")
+    CollectionStamp stampByStartDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(STAMP + " WHERE e.startDate > :now")
+    CollectionStamp stampUpcoming(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,56 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.FieldSelection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pages de listes réduites aux colonnes demandées : seules ces colonnes sont lues en SQL
+ * et sérialisées en JSON.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class FieldSelectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Exécute {@code SELECT <colonnes> FROM <from> WHERE <where>} (le where porte le curseur et le tri)
+     * et renvoie chaque ligne sous forme de Map champ → valeur.
+     */
+    public Slice<Map<String, Object>> findPage(FieldSelection selection, String from, String where,
+                                               Map<String, Object> parameters, Pageable pageable) {
+        TypedQuery<Object[]> query = entityManager.createQuery(
+                selection.select() + " FROM " + from + " WHERE" + where, Object[].class);
+        parameters.forEach(query::setParameter);
+        // Une ligne de plus que la page pour savoir s'il en existe une suivante
+        query.setMaxResults(pageable.getPageSize() + 1);
+
+        List<String> names = new ArrayList<>(selection.columns().keySet());
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Object[] row : query.getResultList()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            for (int i = 0; i < names.size(); i++) {
+                item.put(names.get(i), row[i]);
+            }
+            items.add(item);
+        }
+
+        boolean hasNext = items.size() > pageable.getPageSize();
+        if (hasNext) {
+            items.remove(items.size() - 1);
+        }
+        return new SliceImpl<>(items, pageable, hasNext);
+    }
+}
@@ -0,0 +1,59 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.model.LedgerBalance;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface LedgerBalanceRepository extends JpaRepository<LedgerBalance, String> {
+
+    // Les écritures natives ne touchent que ledger_balances : sans cela Hibernate vide tout le cache de second niveau
+    String LEDGER_SPACE = "ledger_balances";
+
+    // SELECT ... FOR UPDATE : les écritures concurrentes (applyDelta) attendent la fin de la transaction
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM LedgerBalance l WHERE l.ledgerKey = :ledgerKey")
+    Optional<LedgerBalance> findForUpdate(@Param("ledgerKey") String ledgerKey);
+
+    // Mise à jour atomique côté base, sans lecture préalable ; crée la ligne si elle manque, sans conflit
+    // entre deux premières écritures concurrentes
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LEDGER_SPACE))
+    @Query(value = "INSERT INTO ledger_balances (ledger_key, total_deposits, total_withdrawals, balance, transaction_count, updated_at) " +
+                   "VALUES (:ledgerKey, :deposits, :withdrawals, :deposits - :withdrawals, :count, :now) " +
+                   "ON DUPLICATE KEY UPDATE total_deposits = total_deposits + VALUES(total_deposits), " +
+                   "total_withdrawals = total_withdrawals + VALUES(total_withdrawals), " +
+                   "balance = balance + VALUES(balance), " +
+                   "transaction_count = transaction_count + VALUES(transaction_count), " +
+                   "updated_at = VALUES(updated_at)",
+           nativeQuery = true)
+    int applyDelta(@Param("ledgerKey") String ledgerKey,
+                   @Param("deposits") BigDecimal deposits,
+                   @Param("withdrawals") BigDecimal withdrawals,
+                   @Param("count") long count,
+                   @Param("now") LocalDateTime now);
+
+    // Crée la ligne avec les totaux calculés ; sans effet si elle existe déjà
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LEDGER_SPACE))
+    @Query(value = "INSERT INTO ledger_balances (ledger_key, total_deposits, total_withdrawals, balance, transaction_count, updated_at) " +
+                   "VALUES (:ledgerKey, :deposits, :withdrawals, :deposits - :withdrawals, :count, :now) " +
+                   "ON DUPLICATE KEY UPDATE ledger_key = ledger_key",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("ledgerKey") String ledgerKey,
+                       @Param("deposits") BigDecimal deposits,
+                       @Param("withdrawals") BigDecimal withdrawals,
+                       @Param("count") long count,
+                       @Param("now") LocalDateTime now);
+}
@@ -1,16 +1,113 @@
 package com.hackaton.backend.repository;
 
+import com.hackaton.backend.dto.CollectionStamp;
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.ProjectDTO;
 import com.hackaton.backend.model.Project;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
+    // Pagination par curseur sur (createdAt, id) décroissant ou (startDate, id) croissant
+    String AFTER_CREATED_AT = " (p.createdAt < :key OR (p.createdAt = :key AND p.id < :id)) ORDER BY p.createdAt DESC, p.id DESC";
+    String AFTER_START_DATE = " (p.startDate > :key OR (p.startDate = :key AND p.id > :id)) ORDER BY p.startDate ASC, p.id ASC";
+    String LIST_PROJECTION = "SELECT new com.hackaton.backend.dto.ProjectDTO(" +
+            "p.id, p.name, p.description, p.startDate, p.endDate, p.status, p.budget, p.user.id, p.createdAt, p.updatedAt) FROM Project p";
+    // Champs exposés par ?fields= et leur chemin JPQL
+    Map<String, String> LIST_FIELDS = Map.of(
+            "id", "p.id", "name", "p.name",
+            "description", "p.description", "startDate", "p.startDate",
+            "endDate", "p.endDate", "status", "p.status",
+            "budget", "p.budget", "userId", "p.user.id",
+            "createdAt", "p.createdAt", "updatedAt", "p.updatedAt");
+    // Texte indexé par la recherche plein texte
+    String SEARCH_DOCUMENT = "SELECT new com.hackaton.backend.dto.SearchDocument(" +
+            "'project', p.id, p.version, p.name, COALESCE(p.description, '')) FROM Project p";
+    // Nombre de lignes et dernière modification d'une liste filtrée, pour ses ETag
+    String STAMP = "SELECT new com.hackaton.backend.dto.CollectionStamp(COUNT(p), MAX(p.updatedAt)) FROM Project p";
+
+    @EntityGraph(Project.WITH_OWNER)
+    Optional<Project> findById(Long id);
+
+    @EntityGraph(Project.WITH_OWNER)
+    List<Project> findAll();
+
+    @EntityGraph(Project.WITH_OWNER)
     List<Project> findByUserId(Long userId);
+
+    @EntityGraph(Project.WITH_OWNER)
     List<Project> findByStatus(String status);
+
+    @EntityGraph(Project.WITH_OWNER)
     List<Project> findByUserIdAndStatus(Long userId, String status);
+
+    @EntityGraph(Project.WITH_OWNER)
     List<Project> findByStartDateBetween(LocalDateTime start, LocalDateTime end);
+
+    @EntityGraph(Project.WITH_OWNER)
     List<Project> findByBudgetGreaterThan(Double budget);
-}
\ No newline at end of file
+
+    @Query(LIST_PROJECTION + " WHERE" + AFTER_CREATED_AT)
+    Slice<ProjectDTO> findPage(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE p.user.id = :userId AND" + AFTER_CREATED_AT)
+    Slice<ProjectDTO> findPageByUserId(@Param("userId") Long userId,
+                                       @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Servie par GET /projects/status/{status} : résultat en cache de requêtes, invalidé à chaque écriture sur projects
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(LIST_PROJECTION + " WHERE p.status = :status AND" + AFTER_CREATED_AT)
+    Slice<ProjectDTO> findPageByStatus(@Param("status") String status,
+                                       @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE p.user.id = :userId AND p.status = :status AND" + AFTER_CREATED_AT)
+    Slice<ProjectDTO> findPageByUserIdAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                                @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE p.startDate BETWEEN :start AND :end AND" + AFTER_START_DATE)
+    Slice<ProjectDTO> findPageByStartDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                 @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE p.budget > :budget AND" + AFTER_CREATED_AT)
+    Slice<ProjectDTO> findPageByBudgetGreaterThan(@Param("budget") Double budget,
+                                                  @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Curseur en lecture seule : fetchSize = Integer.MIN_VALUE active le streaming ligne à ligne du driver MySQL
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    // Avec la version de la ligne, pour le calendrier en mémoire
+    @Query("SELECT new com.hackaton.backend.dto.ProjectDTO(p.id, p.name, p.description, p.startDate, p.endDate, " +
+           "p.status, p.budget, p.user.id, p.createdAt, p.updatedAt, p.version) FROM Project p")
+    Stream<ProjectDTO> streamAll();
+
+    // Versions de l'projet et de son propriétaire
+    @Query("SELECT CONCAT(CAST(p.version AS String), '.', CAST(o.version AS String)) "
+            + "FROM Project p JOIN p.user o WHERE p.id = :id")
+    Optional<String> findVersionsById(@Param("id") Long id);
+
+    // Par ordre d'identifiant, pour reconstruire l'index de recherche lot par lot
+    @Query(SEARCH_DOCUMENT + " WHERE p.id > :afterId ORDER BY p.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(STAMP)
+    CollectionStamp stamp();
+
+    @Query(STAMP + " WHERE p.user.id = :userId")
+    CollectionStamp stampByUserId(@Param("userId") Long userId);
+
+    @Query(STAMP + " WHERE p.status = :status")
+    CollectionStamp stampByStatus(@Param("status") String status);
+}
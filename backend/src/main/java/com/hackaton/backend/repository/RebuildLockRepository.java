@@ -0,0 +1,37 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.model.RebuildLock;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Optional;
+
+@Repository
+public interface RebuildLockRepository extends JpaRepository<RebuildLock, String> {
+    // Les écritures natives ne touchent que rebuild_locks : sans cela Hibernate vide tout le cache de second niveau
+    String LOCK_SPACE = "rebuild_locks";
+
+    // SELECT ... FOR SHARE : les écritures concurrentes ne s'attendent pas entre elles, seulement une reconstruction
+    @Lock(LockModeType.PESSIMISTIC_READ)
+    @Query("SELECT l FROM RebuildLock l WHERE l.name = :name")
+    Optional<RebuildLock> findForShare(@Param("name") String name);
+
+    // SELECT ... FOR UPDATE : attend la fin des écritures en cours et bloque les suivantes
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT l FROM RebuildLock l WHERE l.name = :name")
+    Optional<RebuildLock> findForUpdate(@Param("name") String name);
+
+    // Crée la ligne si elle manque, sans conflit entre deux premières écritures concurrentes
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = LOCK_SPACE))
+    @Query(value = "INSERT INTO rebuild_locks (lock_name) VALUES (:name) ON DUPLICATE KEY UPDATE lock_name = lock_name",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("name") String name);
+}
@@ -1,18 +1,128 @@
 package com.hackaton.backend.repository;
 
+import com.hackaton.backend.dto.CollectionStamp;
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.TaskDTO;
 import com.hackaton.backend.model.Task;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Repository
 public interface TaskRepository extends JpaRepository<Task, Long> {
+    // Pagination par curseur sur (createdAt, id) décroissant ou (dueDate, id) croissant
+    String AFTER_CREATED_AT = " (t.createdAt < :key OR (t.createdAt = :key AND t.id < :id)) ORDER BY t.createdAt DESC, t.id DESC";
+    String AFTER_DUE_DATE = " (t.dueDate > :key OR (t.dueDate = :key AND t.id > :id)) ORDER BY t.dueDate ASC, t.id ASC";
+    String LIST_PROJECTION = "SELECT new com.hackaton.backend.dto.TaskDTO(" +
+            "t.id, t.title, t.description, t.dueDate, t.priority, t.status, t.project.id, t.assignedTo.id, t.createdAt, t.updatedAt) FROM Task t";
+    // Champs exposés par ?fields= et leur chemin JPQL
+    Map<String, String> LIST_FIELDS = Map.of(
+            "id", "t.id", "title", "t.title",
+            "description", "t.description", "dueDate", "t.dueDate",
+            "priority", "t.priority", "status", "t.status",
+            "projectId", "t.project.id", "assignedToId", "t.assignedTo.id",
+            "createdAt", "t.createdAt", "updatedAt", "t.updatedAt");
+    // Texte indexé par la recherche plein texte
+    String SEARCH_DOCUMENT = "SELECT new com.hackaton.backend.dto.SearchDocument(" +
+            "'task', t.id, t.version, t.title, COALESCE(t.description, '')) FROM Task t";
+    // Nombre de lignes et dernière modification d'une liste filtrée, pour ses ETag
+    String STAMP = "SELECT new com.hackaton.backend.dto.CollectionStamp(COUNT(t), MAX(t.updatedAt)) FROM Task t";
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
+    Optional<Task> findById(Long id);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
+    List<Task> findAll();
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByProjectId(Long projectId);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByAssignedToId(Long userId);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByStatus(String status);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByPriority(String priority);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByDueDateBefore(LocalDateTime date);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByProjectIdAndStatus(Long projectId, String status);
+
+    @EntityGraph(Task.WITH_PROJECT_AND_ASSIGNEE)
     List<Task> findByAssignedToIdAndStatus(Long userId, String status);
-}
\ No newline at end of file
+
+    @Query(LIST_PROJECTION + " WHERE" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPage(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.project.id = :projectId AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByProjectId(@Param("projectId") Long projectId,
+                                       @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.assignedTo.id = :userId AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByAssignedToId(@Param("userId") Long userId,
+                                          @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.status = :status AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByStatus(@Param("status") String status,
+                                    @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.priority = :priority AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByPriority(@Param("priority") String priority,
+                                      @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.dueDate < :date AND t.status NOT IN :closed AND" + AFTER_DUE_DATE)
+    Slice<TaskDTO> findPageByDueDateBefore(@Param("date") LocalDateTime date, @Param("closed") Collection<String> closed,
+                                           @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.project.id = :projectId AND t.status = :status AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByProjectIdAndStatus(@Param("projectId") Long projectId, @Param("status") String status,
+                                                @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.assignedTo.id = :userId AND t.status = :status AND" + AFTER_CREATED_AT)
+    Slice<TaskDTO> findPageByAssignedToIdAndStatus(@Param("userId") Long userId, @Param("status") String status,
+                                                   @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    // Versions de la tâche, de son projet, du propriétaire du projet et de l'assigné, dans cet ordre
+    @Query("SELECT CONCAT(CAST(t.version AS String), '.', CAST(p.version AS String), '.', "
+            + "CAST(o.version AS String), '.', CAST(a.version AS String)) "
+            + "FROM Task t JOIN t.project p JOIN p.user o JOIN t.assignedTo a WHERE t.id = :id")
+    Optional<String> findVersionsById(@Param("id") Long id);
+
+    // Tâches non terminées par ordre d'identifiant, pour charger le suivi des échéances lot par lot
+    @Query("SELECT new com.hackaton.backend.dto.TaskDTO(t.id, t.title, t.description, t.dueDate, t.priority, t.status, " +
+           "t.project.id, t.assignedTo.id, t.createdAt, t.updatedAt, t.version) FROM Task t " +
+           "WHERE t.status NOT IN :closed AND t.id > :afterId ORDER BY t.id")
+    List<TaskDTO> findOpenTasks(@Param("closed") Collection<String> closed, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Par ordre d'identifiant, pour reconstruire l'index de recherche lot par lot
+    @Query(SEARCH_DOCUMENT + " WHERE t.id > :afterId ORDER BY t.id")
+    List<SearchDocument> findSearchDocuments(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query(STAMP)
+    CollectionStamp stamp();
+
+    @Query(STAMP + " WHERE t.project.id = :projectId")
+    CollectionStamp stampByProjectId(@Param("projectId") Long projectId);
+
+    @Query(STAMP + " WHERE t.assignedTo.id = :userId")
+    CollectionStamp stampByAssignedToId(@Param("userId") Long userId);
+
+    @Query(STAMP + " WHERE t.status = :status")
+    CollectionStamp stampByStatus(@Param("status") String status);
+
+    @Query(STAMP + " WHERE t.priority = :priority")
+    CollectionStamp stampByPriority(@Param("priority") String priority);
+}
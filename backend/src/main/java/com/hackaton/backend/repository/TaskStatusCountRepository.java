@@ -0,0 +1,49 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.TaskStatusCountDTO;
+import com.hackaton.backend.model.TaskStatusCount;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskStatusCountRepository extends JpaRepository<TaskStatusCount, Long> {
+    // Les écritures natives ne touchent que task_status_counts : sans cela Hibernate vide tout le cache de second niveau
+    String COUNT_SPACE = "task_status_counts";
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNT_SPACE))
+    @Query(value = "INSERT INTO task_status_counts (scope, scope_id, status, task_count) " +
+                   "VALUES (:scope, :scopeId, :status, :delta) " +
+                   "ON DUPLICATE KEY UPDATE task_count = task_count + VALUES(task_count)",
+           nativeQuery = true)
+    int upsert(@Param("scope") String scope,
+               @Param("scopeId") Long scopeId,
+               @Param("status") String status,
+               @Param("delta") long delta);
+
+    @Query("SELECT new com.hackaton.backend.dto.TaskStatusCountDTO(c.scopeId, c.status, c.taskCount) " +
+           "FROM TaskStatusCount c WHERE c.scope = :scope AND c.scopeId IN :scopeIds AND c.taskCount > 0")
+    List<TaskStatusCountDTO> findCounts(@Param("scope") String scope, @Param("scopeIds") Collection<Long> scopeIds);
+
+    @Modifying
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = COUNT_SPACE))
+    @Query(value = "DELETE FROM task_status_counts", nativeQuery = true)
+    void deleteAllCounts();
+
+    // Lectures cohérentes, sans verrou sur la table des tâches (voir RebuildLockService)
+    @Query("SELECT new com.hackaton.backend.dto.TaskStatusCountDTO(t.project.id, t.status, COUNT(t)) " +
+           "FROM Task t GROUP BY t.project.id, t.status")
+    List<TaskStatusCountDTO> computeProjectCounts();
+
+    @Query("SELECT new com.hackaton.backend.dto.TaskStatusCountDTO(t.assignedTo.id, t.status, COUNT(t)) " +
+           "FROM Task t GROUP BY t.assignedTo.id, t.status")
+    List<TaskStatusCountDTO> computeAssigneeCounts();
+}
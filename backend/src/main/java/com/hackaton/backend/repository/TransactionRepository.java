@@ -1,14 +1,28 @@
 package com.hackaton.backend.repository;
 
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.dto.TransactionDTO;
 import com.hackaton.backend.model.Transaction;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
+    // Pagination par curseur sur (date, id) décroissant
+    String AFTER_DATE = " (t.date < :key OR (t.date = :key AND t.id < :id)) ORDER BY t.date DESC, t.id DESC";
+    String LIST_PROJECTION = "SELECT new com.hackaton.backend.dto.TransactionDTO(" +
+            "t.id, t.user.id, t.type, t.amount, t.description, t.date, t.category, t.status, t.createdAt, t.updatedAt, t.relatedTo.type, t.relatedTo.id) FROM Transaction t";
+
     List<Transaction> findByUserId(Long userId);
     List<Transaction> findByType(String type);
     List<Transaction> findByCategory(String category);
@@ -17,4 +31,61 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     List<Transaction> findByAmountGreaterThan(BigDecimal amount);
     List<Transaction> findByUserIdAndType(Long userId, String type);
     List<Transaction> findByUserIdAndCategory(Long userId, String category);
-}
\ No newline at end of file
+
+    @Query("SELECT COALESCE(SUM(t.amount), 0) FROM Transaction t WHERE t.type = :type AND t.status <> :excludedStatus")
+    BigDecimal sumAmountByTypeAndStatusNot(@Param("type") String type, @Param("excludedStatus") String excludedStatus);
+
+    long countByTypeInAndStatusNot(List<String> types, String status);
+
+    // Curseur en lecture seule : fetchSize = Integer.MIN_VALUE active le streaming ligne à ligne du driver MySQL
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "-2147483648"))
+    @Query("SELECT new com.hackaton.backend.dto.TransactionDTO(t.id, t.user.id, t.type, t.amount, t.description, " +
+           "t.date, t.category, t.status, t.createdAt, t.updatedAt) " +
+           "FROM Transaction t WHERE t.date BETWEEN :start AND :end ORDER BY t.date, t.id")
+    Stream<TransactionDTO> streamByDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
+
+    @Query(LIST_PROJECTION + " WHERE" + AFTER_DATE)
+    Slice<TransactionDTO> findPage(@Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.user.id = :userId AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByUserId(@Param("userId") Long userId,
+                                           @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.type = :type AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByType(@Param("type") String type,
+                                         @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.category = :category AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByCategory(@Param("category") String category,
+                                             @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.status = :status AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByStatus(@Param("status") String status,
+                                           @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.date BETWEEN :start AND :end AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByDateBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.amount > :amount AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByAmountGreaterThan(@Param("amount") BigDecimal amount,
+                                                      @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.user.id = :userId AND t.type = :type AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByUserIdAndType(@Param("userId") Long userId, @Param("type") String type,
+                                                  @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.user.id = :userId AND t.category = :category AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByUserIdAndCategory(@Param("userId") Long userId, @Param("category") String category,
+                                                      @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query(LIST_PROJECTION + " WHERE t.relatedTo.type = :relatedType AND t.relatedTo.id = :relatedId AND" + AFTER_DATE)
+    Slice<TransactionDTO> findPageByRelatedTo(@Param("relatedType") String relatedType, @Param("relatedId") Long relatedId,
+                                              @Param("key") LocalDateTime key, @Param("id") Long id, Pageable pageable);
+
+    @Query("SELECT new com.hackaton.backend.dto.RollupTotalDTO(t.type, SUM(t.amount), COUNT(t)) FROM Transaction t " +
+           "WHERE t.relatedTo.type = :relatedType AND t.relatedTo.id = :relatedId AND t.status <> :excludedStatus " +
+           "GROUP BY t.type")
+    List<RollupTotalDTO> sumByTypeForRelatedTo(@Param("relatedType") String relatedType, @Param("relatedId") Long relatedId,
+                                               @Param("excludedStatus") String excludedStatus);
+}
@@ -0,0 +1,26 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.UserDTO;
+import com.hackaton.backend.model.User;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserRepository extends JpaRepository<User, Long> {
+    Optional<User> findByEmail(String email);
+
+    boolean existsByEmail(String email);
+
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id")
+    Optional<Long> findTokenVersionById(@Param("id") Long id);
+
+    // Projection compacte, sans les collections de l'entité, en une seule requête IN
+    @Query("SELECT new com.hackaton.backend.dto.UserDTO(u.id, u.email, u.firstName, u.lastName, u.role) " +
+           "FROM User u WHERE u.id IN :ids ORDER BY u.id")
+    List<UserDTO> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+}
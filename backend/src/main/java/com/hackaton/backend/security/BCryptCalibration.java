@@ -0,0 +1,44 @@
+package com.hackaton.backend.security;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Choisit le coût BCrypt le plus élevé dont le hachage reste sous la latence cible sur cette machine.
+ * Chaque incrément du coût double le temps de calcul : une seule mesure au coût minimal suffit.
+ */
+final class BCryptCalibration {
+    static final int MIN_STRENGTH = 10;
+    static final int MAX_STRENGTH = 16;
+
+    private static final Logger log = LoggerFactory.getLogger(BCryptCalibration.class);
+    private static final int SAMPLES = 3;
+
+    private BCryptCalibration() {
+    }
+
+    static int strengthFor(Duration targetLatency) {
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(MIN_STRENGTH);
+        encoder.encode("calibration");
+
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode("calibration");
+            best = Math.min(best, System.nanoTime() - start);
+        }
+
+        int strength = MIN_STRENGTH;
+        long estimated = best;
+        while (strength < MAX_STRENGTH && estimated * 2 <= targetLatency.toNanos()) {
+            strength++;
+            estimated *= 2;
+        }
+        log.info("BCrypt strength {} selected (~{} ms per hash, target {} ms)",
+                strength, estimated / 1_000_000, targetLatency.toMillis());
+        return strength;
+    }
+}
@@ -1,33 +1,131 @@
 package com.hackaton.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.hackaton.backend.model.User;
 import com.hackaton.backend.repository.UserRepository;
+import com.hackaton.backend.service.AfterCommit;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.util.Collections;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+    // Version de jeton d'un utilisateur supprimé : aucun jeton ne lui correspond
+    public static final long DELETED = Long.MAX_VALUE;
 
     private final UserRepository userRepository;
 
-    public CustomUserDetailsService(UserRepository userRepository) {
+    // Repli pour les jetons sans rôles ou émis avant une modification de l'utilisateur
+    private final Cache<String, UserDetails> userCache;
+
+    // Version de jeton courante par identifiant, relue en base à expiration : une modification faite sur
+    // une autre instance (ou avant un redémarrage) est prise en compte au plus tard après ce délai
+    private final Cache<Long, Long> tokenVersions;
+
+    // Vrai pendant le re-hachage d'un mot de passe à la connexion : rien ne change pour les jetons émis
+    private final ThreadLocal<Boolean> rehashing = ThreadLocal.withInitial(() -> false);
+
+    public CustomUserDetailsService(UserRepository userRepository,
+                                    @Value("${jwt.user-cache.ttl:PT5M}") Duration userCacheTtl,
+                                    @Value("${jwt.user-cache.max-size:10000}") long userCacheMaxSize) {
         this.userRepository = userRepository;
+        this.userCache = Caffeine.newBuilder()
+                .expireAfterWrite(userCacheTtl)
+                .maximumSize(userCacheMaxSize)
+                .build();
+        this.tokenVersions = Caffeine.newBuilder()
+                .expireAfterWrite(userCacheTtl)
+                .maximumSize(userCacheMaxSize)
+                .build();
     }
 
+    // L'identifiant de connexion (sujet des jetons) est l'email
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec le nom d'utilisateur : " + username));
+        User user = userRepository.findByEmail(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email : " + username));
 
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
+        return new UserPrincipal(
+                user.getId(),
+                user.getEmail(),
                 user.getPassword(),
-                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole()))
+                Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole())),
+                user.getTokenVersion()
         );
     }
-}
\ No newline at end of file
+
+    /**
+     * Appelé par l'authentification quand le hachage stocké utilise un autre coût que l'encodeur courant.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails userDetails, String newPassword) {
+        User user = userRepository.findByEmail(userDetails.getUsername())
+                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email : " + userDetails.getUsername()));
+        user.setPassword(newPassword);
+        // Flush ici : l'écouteur de modification s'exécute pendant que le drapeau est posé
+        rehashing.set(true);
+        try {
+            userRepository.saveAndFlush(user);
+        } finally {
+            rehashing.remove();
+        }
+
+        return new UserPrincipal(user.getId(), user.getEmail(), newPassword, userDetails.getAuthorities(),
+                user.getTokenVersion());
+    }
+
+    /**
+     * Comme {@link #loadUserByUsername(String)}, avec un cache à durée de vie courte.
+     * Réservé à l'authentification par jeton : la connexion relit toujours le mot de passe en base.
+     */
+    public UserDetails loadCachedUserByUsername(String username) {
+        // Pas de get(key, loader) : le chargement s'exécuterait sous le verrou du cache et épinglerait
+        // le thread virtuel pendant l'appel JDBC
+        UserDetails cached = userCache.getIfPresent(username);
+        if (cached != null) {
+            return cached;
+        }
+        UserDetails loaded = loadUserByUsername(username);
+        userCache.put(username, loaded);
+        return loaded;
+    }
+
+    /**
+     * Les claims d'un jeton ne font foi que s'il porte la version de jeton courante de l'utilisateur.
+     */
+    public boolean isCurrent(Long userId, long tokenVersion) {
+        Long current = tokenVersions.getIfPresent(userId);
+        if (current == null) {
+            // Fusion par maximum : une lecture antérieure à une modification ne remplace pas la version plus récente
+            current = tokenVersions.asMap().merge(userId,
+                    userRepository.findTokenVersionById(userId).orElse(DELETED), Math::max);
+        }
+        return current == tokenVersion;
+    }
+
+    boolean isRehashing() {
+        return rehashing.get();
+    }
+
+    /**
+     * Après validation de la modification : avant, une requête concurrente relirait l'ancien état et le
+     * remettrait en cache. Le cache de repli est purgé par identifiant, l'email ayant pu changer.
+     */
+    void invalidate(Long userId, long tokenVersion) {
+        AfterCommit.run(() -> {
+            tokenVersions.asMap().merge(userId, tokenVersion, Math::max);
+            userCache.asMap().values().removeIf(details ->
+                    details instanceof UserPrincipal principal && userId.equals(principal.getId()));
+        });
+    }
+}
@@ -5,23 +5,25 @@ import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private final JwtTokenProvider tokenProvider;
-    private final UserDetailsService userDetailsService;
+    private final CustomUserDetailsService userDetailsService;
 
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, CustomUserDetailsService userDetailsService) {
         this.tokenProvider = tokenProvider;
         this.userDetailsService = userDetailsService;
     }
@@ -33,9 +35,12 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         try {
             String jwt = getJwtFromRequest(request);
 
-            if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
-                String username = tokenProvider.getUsernameFromToken(jwt);
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            Optional<JwtTokenProvider.VerifiedToken> verified = StringUtils.hasText(jwt)
+                    ? tokenProvider.verify(jwt)
+                    : Optional.empty();
+
+            if (verified.isPresent()) {
+                UserDetails userDetails = toUserDetails(verified.get());
 
                 UsernamePasswordAuthenticationToken authentication =
                     new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
@@ -50,6 +55,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
 
+    /**
+     * Reconstruit l'utilisateur depuis les claims sans accès à la base (hors relecture périodique de la
+     * version de jeton), sauf pour les jetons sans rôles ou émis avant une modification de l'utilisateur.
+     */
+    private UserDetails toUserDetails(JwtTokenProvider.VerifiedToken token) {
+        if (token.isSelfContained() && userDetailsService.isCurrent(token.userId(), token.tokenVersion())) {
+            List<SimpleGrantedAuthority> authorities = token.authorities().stream()
+                    .map(SimpleGrantedAuthority::new)
+                    .toList();
+            return new UserPrincipal(token.userId(), token.username(), null, authorities, token.tokenVersion());
+        }
+        return userDetailsService.loadCachedUserByUsername(token.username());
+    }
+
     private String getJwtFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
@@ -1,17 +1,30 @@
 package com.hackaton.backend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.Date;
+import java.util.List;
+import java.util.Optional;
 
 @Component
 public class JwtTokenProvider {
+    private static final String CLAIM_USER_ID = "uid";
+    private static final String CLAIM_ROLES = "roles";
+    private static final String CLAIM_TOKEN_VERSION = "tv";
 
     @Value("${jwt.secret}")
     private String jwtSecret;
@@ -19,9 +32,50 @@ public class JwtTokenProvider {
     @Value("${jwt.expirationMs}")
     private int jwtExpirationMs;
 
-    private Key getSigningKey() {
-        byte[] keyBytes = jwtSecret.getBytes();
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.max-size:10000}")
+    private long verifiedCacheMaxSize;
+
+    private Key signingKey;
+    private JwtParser parser;
+
+    // Jetons dont la signature a déjà été vérifiée, conservés jusqu'à leur expiration au plus tard
+    private Cache<String, VerifiedToken> verifiedTokens;
+
+    /**
+     * Résultat d'une vérification réussie. {@code authorities} et {@code tokenVersion} sont nuls pour les
+     * jetons émis sans.
+     */
+    public record VerifiedToken(String username, Long userId, List<String> authorities, Long tokenVersion, Instant expiresAt) {
+        public boolean isSelfContained() {
+            return userId != null && authorities != null && tokenVersion != null;
+        }
+    }
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
+        verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedToken>() {
+                    @Override
+                    public long expireAfterCreate(String token, VerifiedToken verified, long currentTime) {
+                        return Math.max(0, Duration.between(Instant.now(), verified.expiresAt()).toNanos());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String token, VerifiedToken verified, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
     }
 
     public String generateToken(Authentication authentication) {
@@ -29,33 +83,51 @@ public class JwtTokenProvider {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpirationMs);
 
-        return Jwts.builder()
+        List<String> authorities = userDetails.getAuthorities().stream()
+                .map(GrantedAuthority::getAuthority)
+                .toList();
+
+        JwtBuilder builder = Jwts.builder()
                 .setSubject(userDetails.getUsername())
+                .claim(CLAIM_ROLES, authorities)
                 .setIssuedAt(now)
                 .setExpiration(expiryDate)
-                .signWith(getSigningKey())
-                .compact();
+                .signWith(signingKey);
+        if (userDetails instanceof UserPrincipal principal) {
+            builder.claim(CLAIM_USER_ID, principal.getId());
+            if (principal.getTokenVersion() != null) {
+                builder.claim(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+            }
+        }
+        return builder.compact();
     }
 
-    public String getUsernameFromToken(String token) {
-        Claims claims = Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
-
-        return claims.getSubject();
-    }
+    /**
+     * Vérifie la signature et l'expiration du jeton en une seule analyse et en extrait sujet, identifiant et rôles.
+     * Un jeton déjà vérifié et non expiré est servi depuis le cache sans recalcul HMAC.
+     */
+    public Optional<VerifiedToken> verify(String token) {
+        VerifiedToken cached = verifiedTokens.getIfPresent(token);
+        if (cached != null) {
+            return cached.expiresAt().isAfter(Instant.now()) ? Optional.of(cached) : Optional.empty();
+        }
 
-    public boolean validateToken(String token) {
         try {
-            Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
-            return true;
-        } catch (SecurityException | MalformedJwtException | ExpiredJwtException | UnsupportedJwtException | IllegalArgumentException e) {
-            return false;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (claims.getExpiration() == null) {
+                return Optional.empty();
+            }
+            List<?> roles = claims.get(CLAIM_ROLES, List.class);
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(),
+                    claims.get(CLAIM_USER_ID, Long.class),
+                    roles == null ? null : roles.stream().map(String::valueOf).toList(),
+                    claims.get(CLAIM_TOKEN_VERSION, Long.class),
+                    claims.getExpiration().toInstant());
+            verifiedTokens.put(token, verified);
+            return Optional.of(verified);
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,79 @@
+package com.hackaton.backend.security;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Vérification des identifiants sur un pool dédié et borné : un afflux de connexions sature ce pool
+ * (et reçoit des 503 immédiats) au lieu d'occuper tous les threads Tomcat avec BCrypt.
+ */
+@Service
+public class PasswordHashingService {
+
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+
+    public PasswordHashingService(AuthenticationManager authenticationManager,
+                                  @Value("${security.password.executor.threads:0}") int threads,
+                                  @Value("${security.password.executor.queue-capacity:64}") int queueCapacity,
+                                  @Value("${security.password.executor.timeout:PT5S}") Duration timeout) {
+        this.authenticationManager = authenticationManager;
+        this.timeout = timeout;
+
+        // Par défaut la moitié des cœurs, pour laisser du CPU aux autres points d'accès
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * Authentifie hors du thread de requête. Échoue immédiatement en 503 si la file est pleine,
+     * et en 503 également si la vérification n'a pas abouti dans le délai imparti.
+     */
+    public CompletableFuture<Authentication> authenticate(Authentication credentials) {
+        try {
+            return CompletableFuture.supplyAsync(() -> authenticationManager.authenticate(credentials), executor)
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .exceptionallyCompose(e -> CompletableFuture.failedFuture(unwrap(e)));
+        } catch (RejectedExecutionException e) {
+            throw overloaded();
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+        return cause instanceof TimeoutException ? overloaded() : cause;
+    }
+
+    private static ResponseStatusException overloaded() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trop de connexions simultanées, réessayez plus tard");
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
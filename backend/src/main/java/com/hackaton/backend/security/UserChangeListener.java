@@ -0,0 +1,42 @@
+package com.hackaton.backend.security;
+
+import com.hackaton.backend.model.User;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+/**
+ * Révoque les claims des jetons déjà émis dès qu'un utilisateur est modifié (rôle, email, mot de passe)
+ * ou supprimé : la version de jeton persistée est incrémentée dans la même transaction, et les caches
+ * d'authentification sont mis à jour après validation.
+ */
+@Component
+public class UserChangeListener {
+
+    // Résolu à l'usage : le service dépend du dépôt, donc de l'EntityManagerFactory qui crée ce listener
+    private final ObjectProvider<CustomUserDetailsService> userDetailsService;
+
+    public UserChangeListener(ObjectProvider<CustomUserDetailsService> userDetailsService) {
+        this.userDetailsService = userDetailsService;
+    }
+
+    @PreUpdate
+    public void beforeUpdate(User user) {
+        // Re-hachage à la connexion : rien ne change pour les jetons émis
+        if (!userDetailsService.getObject().isRehashing()) {
+            user.setTokenVersion(user.getTokenVersion() + 1);
+        }
+    }
+
+    @PostUpdate
+    public void onUpdate(User user) {
+        userDetailsService.getObject().invalidate(user.getId(), user.getTokenVersion());
+    }
+
+    @PostRemove
+    public void onRemove(User user) {
+        userDetailsService.getObject().invalidate(user.getId(), CustomUserDetailsService.DELETED);
+    }
+}
@@ -0,0 +1,81 @@
+package com.hackaton.backend.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+
+/**
+ * Utilisateur authentifié, avec son identifiant pour pouvoir être reconstruit depuis les claims du jeton.
+ * Le mot de passe est absent lorsqu'il provient d'un jeton.
+ */
+public class UserPrincipal implements UserDetails {
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
+    private final Long id;
+    private final String username;
+    private final String password;
+    private final Collection<? extends GrantedAuthority> authorities;
+    // Version de jeton de l'utilisateur, inscrite dans les jetons émis pour lui
+    private final Long tokenVersion;
+
+    public UserPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities) {
+        this(id, username, password, authorities, null);
+    }
+
+    public UserPrincipal(Long id, String username, String password, Collection<? extends GrantedAuthority> authorities,
+                         Long tokenVersion) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.authorities = authorities;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public Long getTokenVersion() {
+        return tokenVersion;
+    }
+
+    public boolean isAdmin() {
+        return authorities.stream().anyMatch(authority -> ROLE_ADMIN.equals(authority.getAuthority()));
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public String getPassword() {
+        return password;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
@@ -0,0 +1,31 @@
+package com.hackaton.backend.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Mises à jour des structures en mémoire (index, calendrier, échéances, places) consécutives à une
+ * écriture : elles ne doivent refléter que ce que la base a validé.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    /**
+     * Exécute {@code action} après la validation de la transaction en cours (jamais en cas d'annulation),
+     * immédiatement hors transaction.
+     */
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
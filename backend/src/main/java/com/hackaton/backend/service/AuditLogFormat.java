@@ -0,0 +1,210 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.AuditRecord;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.zip.CRC32C;
+
+/**
+ * Format binaire du journal d'audit.
+ *
+ * Segment : en-tête de 16 octets (magique, version du format, premier numéro de séquence), puis les
+ * enregistrements bout à bout, chacun précédé de sa longueur et du CRC32C de son contenu. Le fichier
+ * est pré-alloué à zéro : une longueur nulle marque la fin des enregistrements.
+ */
+final class AuditLogFormat {
+    static final int MAGIC = 0x41554447;
+    static final short FORMAT_VERSION = 1;
+    static final int SEGMENT_HEADER = 16;
+    static final int RECORD_HEADER = 8;
+    static final int MAX_RECORD = 4096;
+
+    // Résultats de recordEnd quand aucun enregistrement valide ne commence à la position donnée
+    static final int END = -1;
+    static final int CORRUPT = -2;
+
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Codes sur un octet, dans l'ordre des listes (0 réservé)
+    private static final List<String> ENTITIES = List.of(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ENTITY_CONTRIBUTION);
+    private static final List<String> ACTIONS = List.of(AuditRecord.ACTION_CREATE, AuditRecord.ACTION_UPDATE,
+            AuditRecord.ACTION_PROCESS, AuditRecord.ACTION_CANCEL, AuditRecord.ACTION_DELETE);
+
+    private AuditLogFormat() {
+    }
+
+    // Noms de longueur fixe : l'ordre alphabétique est celui des séquences
+    static String segmentName(long firstSequence) {
+        return String.format("%020d%s", firstSequence, SEGMENT_SUFFIX);
+    }
+
+    static Long firstSequenceOf(Path file) {
+        String name = file.getFileName().toString();
+        if (name.length() != 20 + SEGMENT_SUFFIX.length() || !name.endsWith(SEGMENT_SUFFIX)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(name.substring(0, 20));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    static void writeSegmentHeader(ByteBuffer segment, long firstSequence) {
+        segment.putInt(0, MAGIC);
+        segment.putShort(4, FORMAT_VERSION);
+        segment.putLong(8, firstSequence);
+    }
+
+    static boolean hasSegmentHeader(ByteBuffer segment, long firstSequence) {
+        return segment.capacity() >= SEGMENT_HEADER && segment.getInt(0) == MAGIC
+                && segment.getShort(4) == FORMAT_VERSION && segment.getLong(8) == firstSequence;
+    }
+
+    /**
+     * Fin de l'enregistrement qui commence à {@code offset} s'il est complet et que son CRC est bon ;
+     * sinon {@link #END} (zone jamais écrite) ou {@link #CORRUPT} (écriture interrompue ou altérée).
+     */
+    static int recordEnd(ByteBuffer segment, int offset) {
+        if (offset + RECORD_HEADER > segment.capacity()) {
+            return END;
+        }
+        int length = segment.getInt(offset);
+        if (length == 0) {
+            return END;
+        }
+        if (length < 0 || length > MAX_RECORD || offset + RECORD_HEADER + length > segment.capacity()) {
+            return CORRUPT;
+        }
+        return crc(segment.slice(offset + RECORD_HEADER, length)) == segment.getInt(offset + 4)
+                ? offset + RECORD_HEADER + length : CORRUPT;
+    }
+
+    static long sequenceAt(ByteBuffer segment, int offset) {
+        return segment.getLong(offset + RECORD_HEADER);
+    }
+
+    static int crc(ByteBuffer body) {
+        CRC32C crc = new CRC32C();
+        crc.update(body.duplicate());
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Écrit le contenu de l'enregistrement (sans longueur ni CRC) à partir de la position de {@code out}.
+     */
+    static void encode(AuditRecord record, ByteBuffer out) {
+        out.putLong(record.sequence());
+        out.putLong(record.timestamp().getEpochSecond());
+        out.putInt(record.timestamp().getNano());
+        out.put(code(ENTITIES, record.entity()));
+        out.put(code(ACTIONS, record.action()));
+        putLong(out, record.entityId());
+        putLong(out, record.actorId());
+        putState(out, record.before());
+        putState(out, record.after());
+    }
+
+    static AuditRecord decode(ByteBuffer segment, int offset) {
+        ByteBuffer in = segment.slice(offset + RECORD_HEADER, segment.getInt(offset));
+        long sequence = in.getLong();
+        Instant timestamp = Instant.ofEpochSecond(in.getLong(), in.getInt());
+        String entity = ENTITIES.get(in.get() - 1);
+        String action = ACTIONS.get(in.get() - 1);
+        Long entityId = getLong(in);
+        Long actorId = getLong(in);
+        return new AuditRecord(sequence, timestamp, entity, action, entityId, actorId, getState(in), getState(in));
+    }
+
+    private static byte code(List<String> values, String value) {
+        int index = values.indexOf(value);
+        if (index < 0) {
+            throw new IllegalArgumentException("Valeur non prévue par le format du journal : " + value);
+        }
+        return (byte) (index + 1);
+    }
+
+    private static void putState(ByteBuffer out, AuditRecord.State state) {
+        out.put((byte) (state != null ? 1 : 0));
+        if (state == null) {
+            return;
+        }
+        putLong(out, state.userId());
+        putString(out, state.type());
+        putString(out, state.category());
+        putString(out, state.status());
+        out.put((byte) (state.amount() != null ? 1 : 0));
+        if (state.amount() != null) {
+            byte[] unscaled = state.amount().unscaledValue().toByteArray();
+            out.putInt(state.amount().scale());
+            out.put((byte) unscaled.length);
+            out.put(unscaled);
+        }
+        out.put((byte) (state.date() != null ? 1 : 0));
+        if (state.date() != null) {
+            out.putLong(state.date().toEpochSecond(ZoneOffset.UTC));
+            out.putInt(state.date().getNano());
+        }
+    }
+
+    private static AuditRecord.State getState(ByteBuffer in) {
+        if (in.get() == 0) {
+            return null;
+        }
+        Long userId = getLong(in);
+        String type = getString(in);
+        String category = getString(in);
+        String status = getString(in);
+        BigDecimal amount = null;
+        if (in.get() != 0) {
+            int scale = in.getInt();
+            byte[] unscaled = new byte[in.get() & 0xFF];
+            in.get(unscaled);
+            amount = new BigDecimal(new BigInteger(unscaled), scale);
+        }
+        LocalDateTime date = null;
+        if (in.get() != 0) {
+            date = LocalDateTime.ofEpochSecond(in.getLong(), in.getInt(), ZoneOffset.UTC);
+        }
+        return new AuditRecord.State(userId, type, category, amount, status, date);
+    }
+
+    private static void putLong(ByteBuffer out, Long value) {
+        out.put((byte) (value != null ? 1 : 0));
+        if (value != null) {
+            out.putLong(value);
+        }
+    }
+
+    private static Long getLong(ByteBuffer in) {
+        return in.get() != 0 ? in.getLong() : null;
+    }
+
+    // Longueur sur deux octets, -1 pour null ; les valeurs journalisées (type, statut, catégorie) sont courtes
+    private static void putString(ByteBuffer out, String value) {
+        if (value == null) {
+            out.putShort((short) -1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        short length = in.getShort();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,167 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.AuditRecord;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Lecture du journal d'audit, dans le processus qui l'écrit comme depuis l'outil en ligne de commande :
+ * relecture à partir d'un numéro de séquence, suivi des nouveaux enregistrements, vérification des CRC.
+ * Les segments sont projetés en lecture seule ; un index clairsemé (une position tous les
+ * {@value #INDEX_INTERVAL} enregistrements) évite de relire un segment depuis son début. Thread-safe.
+ */
+public class AuditLogReader {
+    static final int INDEX_INTERVAL = 256;
+
+    private final Path directory;
+    private final Map<Long, ByteBuffer> segments = new ConcurrentHashMap<>();
+    private final Map<Long, NavigableMap<Long, Integer>> positions = new ConcurrentHashMap<>();
+
+    public AuditLogReader(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Jusqu'à {@code max} enregistrements de séquence comprise entre {@code afterSequence} (exclu) et
+     * {@code upToSequence} (inclus), dans l'ordre du journal.
+     */
+    public List<AuditRecord> read(long afterSequence, int max, long upToSequence) throws IOException {
+        List<AuditRecord> records = new ArrayList<>();
+        List<Long> firsts = segmentFirstSequences();
+        int start = 0;
+        for (int i = 0; i < firsts.size(); i++) {
+            if (firsts.get(i) <= afterSequence + 1) {
+                start = i;
+            }
+        }
+        for (int i = start; i < firsts.size() && records.size() < max; i++) {
+            long first = firsts.get(i);
+            boolean last = i == firsts.size() - 1;
+            ByteBuffer segment = segment(first);
+            NavigableMap<Long, Integer> index = positions.computeIfAbsent(first, key -> new ConcurrentSkipListMap<>());
+            Map.Entry<Long, Integer> from = index.floorEntry(afterSequence + 1);
+            int offset = from != null ? from.getValue() : AuditLogFormat.SEGMENT_HEADER;
+            while (records.size() < max) {
+                int end = AuditLogFormat.recordEnd(segment, offset);
+                if (end == AuditLogFormat.CORRUPT && !last) {
+                    throw new IllegalStateException("Journal d'audit corrompu : segment " + first + ", position " + offset);
+                }
+                if (end < 0) {
+                    // Fin du segment, ou du dernier : enregistrement en cours d'écriture ou interrompu
+                    break;
+                }
+                long sequence = AuditLogFormat.sequenceAt(segment, offset);
+                if (sequence > upToSequence) {
+                    return records;
+                }
+                if (sequence % INDEX_INTERVAL == 0) {
+                    index.putIfAbsent(sequence, offset);
+                }
+                if (sequence > afterSequence) {
+                    records.add(AuditLogFormat.decode(segment, offset));
+                }
+                offset = end;
+            }
+        }
+        return records;
+    }
+
+    /**
+     * Suit le journal : transmet les enregistrements au fil de leur écriture, jusqu'à interruption du thread.
+     */
+    public void tail(long afterSequence, Consumer<AuditRecord> consumer, long pollMillis) throws IOException, InterruptedException {
+        long last = afterSequence;
+        while (!Thread.currentThread().isInterrupted()) {
+            List<AuditRecord> records = read(last, 1000, Long.MAX_VALUE);
+            for (AuditRecord record : records) {
+                consumer.accept(record);
+                last = record.sequence();
+            }
+            if (records.isEmpty()) {
+                Thread.sleep(pollMillis);
+            }
+        }
+    }
+
+    /**
+     * Relit tous les segments : en-têtes, CRC et continuité des séquences. Chaque anomalie est transmise
+     * à {@code problems} ; renvoie le nombre d'enregistrements valides.
+     */
+    public long verify(Consumer<String> problems) throws IOException {
+        long count = 0;
+        long expected = -1;
+        List<Long> firsts = segmentFirstSequences();
+        for (int i = 0; i < firsts.size(); i++) {
+            long first = firsts.get(i);
+            ByteBuffer segment = segment(first);
+            if (!AuditLogFormat.hasSegmentHeader(segment, first)) {
+                problems.accept("Segment " + first + " : en-tête invalide");
+                continue;
+            }
+            if (expected >= 0 && first != expected) {
+                problems.accept("Segment " + first + " : séquences manquantes à partir de " + expected);
+            }
+            expected = first;
+            int offset = AuditLogFormat.SEGMENT_HEADER;
+            int end;
+            while ((end = AuditLogFormat.recordEnd(segment, offset)) > 0) {
+                long sequence = AuditLogFormat.sequenceAt(segment, offset);
+                if (sequence != expected) {
+                    problems.accept("Segment " + first + ", position " + offset + " : séquence " + sequence
+                            + " au lieu de " + expected);
+                }
+                expected = sequence + 1;
+                count++;
+                offset = end;
+            }
+            if (end == AuditLogFormat.CORRUPT) {
+                problems.accept("Segment " + first + ", position " + offset
+                        + (i == firsts.size() - 1 ? " : dernier enregistrement incomplet (écriture interrompue)"
+                        : " : enregistrement illisible (CRC ou longueur invalide)"));
+            }
+        }
+        return count;
+    }
+
+    private List<Long> segmentFirstSequences() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(AuditLogFormat::firstSequenceOf).filter(Objects::nonNull).sorted().toList();
+        }
+    }
+
+    // Taille fixe dès la création : une seule projection suffit, les ajouts y deviennent visibles.
+    // Un segment dont l'en-tête n'est pas encore écrit n'est pas gardé (fichier peut-être pas encore étendu)
+    private ByteBuffer segment(long firstSequence) throws IOException {
+        ByteBuffer segment = segments.get(firstSequence);
+        if (segment == null) {
+            try (FileChannel channel = FileChannel.open(directory.resolve(AuditLogFormat.segmentName(firstSequence)),
+                    StandardOpenOption.READ)) {
+                segment = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (AuditLogFormat.hasSegmentHeader(segment, firstSequence)) {
+                ByteBuffer previous = segments.putIfAbsent(firstSequence, segment);
+                if (previous != null) {
+                    segment = previous;
+                }
+            }
+        }
+        return segment;
+    }
+}
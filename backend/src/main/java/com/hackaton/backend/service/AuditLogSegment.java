@@ -0,0 +1,121 @@
+package com.hackaton.backend.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Segment du journal d'audit ouvert en écriture : un fichier de taille fixe projeté en mémoire, rempli
+ * par ajouts successifs. Utilisé par le seul thread d'écriture, non thread-safe.
+ */
+final class AuditLogSegment implements Closeable {
+    private final Path path;
+    private final long firstSequence;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    // Fin des enregistrements écrits, et jusqu'où ils ont été forcés sur disque
+    private int position = AuditLogFormat.SEGMENT_HEADER;
+    private int forcedPosition = AuditLogFormat.SEGMENT_HEADER;
+    private long lastSequence;
+
+    private AuditLogSegment(Path path, long firstSequence, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.firstSequence = firstSequence;
+        this.channel = channel;
+        this.buffer = buffer;
+        this.lastSequence = firstSequence - 1;
+    }
+
+    /**
+     * Nouveau segment dont le premier enregistrement portera {@code firstSequence} ; le fichier est
+     * étendu à {@code size} octets (à zéro) dès la projection.
+     */
+    static AuditLogSegment create(Path directory, long firstSequence, int size) throws IOException {
+        Path path = directory.resolve(AuditLogFormat.segmentName(firstSequence));
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        AuditLogFormat.writeSegmentHeader(buffer, firstSequence);
+        buffer.force(0, AuditLogFormat.SEGMENT_HEADER);
+        return new AuditLogSegment(path, firstSequence, channel, buffer);
+    }
+
+    /**
+     * Rouvre le dernier segment après un arrêt : les enregistrements sont relus jusqu'au premier
+     * incomplet ou dont le CRC est faux (écriture interrompue), et la suite du fichier est remise à zéro
+     * pour que les prochains ajouts ne soient pas suivis de restes illisibles. Null si l'en-tête est invalide.
+     */
+    static AuditLogSegment recover(Path path, long firstSequence) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+        if (!AuditLogFormat.hasSegmentHeader(buffer, firstSequence)) {
+            channel.close();
+            return null;
+        }
+        AuditLogSegment segment = new AuditLogSegment(path, firstSequence, channel, buffer);
+        int offset = AuditLogFormat.SEGMENT_HEADER;
+        int end;
+        while ((end = AuditLogFormat.recordEnd(buffer, offset)) > 0) {
+            segment.lastSequence = AuditLogFormat.sequenceAt(buffer, offset);
+            offset = end;
+        }
+        if (end == AuditLogFormat.CORRUPT) {
+            byte[] zeros = new byte[8192];
+            for (int i = offset; i < buffer.capacity(); i += zeros.length) {
+                buffer.put(i, zeros, 0, Math.min(zeros.length, buffer.capacity() - i));
+            }
+            buffer.force(offset, buffer.capacity() - offset);
+        }
+        segment.position = offset;
+        segment.forcedPosition = offset;
+        return segment;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    long firstSequence() {
+        return firstSequence;
+    }
+
+    long lastSequence() {
+        return lastSequence;
+    }
+
+    /**
+     * Ajoute le contenu {@code body} (de sa position à sa limite) avec son en-tête ; false s'il ne tient
+     * plus dans le segment. La longueur est écrite en dernier, et un lecteur concurrent écarte par le CRC
+     * un enregistrement encore partiellement visible.
+     */
+    boolean append(ByteBuffer body, long sequence) {
+        int length = body.remaining();
+        if (position + AuditLogFormat.RECORD_HEADER + length > buffer.capacity()) {
+            return false;
+        }
+        buffer.put(position + AuditLogFormat.RECORD_HEADER, body, body.position(), length);
+        buffer.putInt(position + 4, AuditLogFormat.crc(body));
+        buffer.putInt(position, length);
+        position += AuditLogFormat.RECORD_HEADER + length;
+        lastSequence = sequence;
+        return true;
+    }
+
+    // fsync de la seule plage écrite depuis le dernier appel
+    void force() {
+        if (position > forcedPosition) {
+            buffer.force(forcedPosition, position - forcedPosition);
+            forcedPosition = position;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        channel.close();
+    }
+}
@@ -0,0 +1,259 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.security.UserPrincipal;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * Journal d'audit des écritures financières (transactions, contributions), hors de la base : chaque
+ * modification validée est ajoutée à des segments locaux projetés en mémoire, sans requête ni attente
+ * disque sur le chemin de la requête.
+ *
+ * Les entrées sont déposées après validation de la transaction dans une file circulaire bornée ; un
+ * unique thread les numérote, les écrit à la suite du segment courant et force le lot entier sur disque
+ * en un seul fsync (validation groupée). Un segment plein est fermé et le suivant commence au numéro
+ * de séquence suivant. Au démarrage, le dernier segment est relu et une écriture interrompue écartée.
+ */
+@Service
+public class AuditLogService {
+    private static final Logger log = LoggerFactory.getLogger(AuditLogService.class);
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int batchSize;
+    private final Duration offerTimeout;
+    private final Duration shutdownTimeout;
+    private final BlockingQueue<AuditRecord> pending;
+    private final AuditLogReader reader;
+    private Thread writer;
+
+    // Réservés au thread d'écriture après le démarrage
+    private AuditLogSegment segment;
+    private long nextSequence;
+
+    private volatile long durableSequence;
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean closed;
+
+    public AuditLogService(@Value("${audit.log.path:audit-log}") String path,
+                           @Value("${audit.log.segment-size:64MB}") DataSize segmentSize,
+                           @Value("${audit.log.batch-size:1024}") int batchSize,
+                           @Value("${audit.log.queue-capacity:65536}") int queueCapacity,
+                           @Value("${audit.log.offer-timeout:PT1S}") Duration offerTimeout,
+                           @Value("${audit.log.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        if (segmentSize.toBytes() > Integer.MAX_VALUE || segmentSize.toBytes() < AuditLogFormat.SEGMENT_HEADER
+                + AuditLogFormat.RECORD_HEADER + AuditLogFormat.MAX_RECORD) {
+            throw new IllegalArgumentException("audit.log.segment-size hors limites : " + segmentSize);
+        }
+        this.directory = Paths.get(path).toAbsolutePath();
+        this.segmentSize = (int) segmentSize.toBytes();
+        this.batchSize = batchSize;
+        this.offerTimeout = offerTimeout;
+        this.shutdownTimeout = shutdownTimeout;
+        this.pending = new ArrayBlockingQueue<>(queueCapacity);
+        this.reader = new AuditLogReader(directory);
+    }
+
+    // Dernier segment relu avant le démarrage du thread d'écriture, qui en devient le seul utilisateur
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(directory);
+        segment = openLastSegment();
+        nextSequence = segment.lastSequence() + 1;
+        durableSequence = segment.lastSequence();
+        log.info("Audit log opened at {} (segment {}, next sequence {})", directory, segment.path().getFileName(), nextSequence);
+
+        writer = new Thread(this::writeLoop, "audit-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Journalise une modification. Dans une transaction, l'entrée n'est déposée qu'après sa validation
+     * (rien n'est journalisé en cas d'annulation) ; l'auteur est l'utilisateur authentifié.
+     */
+    public void record(String entity, String action, Long entityId, AuditRecord.State before, AuditRecord.State after) {
+        Long actorId = currentUserId();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    enqueue(new AuditRecord(0, Instant.now(), entity, action, entityId, actorId, before, after));
+                }
+            });
+        } else {
+            enqueue(new AuditRecord(0, Instant.now(), entity, action, entityId, actorId, before, after));
+        }
+    }
+
+    /**
+     * Enregistrements déjà forcés sur disque, à partir du numéro de séquence {@code after} (exclu).
+     */
+    public CursorPage<AuditRecord> getRecords(String after, int limit) {
+        long from;
+        try {
+            from = after == null || after.isBlank() ? 0 : Long.parseLong(after);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Curseur invalide");
+        }
+        int size = PageCursor.limit(limit).getPageSize();
+        List<AuditRecord> items;
+        try {
+            items = new ArrayList<>(reader.read(from, size + 1, durableSequence));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items.remove(size);
+        }
+        String next = hasNext ? String.valueOf(items.get(items.size() - 1).sequence()) : null;
+        return new CursorPage<>(items, next, size);
+    }
+
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("directory", directory.toString());
+        status.put("durableSequence", durableSequence);
+        status.put("pending", pending.size());
+        status.put("dropped", dropped.get());
+        return status;
+    }
+
+    private void enqueue(AuditRecord entry) {
+        try {
+            if (!closed && pending.offer(entry, offerTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // La modification est déjà validée : on ne peut que signaler la perte
+        dropped.incrementAndGet();
+        log.error("Audit record dropped (queue full or log closed): {} {} {}", entry.entity(), entry.action(), entry.entityId());
+    }
+
+    private void writeLoop() {
+        List<AuditRecord> batch = new ArrayList<>(batchSize);
+        ByteBuffer scratch = ByteBuffer.allocate(AuditLogFormat.MAX_RECORD);
+        while (true) {
+            try {
+                batch.add(pending.take());
+            } catch (InterruptedException e) {
+                // Arrêt : ce qui reste dans la file est encore écrit
+                pending.drainTo(batch);
+                write(batch, scratch);
+                return;
+            }
+            pending.drainTo(batch, batchSize - 1);
+            write(batch, scratch);
+            batch.clear();
+        }
+    }
+
+    private void write(List<AuditRecord> batch, ByteBuffer scratch) {
+        for (AuditRecord entry : batch) {
+            try {
+                scratch.clear();
+                AuditLogFormat.encode(entry.withSequence(nextSequence), scratch);
+                scratch.flip();
+                if (!segment.append(scratch, nextSequence)) {
+                    rotate();
+                    if (!segment.append(scratch, nextSequence)) {
+                        throw new IllegalStateException("Enregistrement plus grand qu'un segment");
+                    }
+                }
+                nextSequence++;
+            } catch (IOException | RuntimeException e) {
+                dropped.incrementAndGet();
+                log.error("Audit record could not be written: {} {} {}", entry.entity(), entry.action(), entry.entityId(), e);
+            }
+        }
+        try {
+            // Validation groupée : un seul fsync pour tout le lot
+            segment.force();
+            durableSequence = nextSequence - 1;
+        } catch (RuntimeException e) {
+            log.error("Audit log fsync failed, will retry with the next batch", e);
+        }
+    }
+
+    private void rotate() throws IOException {
+        segment.close();
+        segment = AuditLogSegment.create(directory, nextSequence, segmentSize);
+        log.info("Audit log rotated to segment {}", segment.path().getFileName());
+    }
+
+    private AuditLogSegment openLastSegment() throws IOException {
+        List<Path> files;
+        try (Stream<Path> list = Files.list(directory)) {
+            files = list.filter(file -> AuditLogFormat.firstSequenceOf(file) != null).sorted().toList();
+        }
+        if (files.isEmpty()) {
+            return AuditLogSegment.create(directory, 1, segmentSize);
+        }
+        Path last = files.get(files.size() - 1);
+        long firstSequence = Objects.requireNonNull(AuditLogFormat.firstSequenceOf(last));
+        AuditLogSegment recovered = AuditLogSegment.recover(last, firstSequence);
+        if (recovered != null) {
+            return recovered;
+        }
+        // Arrêt pendant la création d'un segment : le fichier est écarté (jamais supprimé) et recréé
+        Path invalid = last.resolveSibling(last.getFileName() + ".invalid");
+        log.warn("Audit log segment {} has no valid header, moved to {}", last.getFileName(), invalid.getFileName());
+        Files.move(last, invalid, StandardCopyOption.REPLACE_EXISTING);
+        return AuditLogSegment.create(directory, firstSequence, segmentSize);
+    }
+
+    private static Long currentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null && authentication.getPrincipal() instanceof UserPrincipal principal
+                ? principal.getId() : null;
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException, IOException {
+        closed = true;
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!pending.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        writer.interrupt();
+        writer.join(shutdownTimeout.toMillis());
+        segment.close();
+    }
+}
@@ -0,0 +1,237 @@
+package com.hackaton.backend.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.BulkImportReportDTO;
+import com.hackaton.backend.model.Contribution;
+import com.hackaton.backend.model.Transaction;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.service.LedgerBalanceService.LedgerEntry;
+import com.hackaton.backend.service.ReportService.RollupEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Import en masse de transactions et de contributions. Le corps (tableau JSON ou NDJSON) est lu
+ * en flux, validé ligne à ligne puis inséré par lots, chaque lot étant validé dans sa propre
+ * transaction. Un lot rejeté est rejoué ligne par ligne pour isoler les lignes fautives.
+ */
+@Service
+public class BulkImportService {
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    @Value("${bulk.batch-size:500}")
+    private int defaultBatchSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private LedgerBalanceService ledgerBalanceService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private RelatedEntityValidator relatedEntityValidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    public BulkImportReportDTO importTransactions(InputStream body, Integer batchSize) throws IOException {
+        return importAll(body, Transaction.class, batchSize, this::validateTransaction, this::persistTransactions, row -> row.setId(null));
+    }
+
+    public BulkImportReportDTO importContributions(InputStream body, Integer batchSize) throws IOException {
+        return importAll(body, Contribution.class, batchSize, this::validateContribution, this::persistContributions, row -> row.setId(null));
+    }
+
+    private <T> BulkImportReportDTO importAll(InputStream body, Class<T> type, Integer batchSize,
+                                              Function<T, String> validator, Consumer<List<T>> persister,
+                                              Consumer<T> resetId) throws IOException {
+        int size = Math.max(1, Math.min(batchSize != null ? batchSize : defaultBatchSize, MAX_BATCH_SIZE));
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        BulkImportReportDTO report = new BulkImportReportDTO();
+        List<T> batch = new ArrayList<>(size);
+        List<Long> indexes = new ArrayList<>(size);
+
+        // readValues accepte aussi bien un tableau racine qu'une suite de valeurs (NDJSON)
+        try (MappingIterator<T> rows = objectMapper.readerFor(type).readValues(body)) {
+            long index = 0;
+            while (rows.hasNextValue()) {
+                T row;
+                try {
+                    row = rows.nextValue();
+                } catch (JsonProcessingException e) {
+                    // Flux illisible : on ne peut pas se resynchroniser de façon fiable
+                    report.setReceived(index + 1);
+                    addError(report, index, "JSON invalide : " + e.getOriginalMessage());
+                    break;
+                }
+                String error = validator.apply(row);
+                if (error != null) {
+                    addError(report, index, error);
+                } else {
+                    batch.add(row);
+                    indexes.add(index);
+                }
+                index++;
+                report.setReceived(index);
+                if (batch.size() == size) {
+                    flushBatch(transactionTemplate, batch, indexes, persister, resetId, report);
+                }
+            }
+        }
+        if (!batch.isEmpty()) {
+            flushBatch(transactionTemplate, batch, indexes, persister, resetId, report);
+        }
+        return report;
+    }
+
+    private <T> void flushBatch(TransactionTemplate transactionTemplate, List<T> batch, List<Long> indexes,
+                                Consumer<List<T>> persister, Consumer<T> resetId, BulkImportReportDTO report) {
+        report.setBatches(report.getBatches() + 1);
+        try {
+            transactionTemplate.executeWithoutResult(status -> persister.accept(batch));
+            report.setInserted(report.getInserted() + batch.size());
+        } catch (RuntimeException batchFailure) {
+            entityManager.clear();
+            for (int i = 0; i < batch.size(); i++) {
+                T row = batch.get(i);
+                resetId.accept(row);
+                try {
+                    transactionTemplate.executeWithoutResult(status -> persister.accept(List.of(row)));
+                    report.setInserted(report.getInserted() + 1);
+                } catch (RuntimeException rowFailure) {
+                    resetId.accept(row);
+                    addError(report, indexes.get(i), NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                } finally {
+                    entityManager.clear();
+                }
+            }
+        } finally {
+            // Avec open-in-view, le contexte de persistance survit aux transactions : on le vide à chaque lot
+            entityManager.clear();
+            batch.clear();
+            indexes.clear();
+        }
+    }
+
+    private void persistTransactions(List<Transaction> batch) {
+        List<LedgerEntry> ledgerEntries = new ArrayList<>(batch.size());
+        List<RollupEntry> rollupEntries = new ArrayList<>(batch.size());
+        for (Transaction transaction : batch) {
+            transaction.setUser(entityManager.getReference(User.class, transaction.getUser().getId()));
+            entityManager.persist(transaction);
+            ledgerEntries.add(LedgerEntry.of(transaction));
+            rollupEntries.add(RollupEntry.of(transaction));
+            auditLogService.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_CREATE, transaction.getId(),
+                    null, AuditRecord.State.of(transaction));
+        }
+        entityManager.flush();
+        // Lot écrit : sans ce clear, chaque mise à jour native qui suit déclenche un auto-flush qui revérifie tout le lot
+        entityManager.clear();
+        ledgerBalanceService.recordAll(ledgerEntries);
+        reportService.recordAll(rollupEntries);
+        // Une seule notification par lot validé : les abonnés relisent leurs listes
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_TRANSACTION, ChangeEvent.ACTION_IMPORT, null, null));
+    }
+
+    private void persistContributions(List<Contribution> batch) {
+        List<RollupEntry> rollupEntries = new ArrayList<>(batch.size());
+        for (Contribution contribution : batch) {
+            contribution.setUser(entityManager.getReference(User.class, contribution.getUser().getId()));
+            entityManager.persist(contribution);
+            rollupEntries.add(RollupEntry.of(contribution));
+            auditLogService.record(AuditRecord.ENTITY_CONTRIBUTION, AuditRecord.ACTION_CREATE, contribution.getId(),
+                    null, AuditRecord.State.of(contribution));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        reportService.recordAll(rollupEntries);
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_CONTRIBUTION, ChangeEvent.ACTION_IMPORT, null, null));
+    }
+
+    private String validateTransaction(Transaction transaction) {
+        if (transaction.getId() != null) {
+            return "L'identifiant est attribué par le serveur";
+        }
+        if (transaction.getUser() == null || transaction.getUser().getId() == null) {
+            return "Utilisateur manquant";
+        }
+        if (transaction.getType() == null || transaction.getType().isBlank()) {
+            return "Type manquant";
+        }
+        if (transaction.getAmount() == null || transaction.getAmount().signum() < 0) {
+            return "Montant manquant ou négatif";
+        }
+        if (transaction.getDescription() == null || transaction.getDescription().isBlank()) {
+            return "Description manquante";
+        }
+        if (transaction.getDate() == null) {
+            return "Date manquante";
+        }
+        if (transaction.getCategory() == null || transaction.getCategory().isBlank()) {
+            return "Catégorie manquante";
+        }
+        if (transaction.getStatus() == null || transaction.getStatus().isBlank()) {
+            return "Statut manquant";
+        }
+        return relatedEntityValidator.check(transaction.getRelatedTo());
+    }
+
+    private String validateContribution(Contribution contribution) {
+        if (contribution.getId() != null) {
+            return "L'identifiant est attribué par le serveur";
+        }
+        if (contribution.getUser() == null || contribution.getUser().getId() == null) {
+            return "Utilisateur manquant";
+        }
+        if (contribution.getType() == null || contribution.getType().isBlank()) {
+            return "Type manquant";
+        }
+        if (contribution.getAmount() == null || contribution.getAmount().signum() < 0) {
+            return "Montant manquant ou négatif";
+        }
+        if (contribution.getDate() == null) {
+            return "Date manquante";
+        }
+        if (contribution.getStatus() == null || contribution.getStatus().isBlank()) {
+            return "Statut manquant";
+        }
+        return relatedEntityValidator.check(contribution.getRelatedTo());
+    }
+
+    private void addError(BulkImportReportDTO report, long index, String message) {
+        report.setFailed(report.getFailed() + 1);
+        if (report.getErrors().size() < MAX_REPORTED_ERRORS) {
+            report.getErrors().add(new BulkImportReportDTO.RowError(index, message));
+        }
+    }
+}
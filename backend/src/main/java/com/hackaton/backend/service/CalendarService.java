@@ -0,0 +1,339 @@
+package com.hackaton.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.EventDTO;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.ProjectDTO;
+import com.hackaton.backend.model.Event;
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.ProjectRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+/**
+ * Calendrier en mémoire des événements et projets, indexés par intervalle (startDate, endDate) :
+ * chevauchement d'une période, prochains événements et conflits de lieu sans requête en base.
+ * Chargé au démarrage par un parcours en flux des deux tables, puis tenu à jour par les services.
+ * Les rappels après validation peuvent s'exécuter dans le désordre : une version plus ancienne que
+ * celle en mémoire, ou qu'une suppression récente, est ignorée.
+ */
+@Service
+public class CalendarService {
+    public static final int MAX_CONFLICTS = 100;
+
+    private static final Logger log = LoggerFactory.getLogger(CalendarService.class);
+    // Projet sans date de fin : toujours en cours
+    private static final LocalDateTime OPEN_END = LocalDateTime.MAX;
+    // Durée pendant laquelle une ligne supprimée refuse les rappels plus anciens
+    private static final Duration REMOVED_TTL = Duration.ofMinutes(5);
+    private static final long DELETED = Long.MAX_VALUE;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final IntervalTree<EventDTO> events = new IntervalTree<>();
+    private final IntervalTree<ProjectDTO> projects = new IntervalTree<>();
+    private final Map<String, IntervalTree<EventDTO>> eventsByLocation = new HashMap<>();
+    private final Map<Long, EventDTO> eventsById = new HashMap<>();
+    private final Map<Long, ProjectDTO> projectsById = new HashMap<>();
+    // Version des lignes supprimées, modifiées sous le verrou d'écriture comme le reste du calendrier
+    private final Cache<Long, Long> removedEventVersions = Caffeine.newBuilder().expireAfterWrite(REMOVED_TTL).build();
+    private final Cache<Long, Long> removedProjectVersions = Caffeine.newBuilder().expireAfterWrite(REMOVED_TTL).build();
+
+    // Identifiants modifiés pendant le chargement : la ligne lue dans le flux est peut-être déjà périmée
+    private final Set<Long> eventsTouchedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final Set<Long> projectsTouchedWhileLoading = ConcurrentHashMap.newKeySet();
+    private volatile boolean ready;
+
+    // Numéro de révision et identifiant d'instance, pour des ETag sans requête en base
+    private final String instanceId = UUID.randomUUID().toString();
+    private long revision;
+
+    // Le flux JPA n'est valide que dans la transaction
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try (Stream<EventDTO> rows = eventRepository.streamAll()) {
+            rows.forEach(event -> putLoaded(eventsTouchedWhileLoading, event.getId(), () -> putEvent(event)));
+        }
+        try (Stream<ProjectDTO> rows = projectRepository.streamAll()) {
+            rows.forEach(project -> putLoaded(projectsTouchedWhileLoading, project.getId(), () -> putProject(project)));
+        }
+        ready = true;
+        eventsTouchedWhileLoading.clear();
+        projectsTouchedWhileLoading.clear();
+        log.info("Calendar loaded ({} events, {} projects, {} ms)",
+                events.size(), projects.size(), System.currentTimeMillis() - start);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void index(Event event) {
+        if (!ready) {
+            eventsTouchedWhileLoading.add(event.getId());
+        }
+        putEvent(new EventDTO(event.getId(), event.getTitle(), event.getDescription(), event.getStartDate(),
+                event.getEndDate(), event.getLocation(), event.getStatus(),
+                event.getUser() != null ? event.getUser().getId() : null,
+                event.getCreatedAt(), event.getUpdatedAt(), event.getVersion()));
+    }
+
+    public void index(Project project) {
+        if (!ready) {
+            projectsTouchedWhileLoading.add(project.getId());
+        }
+        putProject(new ProjectDTO(project.getId(), project.getName(), project.getDescription(), project.getStartDate(),
+                project.getEndDate(), project.getStatus(), project.getBudget(),
+                project.getUser() != null ? project.getUser().getId() : null,
+                project.getCreatedAt(), project.getUpdatedAt(), project.getVersion()));
+    }
+
+    public void removeEvent(Long id) {
+        if (!ready) {
+            eventsTouchedWhileLoading.add(id);
+        }
+        lock.writeLock().lock();
+        try {
+            EventDTO previous = eventsById.remove(id);
+            removedEventVersions.put(id, DELETED);
+            if (previous != null) {
+                unlinkEvent(previous);
+            }
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeProject(Long id) {
+        if (!ready) {
+            projectsTouchedWhileLoading.add(id);
+        }
+        lock.writeLock().lock();
+        try {
+            ProjectDTO previous = projectsById.remove(id);
+            removedProjectVersions.put(id, DELETED);
+            if (previous != null) {
+                projects.remove(new PageCursor(previous.getStartDate(), previous.getId()));
+            }
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Événements en cours à un moment quelconque de [start, end], y compris ceux commencés avant.
+     */
+    public CursorPage<EventDTO> getEventsOverlapping(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        return page(events, start, end, after == null || after.isBlank() ? null : PageCursor.ascendingFrom(after),
+                limit, event -> new PageCursor(event.getStartDate(), event.getId()));
+    }
+
+    public CursorPage<ProjectDTO> getProjectsOverlapping(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        return page(projects, start, end, after == null || after.isBlank() ? null : PageCursor.ascendingFrom(after),
+                limit, project -> new PageCursor(project.getStartDate(), project.getId()));
+    }
+
+    /**
+     * Événements qui commencent après {@code now}, par date de début croissante.
+     */
+    public CursorPage<EventDTO> getUpcomingEvents(LocalDateTime now, String after, int limit) {
+        PageCursor from = new PageCursor(now, Long.MAX_VALUE);
+        if (after != null && !after.isBlank()) {
+            PageCursor cursor = PageCursor.ascendingFrom(after);
+            if (IntervalTree.BY_START.compare(cursor, from) > 0) {
+                from = cursor;
+            }
+        }
+        return page(events, LocalDateTime.MIN, LocalDateTime.MAX, from, limit,
+                event -> new PageCursor(event.getStartDate(), event.getId()));
+    }
+
+    /**
+     * Événements au même lieu dont la période recouvre strictement [start, end] (des créneaux
+     * qui se touchent ne sont pas en conflit), hors {@code excludeId}.
+     */
+    public List<EventDTO> getLocationConflicts(String location, LocalDateTime start, LocalDateTime end, Long excludeId) {
+        List<EventDTO> candidates = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            IntervalTree<EventDTO> tree = eventsByLocation.get(locationKey(location));
+            if (tree != null) {
+                // Une place de plus par exclusion possible
+                tree.overlapping(start, end, null, MAX_CONFLICTS + 1, candidates);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<EventDTO> conflicts = new ArrayList<>();
+        for (EventDTO event : candidates) {
+            if (!event.getId().equals(excludeId) && event.getStartDate().isBefore(end) && endOf(event).isAfter(start)
+                    && conflicts.size() < MAX_CONFLICTS) {
+                conflicts.add(event);
+            }
+        }
+        return conflicts;
+    }
+
+    /**
+     * ETag d'une vue du calendrier : change à chaque écriture, et d'une instance à l'autre.
+     */
+    public String etag(Object... request) {
+        StringBuilder key = new StringBuilder(instanceId);
+        lock.readLock().lock();
+        try {
+            key.append('|').append(revision);
+        } finally {
+            lock.readLock().unlock();
+        }
+        for (Object part : request) {
+            key.append('|').append(part);
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    private <T> CursorPage<T> page(IntervalTree<T> tree, LocalDateTime start, LocalDateTime end, PageCursor after,
+                                   int limit, Function<T, PageCursor> cursorOf) {
+        int size = PageCursor.limit(limit).getPageSize();
+        List<T> items = new ArrayList<>(size + 1);
+        lock.readLock().lock();
+        try {
+            tree.overlapping(start, end, after, size + 1, items);
+        } finally {
+            lock.readLock().unlock();
+        }
+        boolean hasNext = items.size() > size;
+        if (hasNext) {
+            items.remove(size);
+        }
+        String next = hasNext ? cursorOf.apply(items.get(items.size() - 1)).encode() : null;
+        return new CursorPage<>(items, next, size);
+    }
+
+    // Vérification et insertion sous le verrou d'écriture : un index/remove concurrent, qui marque l'identifiant
+    // avant de prendre ce verrou, ne peut pas être écrasé par la ligne lue au chargement
+    private void putLoaded(Set<Long> touchedWhileLoading, Long id, Runnable put) {
+        lock.writeLock().lock();
+        try {
+            if (!touchedWhileLoading.contains(id)) {
+                put.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putEvent(EventDTO event) {
+        lock.writeLock().lock();
+        try {
+            EventDTO current = eventsById.get(event.getId());
+            if (isOlder(event.getId(), event.getVersion(), current != null ? current.getVersion() : null,
+                    removedEventVersions)) {
+                return;
+            }
+            eventsById.put(event.getId(), event);
+            removedEventVersions.invalidate(event.getId());
+            if (current != null) {
+                unlinkEvent(current);
+            }
+            PageCursor key = new PageCursor(event.getStartDate(), event.getId());
+            events.insert(key, endOf(event), event);
+            if (event.getLocation() != null && !event.getLocation().isBlank()) {
+                eventsByLocation.computeIfAbsent(locationKey(event.getLocation()), location -> new IntervalTree<>())
+                        .insert(key, endOf(event), event);
+            }
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void putProject(ProjectDTO project) {
+        lock.writeLock().lock();
+        try {
+            ProjectDTO current = projectsById.get(project.getId());
+            if (isOlder(project.getId(), project.getVersion(), current != null ? current.getVersion() : null,
+                    removedProjectVersions)) {
+                return;
+            }
+            projectsById.put(project.getId(), project);
+            removedProjectVersions.invalidate(project.getId());
+            if (current != null) {
+                projects.remove(new PageCursor(current.getStartDate(), current.getId()));
+            }
+            LocalDateTime end = project.getEndDate() != null ? project.getEndDate() : OPEN_END;
+            projects.insert(new PageCursor(project.getStartDate(), project.getId()), end, project);
+            revision++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void unlinkEvent(EventDTO event) {
+        PageCursor key = new PageCursor(event.getStartDate(), event.getId());
+        events.remove(key);
+        if (event.getLocation() != null && !event.getLocation().isBlank()) {
+            String location = locationKey(event.getLocation());
+            IntervalTree<EventDTO> tree = eventsByLocation.get(location);
+            if (tree != null && tree.remove(key) && tree.size() == 0) {
+                eventsByLocation.remove(location);
+            }
+        }
+    }
+
+    // Une version égale est appliquée : même ligne relue, ou entité sans version
+    private static boolean isOlder(Long id, Long version, Long current, Cache<Long, Long> removedVersions) {
+        long incoming = versionOf(version);
+        if (current != null && versionOf(current) > incoming) {
+            return true;
+        }
+        Long removed = removedVersions.getIfPresent(id);
+        return removed != null && removed > incoming;
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    // Fin d'un événement, jamais avant son début
+    private static LocalDateTime endOf(EventDTO event) {
+        return event.getEndDate() != null && event.getEndDate().isAfter(event.getStartDate())
+                ? event.getEndDate() : event.getStartDate();
+    }
+
+    private static String locationKey(String location) {
+        return location == null ? "" : location.trim().toLowerCase(Locale.ROOT);
+    }
+}
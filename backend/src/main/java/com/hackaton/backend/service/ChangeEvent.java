@@ -0,0 +1,32 @@
+package com.hackaton.backend.service;
+
+import java.time.Instant;
+import java.util.Set;
+
+/**
+ * Publiée (événement applicatif Spring) par les services à chaque écriture ; diffusée après validation
+ * de la transaction aux abonnés du flux de changements. Ne porte que l'identité de l'objet modifié :
+ * le client relit ce qui l'intéresse. {@code id} est null pour un import en masse.
+ */
+public record ChangeEvent(String entity, String action, Long id, Long userId, Instant timestamp) {
+    public static final String ENTITY_EVENT = "event";
+    public static final String ENTITY_PROJECT = "project";
+    public static final String ENTITY_TASK = "task";
+    public static final String ENTITY_TRANSACTION = "transaction";
+    public static final String ENTITY_CONTRIBUTION = "contribution";
+    public static final Set<String> ENTITIES = Set.of(ENTITY_EVENT, ENTITY_PROJECT, ENTITY_TASK,
+            ENTITY_TRANSACTION, ENTITY_CONTRIBUTION);
+    // Données financières : réservées aux administrateurs, comme leur consultation
+    public static final Set<String> FINANCIAL_ENTITIES = Set.of(ENTITY_TRANSACTION, ENTITY_CONTRIBUTION);
+    public static final Set<String> NON_FINANCIAL_ENTITIES = Set.of(ENTITY_EVENT, ENTITY_PROJECT, ENTITY_TASK);
+
+    public static final String ACTION_CREATE = "create";
+    public static final String ACTION_UPDATE = "update";
+    public static final String ACTION_DELETE = "delete";
+    public static final String ACTION_IMPORT = "import";
+    public static final String ACTION_OVERDUE = "overdue";
+
+    public static ChangeEvent of(String entity, String action, Long id, Long userId) {
+        return new ChangeEvent(entity, action, id, userId, Instant.now());
+    }
+}
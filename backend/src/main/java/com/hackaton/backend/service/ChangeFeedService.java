@@ -0,0 +1,330 @@
+package com.hackaton.backend.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Flux de changements en Server-Sent Events, sans accès à la base : les services publient un
+ * {@link ChangeEvent}, diffusé après validation de leur transaction aux abonnés dont le filtre
+ * (types d'entité, utilisateur) correspond.
+ *
+ * La publication ne fait que déposer l'événement dans une file ; un thread de diffusion le copie dans
+ * le tampon borné de chaque abonné, sans jamais attendre. Chaque abonné est servi par un thread virtuel
+ * qui vide son tampon vers le client : un client lent ne ralentit que lui. Quand son tampon déborde, il
+ * est vidé et le client reçoit un événement {@code resync} (relire ses listes) au lieu des changements
+ * perdus. Un commentaire de maintien est envoyé périodiquement, ce qui détecte aussi les clients partis.
+ *
+ * Les derniers changements diffusés sont gardés dans un historique circulaire : un client qui se
+ * reconnecte n'est resynchronisé que si l'un des changements émis depuis son Last-Event-ID correspondait
+ * à son filtre, ou si l'historique ne permet plus de le savoir.
+ */
+@Service
+public class ChangeFeedService {
+    public static final String EVENT_CHANGE = "change";
+    public static final String EVENT_RESYNC = "resync";
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeedService.class);
+
+    private final int bufferSize;
+    private final int maxSubscribers;
+    private final Duration heartbeat;
+    private final Duration timeout;
+    // Préfixe des identifiants d'événement : un Last-Event-ID d'une autre instance impose une resynchronisation
+    private final String instanceId = UUID.randomUUID().toString().substring(0, 8);
+
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final BlockingQueue<ChangeEvent> published;
+    private Thread dispatcher;
+    private final ExecutorService senders = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("change-feed-sender-", 0).factory());
+    private final ScheduledExecutorService heartbeats = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "change-feed-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Derniers changements diffusés, rangés par séquence modulo la taille. Sert aussi de verrou entre la
+    // diffusion et l'ouverture d'un flux : un abonné ne peut pas manquer un changement diffusé pendant son inscription
+    private final Notification[] history;
+    // Écrit par le seul thread de diffusion, sous le verrou de l'historique
+    private volatile long sequence;
+    // Séquence diffusée au moment de la dernière perte (file de diffusion pleine), -1 : aucune
+    private volatile long lostAfter = -1;
+
+    public ChangeFeedService(@Value("${changes.stream.buffer-size:256}") int bufferSize,
+                             @Value("${changes.stream.max-subscribers:10000}") int maxSubscribers,
+                             @Value("${changes.stream.dispatch-queue-capacity:10000}") int dispatchQueueCapacity,
+                             @Value("${changes.stream.history-size:1024}") int historySize,
+                             @Value("${changes.stream.heartbeat:PT15S}") Duration heartbeat,
+                             @Value("${changes.stream.timeout:PT30M}") Duration timeout) {
+        this.bufferSize = bufferSize;
+        this.maxSubscribers = maxSubscribers;
+        this.heartbeat = heartbeat;
+        this.timeout = timeout;
+        this.published = new ArrayBlockingQueue<>(dispatchQueueCapacity);
+        this.history = new Notification[historySize];
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher = new Thread(this::dispatchLoop, "change-feed-dispatcher");
+        dispatcher.setDaemon(true);
+        dispatcher.start();
+        heartbeats.scheduleAtFixedRate(this::heartbeat, heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Ouvre un flux filtré sur {@code entities} (vide : toutes celles autorisées) et sur {@code userId}
+     * (null : tous ; les imports en masse, sans utilisateur, sont transmis à tous). Sans
+     * {@code financial}, les transactions et contributions ne sont jamais transmises. Un client qui se
+     * reconnecte commence par un {@code resync} si un changement correspondant à son filtre a été émis
+     * depuis son Last-Event-ID.
+     */
+    public SseEmitter subscribe(Set<String> entities, Long userId, boolean financial, String lastEventId) {
+        for (String entity : entities) {
+            if (!ChangeEvent.ENTITIES.contains(entity)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type d'entité inconnu : " + entity);
+            }
+            if (!financial && ChangeEvent.FINANCIAL_ENTITIES.contains(entity)) {
+                throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Type d'entité réservé aux administrateurs : " + entity);
+            }
+        }
+        if (entities.isEmpty() && !financial) {
+            entities = ChangeEvent.NON_FINANCIAL_ENTITIES;
+        }
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trop de flux ouverts, réessayez plus tard");
+        }
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter, entities, userId);
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        synchronized (history) {
+            subscribers.add(subscriber);
+            if (lastEventId != null && missedSince(lastEventId, subscriber.entities, subscriber.userId)) {
+                subscriber.overflowed = true;
+            }
+        }
+        // Premier envoi immédiat : les en-têtes partent et le client sait que le flux est ouvert
+        subscriber.heartbeatDue = true;
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscriberCount.get();
+    }
+
+    /**
+     * Vrai si un changement correspondant au filtre a pu être émis après {@code lastEventId} : identifiant
+     * d'une autre instance ou illisible, antérieur à l'historique gardé ou à une perte, ou changement
+     * correspondant dans l'historique.
+     */
+    boolean missedSince(String lastEventId, Set<String> entities, Long userId) {
+        synchronized (history) {
+            String prefix = instanceId + ":";
+            long from;
+            try {
+                from = lastEventId.startsWith(prefix) ? Long.parseLong(lastEventId.substring(prefix.length())) : -1;
+            } catch (NumberFormatException e) {
+                from = -1;
+            }
+            if (from < 0 || from > sequence || from <= lostAfter || sequence - from > history.length) {
+                return true;
+            }
+            for (long missed = from + 1; missed <= sequence; missed++) {
+                if (matches(entities, userId, history[(int) (missed % history.length)].event())) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+
+    // Identifiant du dernier changement diffusé
+    String lastEventId() {
+        return eventId(sequence);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onChange(ChangeEvent event) {
+        publish(event);
+    }
+
+    @EventListener
+    public void onTaskOverdue(TaskOverdueEvent event) {
+        publish(ChangeEvent.of(ChangeEvent.ENTITY_TASK, ChangeEvent.ACTION_OVERDUE, event.task().getId(),
+                event.task().getAssignedToId()));
+    }
+
+    private void publish(ChangeEvent event) {
+        if (!published.offer(event)) {
+            // Diffusion saturée : plutôt qu'attendre, tous les abonnés se resynchroniseront
+            log.warn("Change feed dispatch queue full, asking {} subscribers to resync", subscriberCount.get());
+            // Les abonnés déconnectés seront resynchronisés à leur retour
+            lostAfter = sequence;
+            subscribers.forEach(Subscriber::overflow);
+        }
+    }
+
+    private void dispatchLoop() {
+        while (true) {
+            ChangeEvent event;
+            try {
+                event = published.take();
+            } catch (InterruptedException e) {
+                return;
+            }
+            synchronized (history) {
+                Notification notification = new Notification(sequence + 1, event);
+                history[(int) (notification.sequence() % history.length)] = notification;
+                sequence = notification.sequence();
+                for (Subscriber subscriber : subscribers) {
+                    if (matches(subscriber.entities, subscriber.userId, event)) {
+                        subscriber.offer(notification);
+                    }
+                }
+            }
+        }
+    }
+
+    private void heartbeat() {
+        for (Subscriber subscriber : subscribers) {
+            subscriber.heartbeatDue = true;
+            subscriber.schedule();
+        }
+    }
+
+    private static boolean matches(Set<String> entities, Long userId, ChangeEvent event) {
+        return (entities.isEmpty() || entities.contains(event.entity()))
+                && (userId == null || event.userId() == null || userId.equals(event.userId()));
+    }
+
+    private String eventId(long sequence) {
+        return instanceId + ":" + sequence;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        heartbeats.shutdownNow();
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdown();
+    }
+
+    private record Notification(long sequence, ChangeEvent event) {
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Set<String> entities;
+        private final Long userId;
+        private final BlockingQueue<Notification> buffer = new ArrayBlockingQueue<>(bufferSize);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile boolean overflowed;
+        private volatile boolean heartbeatDue;
+
+        private Subscriber(SseEmitter emitter, Set<String> entities, Long userId) {
+            this.emitter = emitter;
+            this.entities = Set.copyOf(entities);
+            this.userId = userId;
+        }
+
+        private void offer(Notification notification) {
+            if (!buffer.offer(notification)) {
+                overflow();
+                return;
+            }
+            schedule();
+        }
+
+        // Le drapeau est posé avant de vider le tampon : le resync part forcément après les pertes
+        private void overflow() {
+            overflowed = true;
+            buffer.clear();
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed.get() && scheduled.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RuntimeException e) {
+                    // Arrêt en cours
+                    scheduled.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                while (!closed.get()) {
+                    if (overflowed) {
+                        overflowed = false;
+                        buffer.clear();
+                        emitter.send(SseEmitter.event().name(EVENT_RESYNC).id(eventId(sequence))
+                                .data("{}", MediaType.APPLICATION_JSON));
+                        continue;
+                    }
+                    Notification notification = buffer.poll();
+                    if (notification == null) {
+                        if (heartbeatDue) {
+                            heartbeatDue = false;
+                            emitter.send(SseEmitter.event().comment("heartbeat"));
+                            continue;
+                        }
+                        break;
+                    }
+                    emitter.send(SseEmitter.event().name(EVENT_CHANGE).id(eventId(notification.sequence()))
+                            .data(notification.event(), MediaType.APPLICATION_JSON));
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Client parti ou flux déjà terminé
+                close();
+                emitter.completeWithError(e);
+            } finally {
+                scheduled.set(false);
+            }
+            // Dépôt arrivé pendant la fin du vidage
+            if (!buffer.isEmpty() || overflowed || heartbeatDue) {
+                schedule();
+            }
+        }
+
+        private void close() {
+            if (closed.compareAndSet(false, true)) {
+                subscribers.remove(this);
+                subscriberCount.decrementAndGet();
+                buffer.clear();
+            }
+        }
+    }
+}
@@ -1,9 +1,18 @@
 package com.hackaton.backend.service;
 
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.ContributionDTO;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.RelatedEntityReportDTO;
 import com.hackaton.backend.model.Contribution;
+import com.hackaton.backend.model.RelatedEntity;
 import com.hackaton.backend.repository.ContributionRepository;
+import com.hackaton.backend.service.ReportService.RollupEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -14,8 +23,32 @@ public class ContributionService {
     @Autowired
     private ContributionRepository contributionRepository;
 
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private RelatedEntityValidator relatedEntityValidator;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Contribution save(Contribution contribution) {
-        return contributionRepository.save(contribution);
+        relatedEntityValidator.validate(contribution.getRelatedTo());
+        Contribution existing = contribution.getId() == null ? null
+                : contributionRepository.findById(contribution.getId()).orElse(null);
+        RollupEntry before = existing != null ? RollupEntry.of(existing) : null;
+        AuditRecord.State auditBefore = existing != null ? AuditRecord.State.of(existing) : null;
+        Contribution saved = contributionRepository.save(contribution);
+        reportService.recordChange(before, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_CONTRIBUTION,
+                existing != null ? AuditRecord.ACTION_UPDATE : AuditRecord.ACTION_CREATE, saved.getId(),
+                auditBefore, AuditRecord.State.of(saved));
+        publishChange(existing != null ? ChangeEvent.ACTION_UPDATE : ChangeEvent.ACTION_CREATE, saved);
+        return saved;
     }
 
     public List<Contribution> findAll() {
@@ -47,17 +80,94 @@ public class ContributionService {
         return contributionRepository.findByUserIdAndStatus(userId, status);
     }
 
+    @Transactional
     public void deleteById(Long id) {
-        contributionRepository.deleteById(id);
+        contributionRepository.findById(id).ifPresent(contribution -> {
+            RollupEntry before = RollupEntry.of(contribution);
+            contributionRepository.delete(contribution);
+            reportService.recordChange(before, null);
+            auditLogService.record(AuditRecord.ENTITY_CONTRIBUTION, AuditRecord.ACTION_DELETE, id,
+                    AuditRecord.State.of(contribution), null);
+            publishChange(ChangeEvent.ACTION_DELETE, contribution);
+        });
     }
 
+    @Transactional
     public Contribution update(Long id, Contribution contributionDetails) {
         Contribution contribution = findById(id);
+        relatedEntityValidator.validate(contributionDetails.getRelatedTo());
+        RollupEntry before = RollupEntry.of(contribution);
+        AuditRecord.State auditBefore = AuditRecord.State.of(contribution);
         contribution.setType(contributionDetails.getType());
         contribution.setAmount(contributionDetails.getAmount());
         contribution.setDescription(contributionDetails.getDescription());
         contribution.setDate(contributionDetails.getDate());
         contribution.setStatus(contributionDetails.getStatus());
-        return contributionRepository.save(contribution);
+        contribution.setRelatedTo(contributionDetails.getRelatedTo());
+        Contribution saved = contributionRepository.save(contribution);
+        reportService.recordChange(before, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_CONTRIBUTION, AuditRecord.ACTION_UPDATE, id,
+                auditBefore, AuditRecord.State.of(saved));
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
+    }
+
+    private void publishChange(String action, Contribution contribution) {
+        Long userId = contribution.getUser() != null ? contribution.getUser().getId() : null;
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_CONTRIBUTION, action, contribution.getId(), userId));
+    }
+
+    public CursorPage<ContributionDTO> findPage(String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    public CursorPage<ContributionDTO> findPageByUserId(Long userId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPageByUserId(userId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    public CursorPage<ContributionDTO> findPageByType(String type, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPageByType(type, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    public CursorPage<ContributionDTO> findPageByStatus(String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPageByStatus(status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    public CursorPage<ContributionDTO> findPageByDateRange(LocalDateTime startDate, LocalDateTime endDate, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPageByDateBetween(startDate, endDate, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    public CursorPage<ContributionDTO> findPageByUserIdAndStatus(Long userId, String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(contributionRepository.findPageByUserIdAndStatus(userId, status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+    }
+
+    /**
+     * Contributions liées à un événement, un projet ou à l'organisation, avec leurs totaux, en un seul appel.
+     */
+    @Transactional(readOnly = true)
+    public RelatedEntityReportDTO<ContributionDTO> findRelatedEntityReport(String relatedType, Long relatedId, String after, int limit) {
+        String type = RelatedEntity.requireSupportedType(relatedType);
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        CursorPage<ContributionDTO> page = CursorPage.of(
+                contributionRepository.findPageByRelatedTo(type, relatedId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ContributionService::byDate);
+        return RelatedEntityReportDTO.of(type, relatedId, page,
+                contributionRepository.sumByTypeForRelatedTo(type, relatedId, LedgerBalanceService.STATUS_CANCELLED));
+    }
+
+    private static PageCursor byDate(ContributionDTO contribution) {
+        return new PageCursor(contribution.getDate(), contribution.getId());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package com.hackaton.backend.service;
+
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Application d'un PATCH (JSON merge patch : seules les clés présentes changent, null efface) sur une
+ * entité chargée. Avec {@code @DynamicUpdate}, le flush n'émet qu'un
+ * {@code UPDATE ... SET <colonnes modifiées>, version = ? WHERE id = ? AND version = ?}.
+ */
+final class EntityPatch {
+
+    private EntityPatch() {
+    }
+
+    /**
+     * Refuse d'emblée une modification préparée sur une autre version que celle en base ; sans version
+     * attendue, la mise à jour reste protégée contre une écriture concurrente par la clause sur la version.
+     */
+    static void requireVersion(Class<?> type, Long id, Long current, Long expected) {
+        if (expected != null && !expected.equals(current)) {
+            throw new ObjectOptimisticLockingFailureException(type, id);
+        }
+    }
+
+    static <T> T apply(ObjectMapper objectMapper, T entity, Map<String, Object> changes,
+                       Set<String> patchable, Set<String> nullable) {
+        for (Map.Entry<String, Object> change : changes.entrySet()) {
+            String field = change.getKey();
+            if (!patchable.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ non modifiable : " + field);
+            }
+            if (change.getValue() == null && !nullable.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Champ obligatoire : " + field);
+            }
+        }
+        try {
+            // Conversion par la configuration Jackson de l'application (dates ISO, nombres décimaux)
+            return objectMapper.updateValue(entity, changes);
+        } catch (JsonMappingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Valeur invalide : " + e.getOriginalMessage());
+        }
+    }
+}
@@ -1,33 +1,130 @@
 package com.hackaton.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.FieldSelection;
+import com.hackaton.backend.dto.EventDTO;
+import com.hackaton.backend.dto.EventRegistrationDTO;
+import com.hackaton.backend.dto.EventSeatsDTO;
+import com.hackaton.backend.dto.PageCursor;
 import com.hackaton.backend.model.Event;
+import com.hackaton.backend.repository.EventRegistrationRepository;
 import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.FieldSelectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 
 @Service
 public class EventService {
+    // Champs modifiables par PATCH ; le propriétaire ne change pas
+    public static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "startDate", "endDate",
+            "location", "status", "capacity");
+    public static final Set<String> NULLABLE_FIELDS = Set.of("description", "capacity");
+
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private FieldSelectionRepository fieldSelectionRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private EventRegistrationRepository eventRegistrationRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Event createEvent(Event event) {
-        return eventRepository.save(event);
+        Event saved = eventRepository.save(event);
+        AfterCommit.run(() -> {
+            searchService.index(saved);
+            calendarService.index(saved);
+        });
+        publishChange(ChangeEvent.ACTION_CREATE, saved);
+        return saved;
     }
 
+    @Transactional
     public Event updateEvent(Event event) {
-        if (!eventRepository.existsById(event.getId())) {
-            throw new RuntimeException("Event not found with id: " + event.getId());
+        // Lecture servie par le cache de second niveau ; le merge retrouve ensuite l'entité sans requête
+        Event existing = getEventById(event.getId());
+        if (event.getVersion() == null) {
+            // Sans version fournie par le client, la mise à jour reste « dernière écriture gagnante »
+            event.setVersion(existing.getVersion());
         }
-        return eventRepository.save(event);
+        return afterUpdate(eventRepository.saveAndFlush(event));
+    }
+
+    /**
+     * Modifie les seuls champs présents dans {@code changes} : un unique UPDATE des colonnes modifiées,
+     * conditionné par la version.
+     */
+    @Transactional
+    public Event patchEvent(Long id, Long expectedVersion, Map<String, Object> changes) {
+        Event existing = getEventById(id);
+        EntityPatch.requireVersion(Event.class, id, existing.getVersion(), expectedVersion);
+        return afterUpdate(eventRepository.saveAndFlush(
+                EntityPatch.apply(objectMapper, existing, changes, PATCHABLE_FIELDS, NULLABLE_FIELDS)));
     }
 
+    private Event afterUpdate(Event saved) {
+        // Après validation : un rechargement des places déclenché plus tôt relirait l'ancienne capacité
+        AfterCommit.run(() -> {
+            searchService.index(saved);
+            calendarService.index(saved);
+            registrationService.evict(saved.getId());
+        });
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
+    }
+
+    @Transactional
     public void deleteEvent(Long id) {
-        if (!eventRepository.existsById(id)) {
-            throw new RuntimeException("Event not found with id: " + id);
-        }
-        eventRepository.deleteById(id);
+        // Chargée (cache de second niveau) plutôt que existsById : le propriétaire est nécessaire à la notification
+        Event existing = getEventById(id);
+        eventRegistrationRepository.deleteByEventId(id);
+        eventRepository.delete(existing);
+        AfterCommit.run(() -> {
+            searchService.remove(SearchService.TYPE_EVENT, id);
+            calendarService.removeEvent(id);
+            registrationService.evict(id);
+        });
+        publishChange(ChangeEvent.ACTION_DELETE, existing);
+    }
+
+    public CompletableFuture<EventRegistrationDTO> registerUserForEvent(Long eventId, Long userId) {
+        return registrationService.register(eventId, userId);
+    }
+
+    public CompletableFuture<Void> unregisterUserFromEvent(Long eventId, Long userId) {
+        return registrationService.unregister(eventId, userId);
+    }
+
+    public EventSeatsDTO getEventSeats(Long eventId) {
+        return registrationService.getSeats(eventId);
+    }
+
+    private void publishChange(String action, Event event) {
+        Long ownerId = event.getUser() != null ? event.getUser().getId() : null;
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_EVENT, action, event.getId(), ownerId));
     }
 
     public Event getEventById(Long id) {
@@ -54,4 +151,110 @@ public class EventService {
     public List<Event> getEventsByUserAndStatus(Long userId, String status) {
         return eventRepository.findByUserIdAndStatus(userId, status);
     }
-}
\ No newline at end of file
+
+    public CursorPage<EventDTO> getEventsPage(String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(eventRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byCreatedAt);
+    }
+
+    /**
+     * Comme {@link #getEventsPage(String, int)}, réduit aux champs demandés (plus id et createdAt pour le curseur).
+     */
+    public CursorPage<Map<String, Object>> getEventsFieldsPage(String fields, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        FieldSelection selection = FieldSelection.parse(fields, EventRepository.LIST_FIELDS, "id", "createdAt");
+        return CursorPage.of(fieldSelectionRepository.findPage(selection, "Event e", EventRepository.AFTER_CREATED_AT,
+                        Map.of("key", cursor.key(), "id", cursor.id()), PageCursor.limit(limit)),
+                EventService::byCreatedAtField);
+    }
+
+    public CursorPage<EventDTO> getEventsByUserPage(Long userId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(eventRepository.findPageByUserId(userId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byCreatedAt);
+    }
+
+    /**
+     * Événements en cours à un moment quelconque de [start, end], servis par le calendrier en mémoire.
+     * Tant qu'il n'est pas chargé, repli en base sur les seuls événements qui commencent dans la période.
+     */
+    public CursorPage<EventDTO> getEventsByDateRangePage(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        if (calendarService.isReady()) {
+            return calendarService.getEventsOverlapping(start, end, after, limit);
+        }
+        PageCursor cursor = PageCursor.ascendingFrom(after);
+        return CursorPage.of(eventRepository.findPageByStartDateBetween(start, end, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byStartDate);
+    }
+
+    public CursorPage<EventDTO> getEventsByStatusPage(String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(eventRepository.findPageByStatus(status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byCreatedAt);
+    }
+
+    public CursorPage<EventDTO> getEventsByUserAndStatusPage(Long userId, String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(eventRepository.findPageByUserIdAndStatus(userId, status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byCreatedAt);
+    }
+
+    public CursorPage<EventDTO> getUpcomingEventsPage(String after, int limit) {
+        if (calendarService.isReady()) {
+            return calendarService.getUpcomingEvents(LocalDateTime.now(), after, limit);
+        }
+        PageCursor cursor = PageCursor.ascendingFrom(after);
+        return CursorPage.of(eventRepository.findUpcomingPage(LocalDateTime.now(), cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                EventService::byStartDate);
+    }
+
+    public List<EventDTO> getLocationConflicts(String location, LocalDateTime start, LocalDateTime end, Long excludeId) {
+        return calendarService.getLocationConflicts(location, start, end, excludeId);
+    }
+
+    // "événement.propriétaire" : le propriétaire est inclus dans la réponse
+    public String getEventETag(Long id) {
+        return eventRepository.findVersionsById(id).map(versions -> "\"" + versions + "\"").orElse(null);
+    }
+
+    public String getEventETag(Event event) {
+        return "\"" + event.getVersion() + "." + event.getUser().getVersion() + "\"";
+    }
+
+    public String getEventsPageETag(String fields, String after, int limit) {
+        return eventRepository.stamp().etag("events", fields, after, limit);
+    }
+
+    public String getEventsByUserPageETag(Long userId, String after, int limit) {
+        return eventRepository.stampByUserId(userId).etag("events/user", userId, after, limit);
+    }
+
+    public String getEventsByDateRangePageETag(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        if (calendarService.isReady()) {
+            return calendarService.etag("events/date-range", start, end, after, limit);
+        }
+        return eventRepository.stampByStartDateBetween(start, end).etag("events/date-range", start, end, after, limit);
+    }
+
+    public String getUpcomingEventsPageETag(String after, int limit) {
+        if (calendarService.isReady()) {
+            // « À venir » dépend aussi de l'heure : la page change quand son premier événement commence
+            List<EventDTO> first = calendarService.getUpcomingEvents(LocalDateTime.now(), after, 1).getItems();
+            return calendarService.etag("events/upcoming", first.isEmpty() ? null : first.get(0).getId(), after, limit);
+        }
+        return eventRepository.stampUpcoming(LocalDateTime.now()).etag("events/upcoming", after, limit);
+    }
+
+    private static PageCursor byCreatedAt(EventDTO event) {
+        return new PageCursor(event.getCreatedAt(), event.getId());
+    }
+
+    private static PageCursor byStartDate(EventDTO event) {
+        return new PageCursor(event.getStartDate(), event.getId());
+    }
+
+    private static PageCursor byCreatedAtField(Map<String, Object> event) {
+        return new PageCursor((LocalDateTime) event.get("createdAt"), (Long) event.get("id"));
+    }
+}
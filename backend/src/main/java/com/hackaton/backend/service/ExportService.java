@@ -0,0 +1,209 @@
+package com.hackaton.backend.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.ContributionDTO;
+import com.hackaton.backend.dto.TransactionDTO;
+import com.hackaton.backend.repository.ContributionRepository;
+import com.hackaton.backend.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Export du grand livre en flux : les lignes sont lues par un curseur en avant seulement
+ * et écrites au fur et à mesure, sans jamais charger la liste complète en mémoire.
+ */
+@Service
+public class ExportService {
+    private static final LocalDateTime MIN_DATE = LocalDateTime.of(1000, 1, 1, 0, 0);
+    private static final LocalDateTime MAX_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+    private static final int FLUSH_EVERY = 500;
+
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Format parse(String value) {
+            try {
+                return Format.valueOf(value.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Format d'export non supporté : " + value);
+            }
+        }
+    }
+
+    private static final Map<String, Function<TransactionDTO, Object>> TRANSACTION_COLUMNS = new LinkedHashMap<>();
+    private static final Map<String, Function<ContributionDTO, Object>> CONTRIBUTION_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        TRANSACTION_COLUMNS.put("id", TransactionDTO::getId);
+        TRANSACTION_COLUMNS.put("date", TransactionDTO::getDate);
+        TRANSACTION_COLUMNS.put("type", TransactionDTO::getType);
+        TRANSACTION_COLUMNS.put("amount", TransactionDTO::getAmount);
+        TRANSACTION_COLUMNS.put("category", TransactionDTO::getCategory);
+        TRANSACTION_COLUMNS.put("status", TransactionDTO::getStatus);
+        TRANSACTION_COLUMNS.put("description", TransactionDTO::getDescription);
+        TRANSACTION_COLUMNS.put("userId", TransactionDTO::getUserId);
+
+        CONTRIBUTION_COLUMNS.put("id", ContributionDTO::getId);
+        CONTRIBUTION_COLUMNS.put("date", ContributionDTO::getDate);
+        CONTRIBUTION_COLUMNS.put("type", ContributionDTO::getType);
+        CONTRIBUTION_COLUMNS.put("amount", ContributionDTO::getAmount);
+        CONTRIBUTION_COLUMNS.put("status", ContributionDTO::getStatus);
+        CONTRIBUTION_COLUMNS.put("description", ContributionDTO::getDescription);
+        CONTRIBUTION_COLUMNS.put("userId", ContributionDTO::getUserId);
+    }
+
+    @FunctionalInterface
+    public interface Exporter {
+        void export(OutputStream out) throws IOException;
+    }
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Le flux JPA n'est valide que dans la transaction : l'écriture doit se faire ici
+    @Transactional(readOnly = true)
+    public void exportTransactions(LocalDateTime start, LocalDateTime end, Format format, OutputStream out) throws IOException {
+        try (Stream<TransactionDTO> rows = transactionRepository.streamByDateBetween(orMin(start), orMax(end))) {
+            write(rows, TRANSACTION_COLUMNS, format, out);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void exportContributions(LocalDateTime start, LocalDateTime end, Format format, OutputStream out) throws IOException {
+        try (Stream<ContributionDTO> rows = contributionRepository.streamByDateBetween(orMin(start), orMax(end))) {
+            write(rows, CONTRIBUTION_COLUMNS, format, out);
+        }
+    }
+
+    /**
+     * Réponse HTTP en flux pour un export, éventuellement compressée en gzip.
+     */
+    public static ResponseEntity<StreamingResponseBody> toResponse(String name, Format format, boolean gzip, Exporter exporter) {
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                // syncFlush : chaque flush de l'export pousse réellement des octets vers le client
+                GZIPOutputStream compressed = new GZIPOutputStream(out, 8192, true);
+                exporter.export(compressed);
+                compressed.finish();
+            } else {
+                exporter.export(out);
+            }
+        };
+        String fileName = name + "." + format.getExtension() + (gzip ? ".gz" : "");
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(gzip ? "application/gzip" : format.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"")
+                .body(body);
+    }
+
+    private <T> void write(Stream<T> rows, Map<String, Function<T, Object>> columns, Format format, OutputStream out) throws IOException {
+        if (format == Format.NDJSON) {
+            writeNdjson(rows, out);
+        } else {
+            writeCsv(rows, columns, out);
+        }
+    }
+
+    private <T> void writeNdjson(Stream<T> rows, OutputStream out) throws IOException {
+        OutputStream buffered = new BufferedOutputStream(out);
+        Iterator<T> iterator = rows.iterator();
+        for (int count = 1; iterator.hasNext(); count++) {
+            buffered.write(objectMapper.writeValueAsBytes(iterator.next()));
+            buffered.write('\n');
+            if (count % FLUSH_EVERY == 0) {
+                buffered.flush();
+            }
+        }
+        buffered.flush();
+    }
+
+    private <T> void writeCsv(Stream<T> rows, Map<String, Function<T, Object>> columns, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(String.join(",", columns.keySet()));
+        writer.write("\r\n");
+        // L'en-tête part immédiatement, avant même la première ligne de résultat
+        writer.flush();
+
+        Iterator<T> iterator = rows.iterator();
+        for (int count = 1; iterator.hasNext(); count++) {
+            T row = iterator.next();
+            boolean first = true;
+            for (Function<T, Object> column : columns.values()) {
+                if (!first) {
+                    writer.write(',');
+                }
+                writer.write(escapeCsv(column.apply(row)));
+                first = false;
+            }
+            writer.write("\r\n");
+            if (count % FLUSH_EVERY == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+    }
+
+    private static String escapeCsv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static LocalDateTime orMin(LocalDateTime date) {
+        return date != null ? date : MIN_DATE;
+    }
+
+    private static LocalDateTime orMax(LocalDateTime date) {
+        return date != null ? date : MAX_DATE;
+    }
+}
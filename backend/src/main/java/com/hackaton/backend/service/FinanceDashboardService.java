@@ -0,0 +1,162 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.BalanceDTO;
+import com.hackaton.backend.dto.FinanceDashboardDTO;
+import com.hackaton.backend.dto.FinancialReportDTO;
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.dto.TransactionDTO;
+import com.hackaton.backend.repository.ContributionRepository;
+import com.hackaton.backend.repository.DailyRollupRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Tableau de bord financier en un seul appel : chaque section est une requête indépendante
+ * lancée en parallèle sur un pool borné, avec son propre délai. Une section en retard ou en
+ * erreur est renvoyée à null et listée dans {@code unavailable} au lieu de faire échouer l'ensemble.
+ * Le délai s'applique aussi aux requêtes SQL de la section (délai de transaction), qui sont annulées
+ * en base plutôt que laissées en cours.
+ */
+@Service
+public class FinanceDashboardService {
+    public static final int MAX_MONTHS = 24;
+    public static final int MAX_TOP_CATEGORIES = 20;
+
+    @Autowired
+    private LedgerBalanceService ledgerBalanceService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private ContributionRepository contributionRepository;
+
+    private final ThreadPoolExecutor executor;
+    private final Duration timeout;
+    private final TransactionTemplate sectionTransaction;
+
+    public FinanceDashboardService(PlatformTransactionManager transactionManager,
+                                   @Value("${dashboard.executor.threads:8}") int threads,
+                                   @Value("${dashboard.executor.queue-capacity:64}") int queueCapacity,
+                                   @Value("${dashboard.timeout:PT2S}") Duration timeout) {
+        this.timeout = timeout;
+        this.sectionTransaction = new TransactionTemplate(transactionManager);
+        this.sectionTransaction.setReadOnly(true);
+        // Délai de transaction en secondes, arrondi au-dessus : appliqué comme délai de chaque requête
+        this.sectionTransaction.setTimeout((int) Math.max(1, (timeout.toMillis() + 999) / 1000));
+        AtomicInteger counter = new AtomicInteger();
+        // Pool saturé : la section est refusée et listée indisponible, jamais exécutée sans délai sur le thread appelant
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "dashboard-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * {@code recent} à 0 : section des dernières transactions omise (null, non listée dans {@code unavailable}).
+     */
+    public FinanceDashboardDTO getDashboard(int months, int topCategories, int recent) {
+        int monthCount = Math.max(1, Math.min(months, MAX_MONTHS));
+        int categoryCount = Math.max(1, Math.min(topCategories, MAX_TOP_CATEGORIES));
+        LocalDate end = LocalDate.now();
+        LocalDate start = end.withDayOfMonth(1).minusMonths(monthCount - 1L);
+
+        List<String> unavailable = Collections.synchronizedList(new ArrayList<>());
+
+        CompletableFuture<BalanceDTO> balance = section("balance", unavailable,
+                ledgerBalanceService::getBalance);
+        CompletableFuture<List<FinancialReportDTO>> monthly = section("months", unavailable,
+                () -> reportService.getPeriodReports(start, end, ChronoUnit.MONTHS));
+        CompletableFuture<List<RollupTotalDTO>> categories = section("topCategories", unavailable,
+                () -> topCategories(start, end, categoryCount));
+        CompletableFuture<List<RollupTotalDTO>> contributions = section("contributionsByRelatedType", unavailable,
+                () -> contributionRepository.sumByRelatedType(LedgerBalanceService.STATUS_CANCELLED));
+        CompletableFuture<Map<String, Long>> pending = section("pendingCounts", unavailable,
+                this::pendingCounts);
+        CompletableFuture<List<TransactionDTO>> transactions = recent <= 0
+                ? CompletableFuture.completedFuture(null)
+                : section("recentTransactions", unavailable, () -> transactionService.getTransactionsPage(null, recent).getItems());
+
+        CompletableFuture.allOf(balance, monthly, categories, contributions, pending, transactions).join();
+
+        FinanceDashboardDTO dashboard = new FinanceDashboardDTO();
+        dashboard.setBalance(balance.join());
+        dashboard.setMonths(monthly.join());
+        dashboard.setTopCategories(categories.join());
+        dashboard.setContributionsByRelatedType(contributions.join());
+        dashboard.setPendingCounts(pending.join());
+        dashboard.setRecentTransactions(transactions.join());
+        dashboard.setUnavailable(unavailable);
+        return dashboard;
+    }
+
+    private <T> CompletableFuture<T> section(String name, List<String> unavailable, Supplier<T> query) {
+        CompletableFuture<T> result;
+        try {
+            result = CompletableFuture.supplyAsync(() -> sectionTransaction.execute(status -> query.get()), executor);
+        } catch (RejectedExecutionException e) {
+            unavailable.add(name);
+            return CompletableFuture.completedFuture(null);
+        }
+        return result
+                .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .exceptionally(e -> {
+                    unavailable.add(name);
+                    return null;
+                });
+    }
+
+    private List<RollupTotalDTO> topCategories(LocalDate start, LocalDate end, int limit) {
+        return dailyRollupRepository.sumByTypeAndCategory(
+                        ReportService.SOURCE_TRANSACTION, start, end, LedgerBalanceService.STATUS_CANCELLED)
+                .stream()
+                .sorted(Comparator.comparing(RollupTotalDTO::getAmount).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    private Map<String, Long> pendingCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put(ReportService.SOURCE_TRANSACTION, 0L);
+        counts.put(ReportService.SOURCE_CONTRIBUTION, 0L);
+        for (RollupTotalDTO total : dailyRollupRepository.sumBySourceForStatus(TransactionService.STATUS_PENDING)) {
+            counts.put(total.getType(), total.getCount());
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
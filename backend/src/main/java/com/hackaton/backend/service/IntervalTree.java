@@ -0,0 +1,148 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.PageCursor;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Arbre d'intervalles [début, fin] trié par (début, id) : un treap dont chaque nœud garde la plus grande
+ * fin de son sous-arbre, ce qui permet d'écarter d'un coup les branches qui se terminent avant la période
+ * cherchée. Chevauchement et parcours à partir d'une date en O(log n + k). Non thread-safe.
+ */
+final class IntervalTree<T> {
+    static final Comparator<PageCursor> BY_START = Comparator.comparing(PageCursor::key).thenComparing(PageCursor::id);
+
+    private Node<T> root;
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    void insert(PageCursor key, LocalDateTime end, T value) {
+        Node<T> node = new Node<>(key, end, value);
+        Node<T>[] parts = split(root, key);
+        root = merge(merge(parts[0], node), parts[1]);
+        size++;
+    }
+
+    boolean remove(PageCursor key) {
+        int before = size;
+        root = remove(root, key);
+        return size < before;
+    }
+
+    /**
+     * Ajoute à {@code out}, par début croissant, les intervalles qui chevauchent [from, to] (bornes incluses)
+     * et dont la clé suit {@code after} (null : depuis le début), jusqu'à {@code max} éléments.
+     */
+    void overlapping(LocalDateTime from, LocalDateTime to, PageCursor after, int max, List<T> out) {
+        if (max > 0) {
+            collect(root, from, to, after, max, out);
+        }
+    }
+
+    // Renvoie false dès que le parcours peut s'arrêter (limite atteinte ou débuts au-delà de la période)
+    private boolean collect(Node<T> node, LocalDateTime from, LocalDateTime to, PageCursor after, int max, List<T> out) {
+        if (node == null || node.maxEnd.isBefore(from)) {
+            return true;
+        }
+        boolean afterCursor = after == null || BY_START.compare(node.key, after) > 0;
+        // Sous-arbre gauche : clés inférieures à celle du nœud, donc toutes avant le curseur sinon
+        if (afterCursor && !collect(node.left, from, to, after, max, out)) {
+            return false;
+        }
+        if (node.key.key().isAfter(to)) {
+            return false;
+        }
+        if (afterCursor && !node.end.isBefore(from)) {
+            out.add(node.value);
+            if (out.size() >= max) {
+                return false;
+            }
+        }
+        return collect(node.right, from, to, after, max, out);
+    }
+
+    private Node<T> remove(Node<T> node, PageCursor key) {
+        if (node == null) {
+            return null;
+        }
+        int comparison = BY_START.compare(key, node.key);
+        if (comparison == 0) {
+            size--;
+            return merge(node.left, node.right);
+        }
+        if (comparison < 0) {
+            node.left = remove(node.left, key);
+        } else {
+            node.right = remove(node.right, key);
+        }
+        return node.update();
+    }
+
+    // [clés < key, clés >= key]
+    @SuppressWarnings("unchecked")
+    private static <T> Node<T>[] split(Node<T> node, PageCursor key) {
+        if (node == null) {
+            return (Node<T>[]) new Node<?>[]{null, null};
+        }
+        if (BY_START.compare(node.key, key) < 0) {
+            Node<T>[] parts = split(node.right, key);
+            node.right = parts[0];
+            parts[0] = node.update();
+            return parts;
+        }
+        Node<T>[] parts = split(node.left, key);
+        node.left = parts[1];
+        parts[1] = node.update();
+        return parts;
+    }
+
+    // Toutes les clés de left précèdent celles de right
+    private static <T> Node<T> merge(Node<T> left, Node<T> right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return left.update();
+        }
+        right.left = merge(left, right.left);
+        return right.update();
+    }
+
+    private static final class Node<T> {
+        private final PageCursor key;
+        private final LocalDateTime end;
+        private final T value;
+        private final int priority = ThreadLocalRandom.current().nextInt();
+        private LocalDateTime maxEnd;
+        private Node<T> left;
+        private Node<T> right;
+
+        Node(PageCursor key, LocalDateTime end, T value) {
+            this.key = key;
+            this.end = end;
+            this.value = value;
+            this.maxEnd = end;
+        }
+
+        Node<T> update() {
+            maxEnd = end;
+            if (left != null && left.maxEnd.isAfter(maxEnd)) {
+                maxEnd = left.maxEnd;
+            }
+            if (right != null && right.maxEnd.isAfter(maxEnd)) {
+                maxEnd = right.maxEnd;
+            }
+            return this;
+        }
+    }
+}
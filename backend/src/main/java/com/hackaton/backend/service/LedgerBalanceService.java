@@ -0,0 +1,171 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.BalanceDTO;
+import com.hackaton.backend.model.LedgerBalance;
+import com.hackaton.backend.model.Transaction;
+import com.hackaton.backend.repository.LedgerBalanceRepository;
+import com.hackaton.backend.repository.TransactionRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Solde courant de l'organisation, maintenu de façon incrémentale à chaque écriture
+ * sur les transactions. Les transactions annulées ne comptent pas dans le solde.
+ */
+@Service
+public class LedgerBalanceService {
+    public static final String ORGANIZATION_LEDGER = "organization";
+
+    public static final String TYPE_DEPOSIT = "deposit";
+    public static final String TYPE_WITHDRAWAL = "withdrawal";
+    public static final String STATUS_CANCELLED = "cancelled";
+
+    @Autowired
+    private LedgerBalanceRepository ledgerBalanceRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    /**
+     * Valeurs d'une transaction qui influencent le solde, capturées avant modification.
+     */
+    public record LedgerEntry(String type, BigDecimal amount, String status) {
+        public static LedgerEntry of(Transaction transaction) {
+            return new LedgerEntry(transaction.getType(), transaction.getAmount(), transaction.getStatus());
+        }
+
+        boolean counts() {
+            return amount != null && !STATUS_CANCELLED.equalsIgnoreCase(status)
+                    && (TYPE_DEPOSIT.equalsIgnoreCase(type) || TYPE_WITHDRAWAL.equalsIgnoreCase(type));
+        }
+
+        BigDecimal deposits() {
+            return counts() && TYPE_DEPOSIT.equalsIgnoreCase(type) ? amount : BigDecimal.ZERO;
+        }
+
+        BigDecimal withdrawals() {
+            return counts() && TYPE_WITHDRAWAL.equalsIgnoreCase(type) ? amount : BigDecimal.ZERO;
+        }
+    }
+
+    /**
+     * Répercute le passage de {@code before} à {@code after} sur le solde ; l'un ou l'autre
+     * peut être null (création, suppression). Doit s'exécuter dans la transaction de l'écriture.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(LedgerEntry before, LedgerEntry after) {
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        long count = 0;
+        if (before != null) {
+            deposits = deposits.subtract(before.deposits());
+            withdrawals = withdrawals.subtract(before.withdrawals());
+            count -= before.counts() ? 1 : 0;
+        }
+        if (after != null) {
+            deposits = deposits.add(after.deposits());
+            withdrawals = withdrawals.add(after.withdrawals());
+            count += after.counts() ? 1 : 0;
+        }
+        apply(deposits, withdrawals, count);
+    }
+
+    /**
+     * Répercute en une seule mise à jour un lot de transactions nouvellement créées.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<LedgerEntry> created) {
+        BigDecimal deposits = BigDecimal.ZERO;
+        BigDecimal withdrawals = BigDecimal.ZERO;
+        long count = 0;
+        for (LedgerEntry entry : created) {
+            deposits = deposits.add(entry.deposits());
+            withdrawals = withdrawals.add(entry.withdrawals());
+            count += entry.counts() ? 1 : 0;
+        }
+        apply(deposits, withdrawals, count);
+    }
+
+    private void apply(BigDecimal deposits, BigDecimal withdrawals, long count) {
+        if (deposits.signum() == 0 && withdrawals.signum() == 0 && count == 0) {
+            return;
+        }
+
+        ledgerBalanceRepository.applyDelta(ORGANIZATION_LEDGER, deposits, withdrawals, count, LocalDateTime.now());
+    }
+
+    /**
+     * Crée la ligne du solde à partir des transactions existantes si elle n'existe pas encore. Appelé au
+     * démarrage, avant toute écriture : les écritures suivantes n'ont plus qu'à appliquer leur écart.
+     */
+    @Transactional
+    public void seed() {
+        LedgerBalance computed = computeFromTransactions();
+        ledgerBalanceRepository.insertIfAbsent(ORGANIZATION_LEDGER, computed.getTotalDeposits(),
+                computed.getTotalWithdrawals(), computed.getTransactionCount(), computed.getUpdatedAt());
+    }
+
+    @Transactional(readOnly = true)
+    public BalanceDTO getBalance() {
+        return ledgerBalanceRepository.findById(ORGANIZATION_LEDGER)
+                .map(this::toDTO)
+                .orElseGet(() -> toDTO(computeFromTransactions()));
+    }
+
+    /**
+     * Recalcule le solde à partir de toutes les transactions et remplace la valeur persistée.
+     * Retourne l'ancien solde, le nouveau et l'écart constaté.
+     *
+     * La ligne est verrouillée avant le calcul : une écriture validée avant le verrou est comptée dans
+     * les sommes, une écriture plus tardive attend et applique son delta au total recalculé.
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        // Ligne absente (base vide au démarrage) : créée puis verrouillée comme les autres
+        ledgerBalanceRepository.insertIfAbsent(ORGANIZATION_LEDGER, BigDecimal.ZERO, BigDecimal.ZERO, 0, LocalDateTime.now());
+        LedgerBalance target = ledgerBalanceRepository.findForUpdate(ORGANIZATION_LEDGER)
+                .orElseThrow(() -> new RuntimeException("Ledger balance not found with id: " + ORGANIZATION_LEDGER));
+        BigDecimal previous = target.getBalance();
+
+        // Première lecture cohérente de la transaction, donc postérieure au verrou
+        LedgerBalance computed = computeFromTransactions();
+        target.setTotalDeposits(computed.getTotalDeposits());
+        target.setTotalWithdrawals(computed.getTotalWithdrawals());
+        target.setBalance(computed.getBalance());
+        target.setTransactionCount(computed.getTransactionCount());
+        LedgerBalance saved = ledgerBalanceRepository.save(target);
+
+        Map<String, Object> report = new HashMap<>();
+        report.put("previousBalance", previous);
+        report.put("balance", toDTO(saved));
+        report.put("drift", saved.getBalance().subtract(previous));
+        return report;
+    }
+
+    private LedgerBalance computeFromTransactions() {
+        BigDecimal deposits = transactionRepository.sumAmountByTypeAndStatusNot(TYPE_DEPOSIT, STATUS_CANCELLED);
+        BigDecimal withdrawals = transactionRepository.sumAmountByTypeAndStatusNot(TYPE_WITHDRAWAL, STATUS_CANCELLED);
+        long count = transactionRepository.countByTypeInAndStatusNot(List.of(TYPE_DEPOSIT, TYPE_WITHDRAWAL), STATUS_CANCELLED);
+
+        LedgerBalance ledger = new LedgerBalance();
+        ledger.setLedgerKey(ORGANIZATION_LEDGER);
+        ledger.setTotalDeposits(deposits);
+        ledger.setTotalWithdrawals(withdrawals);
+        ledger.setBalance(deposits.subtract(withdrawals));
+        ledger.setTransactionCount(count);
+        ledger.setUpdatedAt(LocalDateTime.now());
+        return ledger;
+    }
+
+    private BalanceDTO toDTO(LedgerBalance ledger) {
+        return new BalanceDTO(ledger.getBalance(), ledger.getTotalDeposits(), ledger.getTotalWithdrawals(),
+                ledger.getTransactionCount(), ledger.getUpdatedAt());
+    }
+}
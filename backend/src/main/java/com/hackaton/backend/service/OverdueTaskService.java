@@ -0,0 +1,298 @@
+package com.hackaton.backend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.TaskDTO;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Suivi en mémoire des échéances des tâches non terminées, triées par (dueDate, id).
+ * La liste des tâches en retard à une date est une simple tête de cette liste : aucune requête
+ * en base, coût proportionnel au nombre de résultats. Un minuteur réglé sur la prochaine échéance
+ * publie un {@link TaskOverdueEvent} au moment exact où chaque tâche passe en retard.
+ */
+@Service
+public class OverdueTaskService {
+    private static final Logger log = LoggerFactory.getLogger(OverdueTaskService.class);
+    private static final Comparator<PageCursor> BY_DUE_DATE =
+            Comparator.comparing(PageCursor::key).thenComparing(PageCursor::id);
+    // Durée pendant laquelle une tâche terminée ou supprimée refuse les rappels plus anciens : ceux de
+    // deux transactions sur la même tâche s'exécutent à quelques millisecondes d'écart
+    private static final Duration UNTRACKED_TTL = Duration.ofMinutes(5);
+    private static final long DELETED = Long.MAX_VALUE;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${overdue.load.batch-size:1000}")
+    private int loadBatchSize;
+
+    private final ConcurrentSkipListMap<PageCursor, TaskDTO> open = new ConcurrentSkipListMap<>(BY_DUE_DATE);
+    // Toute décision sur une tâche passe par compute() sur sa clé : comparaison de version et mise à jour atomiques
+    private final Map<Long, Tracked> trackedById = new ConcurrentHashMap<>();
+    private final Cache<Long, Long> untrackedVersions = Caffeine.newBuilder().expireAfterWrite(UNTRACKED_TTL).build();
+    // Tâches suivies ou oubliées pendant le chargement : la ligne lue par le chargement est périmée.
+    // Sert aussi de verrou entre ces modifications et l'insertion des lignes chargées.
+    private final Set<Long> touchedWhileLoading = ConcurrentHashMap.newKeySet();
+    private final ScheduledThreadPoolExecutor timer;
+    private volatile boolean ready;
+
+    // Toutes les échéances jusqu'à ce curseur inclus ont déjà été signalées
+    private PageCursor watermark;
+    private ScheduledFuture<?> nextFire;
+
+    public OverdueTaskService() {
+        this.timer = new ScheduledThreadPoolExecutor(1, runnable -> {
+            Thread thread = new Thread(runnable, "overdue-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Charge les tâches ouvertes. Celles déjà en retard au démarrage ne sont pas re-signalées.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            watermark = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE);
+        }
+        long afterId = 0L;
+        List<TaskDTO> batch;
+        do {
+            batch = taskRepository.findOpenTasks(TaskService.CLOSED_STATUSES, afterId, PageRequest.of(0, loadBatchSize));
+            synchronized (touchedWhileLoading) {
+                for (TaskDTO task : batch) {
+                    // Une tâche modifiée, terminée ou supprimée pendant le chargement est déjà dans son dernier état
+                    if (!touchedWhileLoading.contains(task.getId())) {
+                        put(task, versionOf(task.getVersion()));
+                    }
+                    afterId = task.getId();
+                }
+            }
+        } while (batch.size() == loadBatchSize);
+        synchronized (touchedWhileLoading) {
+            ready = true;
+            touchedWhileLoading.clear();
+        }
+        reschedule();
+        log.info("Tracking {} open task due dates", open.size());
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Tâches ouvertes dont l'échéance est antérieure à {@code date}, par échéance croissante.
+     */
+    public CursorPage<TaskDTO> getOverdue(LocalDateTime date, String after, int limit) {
+        int size = PageCursor.limit(limit).getPageSize();
+        PageCursor from = PageCursor.ascendingFrom(after);
+        PageCursor to = new PageCursor(date, Long.MIN_VALUE);
+        // Curseur au-delà de la date (date changée entre deux pages) : subMap refuserait l'intervalle
+        if (BY_DUE_DATE.compare(from, to) >= 0) {
+            return new CursorPage<>(List.of(), null, size);
+        }
+        Map<PageCursor, TaskDTO> range = open.subMap(from, false, to, false);
+
+        List<TaskDTO> items = new ArrayList<>(size);
+        PageCursor last = null;
+        boolean hasNext = false;
+        for (Map.Entry<PageCursor, TaskDTO> entry : range.entrySet()) {
+            if (items.size() == size) {
+                hasNext = true;
+                break;
+            }
+            items.add(entry.getValue());
+            last = entry.getKey();
+        }
+        return new CursorPage<>(items, hasNext ? last.encode() : null, size);
+    }
+
+    /**
+     * À appeler après chaque enregistrement d'une tâche : suit ou oublie son échéance selon son statut.
+     * Les rappels après validation de deux transactions peuvent s'exécuter dans le désordre : un état
+     * plus ancien que le dernier appliqué (version inférieure) est ignoré.
+     */
+    public void track(Task task) {
+        long version = versionOf(task.getVersion());
+        if (task.getStatus() == null || TaskService.CLOSED_STATUSES.contains(task.getStatus()) || task.getDueDate() == null) {
+            untrack(task.getId(), version);
+            return;
+        }
+        TaskDTO dto = new TaskDTO(task.getId(), task.getTitle(), task.getDescription(), task.getDueDate(),
+                task.getPriority(), task.getStatus(),
+                task.getProject() != null ? task.getProject().getId() : null,
+                task.getAssignedTo() != null ? task.getAssignedTo().getId() : null,
+                task.getCreatedAt(), task.getUpdatedAt(), version);
+
+        Applied applied = whileLoading(task.getId(), () -> put(dto, version));
+        if (applied == null) {
+            return;
+        }
+        PageCursor previous = applied.previous();
+        PageCursor current = new PageCursor(dto.getDueDate(), dto.getId());
+        boolean overdueNow;
+        synchronized (this) {
+            overdueNow = watermark != null && BY_DUE_DATE.compare(current, watermark) <= 0
+                    && (previous == null || BY_DUE_DATE.compare(previous, watermark) > 0);
+        }
+        // Créée ou reportée à une date déjà passée : en retard immédiatement
+        if (overdueNow) {
+            eventPublisher.publishEvent(new TaskOverdueEvent(dto));
+        }
+        reschedule();
+    }
+
+    /**
+     * À appeler après la suppression d'une tâche : aucun rappel en retard ne la fera revenir.
+     */
+    public void untrack(Long taskId) {
+        untrack(taskId, DELETED);
+    }
+
+    private void untrack(Long taskId, long version) {
+        PageCursor cursor = whileLoading(taskId, () -> remove(taskId, version));
+        if (cursor != null) {
+            reschedule();
+        }
+    }
+
+    // Pendant le chargement, marque la tâche et l'empêche de s'entrelacer avec l'insertion d'un lot chargé
+    private <T> T whileLoading(Long taskId, Supplier<T> change) {
+        if (ready) {
+            return change.get();
+        }
+        synchronized (touchedWhileLoading) {
+            if (!ready) {
+                touchedWhileLoading.add(taskId);
+            }
+            return change.get();
+        }
+    }
+
+    // Renvoie le curseur remplacé (null si la tâche n'était pas suivie), ou null si la version est plus ancienne
+    private Applied put(TaskDTO task, long version) {
+        Applied[] applied = new Applied[1];
+        trackedById.compute(task.getId(), (id, current) -> {
+            if (isOlder(id, current, version)) {
+                return current;
+            }
+            PageCursor cursor = new PageCursor(task.getDueDate(), id);
+            if (current != null) {
+                open.remove(current.cursor());
+            }
+            open.put(cursor, task);
+            untrackedVersions.invalidate(id);
+            applied[0] = new Applied(current != null ? current.cursor() : null);
+            return new Tracked(cursor, version);
+        });
+        return applied[0];
+    }
+
+    // Renvoie le curseur retiré, null si la tâche n'était pas suivie ou si la version est plus ancienne
+    private PageCursor remove(Long taskId, long version) {
+        PageCursor[] removed = new PageCursor[1];
+        trackedById.compute(taskId, (id, current) -> {
+            if (isOlder(id, current, version)) {
+                return current;
+            }
+            untrackedVersions.put(id, version);
+            if (current != null) {
+                open.remove(current.cursor());
+                removed[0] = current.cursor();
+            }
+            return null;
+        });
+        return removed[0];
+    }
+
+    private boolean isOlder(Long taskId, Tracked current, long version) {
+        if (current != null && current.version() > version) {
+            return true;
+        }
+        Long untracked = untrackedVersions.getIfPresent(taskId);
+        return untracked != null && untracked > version;
+    }
+
+    private static long versionOf(Long version) {
+        return version != null ? version : 0L;
+    }
+
+    private void fire() {
+        List<TaskDTO> due;
+        synchronized (this) {
+            PageCursor now = new PageCursor(LocalDateTime.now(), Long.MAX_VALUE);
+            due = new ArrayList<>(open.subMap(watermark, false, now, true).values());
+            watermark = now;
+        }
+        for (TaskDTO task : due) {
+            try {
+                eventPublisher.publishEvent(new TaskOverdueEvent(task));
+            } catch (RuntimeException e) {
+                log.warn("Overdue listener failed for task {}", task.getId(), e);
+            }
+        }
+        reschedule();
+    }
+
+    // Règle le minuteur sur la première échéance pas encore signalée
+    private synchronized void reschedule() {
+        if (!ready) {
+            return;
+        }
+        PageCursor next = open.higherKey(watermark);
+        if (nextFire != null) {
+            nextFire.cancel(false);
+            nextFire = null;
+        }
+        if (next != null) {
+            long delay = Math.max(0L, Duration.between(LocalDateTime.now(), next.key()).toMillis());
+            nextFire = timer.schedule(this::fire, delay, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+
+    // Échéance suivie et version de la ligne qui l'a fixée
+    private record Tracked(PageCursor cursor, long version) {
+    }
+
+    private record Applied(PageCursor previous) {
+    }
+}
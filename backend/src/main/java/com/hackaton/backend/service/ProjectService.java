@@ -1,33 +1,103 @@
 package com.hackaton.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.FieldSelection;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.ProjectDTO;
 import com.hackaton.backend.model.Project;
 import com.hackaton.backend.repository.ProjectRepository;
+import com.hackaton.backend.repository.FieldSelectionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class ProjectService {
+    // Champs modifiables par PATCH ; le propriétaire ne change pas
+    public static final Set<String> PATCHABLE_FIELDS = Set.of("name", "description", "startDate", "endDate",
+            "status", "budget");
+    public static final Set<String> NULLABLE_FIELDS = Set.of("description", "endDate");
+
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private FieldSelectionRepository fieldSelectionRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private CalendarService calendarService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     public Project createProject(Project project) {
-        return projectRepository.save(project);
+        Project saved = projectRepository.save(project);
+        AfterCommit.run(() -> {
+            searchService.index(saved);
+            calendarService.index(saved);
+        });
+        publishChange(ChangeEvent.ACTION_CREATE, saved);
+        return saved;
     }
 
+    @Transactional
     public Project updateProject(Project project) {
-        if (!projectRepository.existsById(project.getId())) {
-            throw new RuntimeException("Project not found with id: " + project.getId());
+        // Lecture servie par le cache de second niveau ; le merge retrouve ensuite l'entité sans requête
+        Project existing = getProjectById(project.getId());
+        if (project.getVersion() == null) {
+            // Sans version fournie par le client, la mise à jour reste « dernière écriture gagnante »
+            project.setVersion(existing.getVersion());
         }
-        return projectRepository.save(project);
+        return afterUpdate(projectRepository.saveAndFlush(project));
+    }
+
+    /**
+     * Modifie les seuls champs présents dans {@code changes} : un unique UPDATE des colonnes modifiées,
+     * conditionné par la version.
+     */
+    @Transactional
+    public Project patchProject(Long id, Long expectedVersion, Map<String, Object> changes) {
+        Project existing = getProjectById(id);
+        EntityPatch.requireVersion(Project.class, id, existing.getVersion(), expectedVersion);
+        return afterUpdate(projectRepository.saveAndFlush(
+                EntityPatch.apply(objectMapper, existing, changes, PATCHABLE_FIELDS, NULLABLE_FIELDS)));
+    }
+
+    private Project afterUpdate(Project saved) {
+        AfterCommit.run(() -> {
+            searchService.index(saved);
+            calendarService.index(saved);
+        });
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
     }
 
     public void deleteProject(Long id) {
-        if (!projectRepository.existsById(id)) {
-            throw new RuntimeException("Project not found with id: " + id);
-        }
-        projectRepository.deleteById(id);
+        // Lu depuis le cache de second niveau : le propriétaire est nécessaire à la notification
+        Project existing = getProjectById(id);
+        projectRepository.delete(existing);
+        AfterCommit.run(() -> {
+            searchService.remove(SearchService.TYPE_PROJECT, id);
+            calendarService.removeProject(id);
+        });
+        publishChange(ChangeEvent.ACTION_DELETE, existing);
+    }
+
+    private void publishChange(String action, Project project) {
+        Long ownerId = project.getUser() != null ? project.getUser().getId() : null;
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_PROJECT, action, project.getId(), ownerId));
     }
 
     public Project getProjectById(Long id) {
@@ -58,4 +128,101 @@ public class ProjectService {
     public List<Project> getProjectsByUserAndStatus(Long userId, String status) {
         return projectRepository.findByUserIdAndStatus(userId, status);
     }
-}
\ No newline at end of file
+
+    public CursorPage<ProjectDTO> getProjectsPage(String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(projectRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byCreatedAt);
+    }
+
+    /**
+     * Comme {@link #getProjectsPage(String, int)}, réduit aux champs demandés (plus id et createdAt pour le curseur).
+     */
+    public CursorPage<Map<String, Object>> getProjectsFieldsPage(String fields, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        FieldSelection selection = FieldSelection.parse(fields, ProjectRepository.LIST_FIELDS, "id", "createdAt");
+        return CursorPage.of(fieldSelectionRepository.findPage(selection, "Project p", ProjectRepository.AFTER_CREATED_AT,
+                        Map.of("key", cursor.key(), "id", cursor.id()), PageCursor.limit(limit)),
+                ProjectService::byCreatedAtField);
+    }
+
+    public CursorPage<ProjectDTO> getProjectsByUserPage(Long userId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(projectRepository.findPageByUserId(userId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byCreatedAt);
+    }
+
+    public CursorPage<ProjectDTO> getProjectsByStatusPage(String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(projectRepository.findPageByStatus(status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byCreatedAt);
+    }
+
+    public CursorPage<ProjectDTO> getProjectsByDateRangePage(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        PageCursor cursor = PageCursor.ascendingFrom(after);
+        return CursorPage.of(projectRepository.findPageByStartDateBetween(start, end, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byStartDate);
+    }
+
+    public CursorPage<ProjectDTO> getProjectsByBudgetPage(Double budget, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(projectRepository.findPageByBudgetGreaterThan(budget, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byCreatedAt);
+    }
+
+    public CursorPage<ProjectDTO> getProjectsByUserAndStatusPage(Long userId, String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(projectRepository.findPageByUserIdAndStatus(userId, status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                ProjectService::byCreatedAt);
+    }
+
+    /**
+     * Projets en cours à un moment quelconque de [start, end] (sans date de fin : toujours en cours).
+     */
+    public CursorPage<ProjectDTO> getProjectsOverlappingPage(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        if (calendarService.isReady()) {
+            return calendarService.getProjectsOverlapping(start, end, after, limit);
+        }
+        return getProjectsByDateRangePage(start, end, after, limit);
+    }
+
+    public String getProjectsOverlappingPageETag(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        if (calendarService.isReady()) {
+            return calendarService.etag("projects/date-range", start, end, after, limit);
+        }
+        return projectRepository.stamp().etag("projects/date-range", start, end, after, limit);
+    }
+
+    // "projet.propriétaire" : le propriétaire est inclus dans la réponse
+    public String getProjectETag(Long id) {
+        return projectRepository.findVersionsById(id).map(versions -> "\"" + versions + "\"").orElse(null);
+    }
+
+    public String getProjectETag(Project project) {
+        return "\"" + project.getVersion() + "." + project.getUser().getVersion() + "\"";
+    }
+
+    public String getProjectsPageETag(String fields, String after, int limit) {
+        return projectRepository.stamp().etag("projects", fields, after, limit);
+    }
+
+    public String getProjectsByUserPageETag(Long userId, String after, int limit) {
+        return projectRepository.stampByUserId(userId).etag("projects/user", userId, after, limit);
+    }
+
+    public String getProjectsByStatusPageETag(String status, String after, int limit) {
+        return projectRepository.stampByStatus(status).etag("projects/status", status, after, limit);
+    }
+
+    private static PageCursor byCreatedAt(ProjectDTO project) {
+        return new PageCursor(project.getCreatedAt(), project.getId());
+    }
+
+    private static PageCursor byStartDate(ProjectDTO project) {
+        return new PageCursor(project.getStartDate(), project.getId());
+    }
+
+    private static PageCursor byCreatedAtField(Map<String, Object> project) {
+        return new PageCursor((LocalDateTime) project.get("createdAt"), (Long) project.get("id"));
+    }
+}
@@ -0,0 +1,52 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.repository.RebuildLockRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Exclusion entre les deltas appliqués par les écritures et la reconstruction d'un agrégat depuis sa
+ * table source. Les deux verrous durent jusqu'à la fin de la transaction appelante.
+ *
+ * La reconstruction verrouille avant toute lecture : une écriture validée avant le verrou est vue par
+ * le recalcul, une écriture plus tardive attend et applique son delta au résultat recalculé. Le recalcul
+ * doit lire sans verrou (lecture cohérente) : une écriture qui a déjà modifié sa ligne source attend ce
+ * verrou, un SELECT verrouillant sur cette ligne provoquerait un interblocage.
+ */
+@Service
+public class RebuildLockService {
+
+    @Autowired
+    private RebuildLockRepository rebuildLockRepository;
+
+    /**
+     * Pris par chaque écriture avant d'appliquer son delta.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockForWrite(String name) {
+        if (rebuildLockRepository.findForShare(name).isEmpty()) {
+            rebuildLockRepository.insertIfAbsent(name);
+            rebuildLockRepository.findForShare(name);
+        }
+    }
+
+    /**
+     * Vrai si l'agrégat a déjà été reconstruit ou mis à jour par une écriture : la ligne de verrou existe.
+     */
+    @Transactional(readOnly = true)
+    public boolean exists(String name) {
+        return rebuildLockRepository.existsById(name);
+    }
+
+    /**
+     * Pris par la reconstruction avant de lire la table source.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void lockForRebuild(String name) {
+        rebuildLockRepository.insertIfAbsent(name);
+        rebuildLockRepository.findForUpdate(name)
+                .orElseThrow(() -> new RuntimeException("Rebuild lock not found with id: " + name));
+    }
+}
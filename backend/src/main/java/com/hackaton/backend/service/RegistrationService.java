@@ -0,0 +1,387 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.EventRegistrationDTO;
+import com.hackaton.backend.dto.EventSeatsDTO;
+import com.hackaton.backend.repository.EventRegistrationRepository;
+import com.hackaton.backend.repository.EventRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Inscriptions aux événements avec places limitées et liste d'attente.
+ *
+ * Les places de chaque événement sont comptées en mémoire sous un verrou propre à l'événement :
+ * les inscriptions simultanées à un même événement se départagent en quelques microsecondes, sans
+ * verrou de ligne en base, et ne peuvent pas dépasser la capacité. Les écritures sont mises en file
+ * dans l'ordre des décisions puis enregistrées par lots par un unique thread ; chaque appel n'est
+ * terminé qu'une fois son lot validé.
+ */
+@Service
+public class RegistrationService {
+    public static final String STATUS_REGISTERED = "registered";
+    public static final String STATUS_WAITLISTED = "waitlisted";
+
+    private static final Logger log = LoggerFactory.getLogger(RegistrationService.class);
+    // Ordre d'exécution des écritures d'un même lot, par nature
+    private static final List<String> STATEMENTS = List.of(EventRegistrationRepository.INSERT,
+            EventRegistrationRepository.UPDATE_STATUS, EventRegistrationRepository.DELETE);
+
+    private final EventRepository eventRepository;
+    private final EventRegistrationRepository registrationRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    private final Map<Long, EventSeats> seats = new ConcurrentHashMap<>();
+    private final BlockingQueue<PendingWrite> writes;
+    private final int batchSize;
+    private final Duration shutdownTimeout;
+    private Thread writer;
+    private volatile boolean closed;
+
+    @Autowired
+    public RegistrationService(EventRepository eventRepository,
+                               EventRegistrationRepository registrationRepository,
+                               JdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${registration.write.batch-size:500}") int batchSize,
+                               @Value("${registration.write.queue-capacity:20000}") int queueCapacity,
+                               @Value("${registration.write.shutdown-timeout:PT10S}") Duration shutdownTimeout) {
+        this.eventRepository = eventRepository;
+        this.registrationRepository = registrationRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.shutdownTimeout = shutdownTimeout;
+        this.writes = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    @PostConstruct
+    void start() {
+        writer = new Thread(this::writeLoop, "registration-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Inscrit l'utilisateur : place confirmée s'il en reste, liste d'attente sinon. Sans effet
+     * (et sans écriture) si l'utilisateur est déjà inscrit ou en attente.
+     */
+    public CompletableFuture<EventRegistrationDTO> register(Long eventId, Long userId) {
+        EventSeats event = lockLoaded(eventId);
+        try {
+            if (event.registered.contains(userId)) {
+                return CompletableFuture.completedFuture(new EventRegistrationDTO(eventId, userId, STATUS_REGISTERED, null));
+            }
+            if (event.waitlist.contains(userId)) {
+                return CompletableFuture.completedFuture(
+                        new EventRegistrationDTO(eventId, userId, STATUS_WAITLISTED, positionOf(event, userId)));
+            }
+            EventRegistrationDTO result;
+            if (event.capacity == null || event.registered.size() < event.capacity) {
+                event.registered.add(userId);
+                result = new EventRegistrationDTO(eventId, userId, STATUS_REGISTERED, null);
+            } else {
+                event.waitlist.add(userId);
+                result = new EventRegistrationDTO(eventId, userId, STATUS_WAITLISTED, event.waitlist.size());
+            }
+            return enqueue(event, PendingWrite.insert(eventId, userId, result.getStatus())).thenApply(done -> result);
+        } finally {
+            event.lock.unlock();
+        }
+    }
+
+    /**
+     * Désinscrit l'utilisateur ; une place confirmée libérée revient au premier de la liste d'attente.
+     */
+    public CompletableFuture<Void> unregister(Long eventId, Long userId) {
+        EventSeats event = lockLoaded(eventId);
+        try {
+            if (event.registered.remove(userId)) {
+                CompletableFuture<Void> deleted = enqueue(event, PendingWrite.delete(eventId, userId));
+                promote(event, eventId);
+                return deleted;
+            }
+            if (event.waitlist.remove(userId)) {
+                return enqueue(event, PendingWrite.delete(eventId, userId));
+            }
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Aucune inscription de l'utilisateur " + userId
+                    + " à l'événement " + eventId);
+        } finally {
+            event.lock.unlock();
+        }
+    }
+
+    public EventSeatsDTO getSeats(Long eventId) {
+        EventSeats event = lockLoaded(eventId);
+        try {
+            return new EventSeatsDTO(eventId, event.capacity, event.registered.size(), event.waitlist.size());
+        } finally {
+            event.lock.unlock();
+        }
+    }
+
+    /**
+     * Oublie l'état en mémoire d'un événement (capacité modifiée, événement supprimé) : il sera
+     * relu en base au prochain accès. Les écritures déjà en file sont enregistrées avant la relecture.
+     */
+    public void evict(Long eventId) {
+        EventSeats event = seats.get(eventId);
+        if (event != null) {
+            // Sans prendre le verrou : appelé aussi par le thread d'écriture, qu'un rechargement peut attendre.
+            // Une éviction pendant un rechargement en cours n'est pas perdue : celui-ci a relevé le compteur avant de lire
+            event.evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Renvoie l'état de l'événement verrouillé, chargé depuis la base au premier accès ou après éviction.
+     * Pas de computeIfAbsent avec chargement : la lecture en base se ferait sous le verrou de la map.
+     */
+    private EventSeats lockLoaded(Long eventId) {
+        EventSeats event = seats.computeIfAbsent(eventId, id -> new EventSeats());
+        event.lock.lock();
+        try {
+            if (event.isStale()) {
+                reload(event, eventId);
+            }
+            return event;
+        } catch (RuntimeException e) {
+            event.lock.unlock();
+            throw e;
+        }
+    }
+
+    // Verrou de l'événement détenu
+    private void reload(EventSeats event, Long eventId) {
+        long evictions = event.evictions.get();
+        // Les écritures déjà en file pour cet événement doivent être en base avant la relecture
+        awaitPending(event);
+        event.registered.clear();
+        event.waitlist.clear();
+        event.capacity = eventRepository.findCapacityById(eventId).orElse(null);
+        if (event.capacity == null && !eventRepository.existsById(eventId)) {
+            seats.remove(eventId, event);
+            throw new RuntimeException("Event not found with id: " + eventId);
+        }
+        for (EventRegistrationDTO registration : registrationRepository.findByEventIdInOrder(eventId)) {
+            if (STATUS_REGISTERED.equals(registration.getStatus())) {
+                event.registered.add(registration.getUserId());
+            } else {
+                event.waitlist.add(registration.getUserId());
+            }
+        }
+        event.loaded = evictions;
+        // La capacité a pu augmenter depuis les dernières inscriptions ; arrêt si une promotion n'a pas pu être mise en file
+        while (event.capacity != null && event.registered.size() < event.capacity && !event.waitlist.isEmpty()
+                && !event.isStale()) {
+            promote(event, eventId);
+        }
+    }
+
+    // Verrou de l'événement détenu
+    private void promote(EventSeats event, Long eventId) {
+        Iterator<Long> first = event.waitlist.iterator();
+        if (!first.hasNext() || (event.capacity != null && event.registered.size() >= event.capacity)) {
+            return;
+        }
+        Long userId = first.next();
+        first.remove();
+        event.registered.add(userId);
+        try {
+            enqueue(event, PendingWrite.promote(eventId, userId));
+        } catch (ResponseStatusException e) {
+            // File pleine : la désinscription qui libère la place est déjà en file et ne doit pas être
+            // signalée en échec. L'événement est invalidé, la promotion sera rejouée depuis la base.
+            log.warn("Promotion of user {} to event {} deferred to next reload: write queue full", userId, eventId);
+        }
+    }
+
+    // Verrou de l'événement détenu : l'ordre de la file suit l'ordre des décisions
+    private CompletableFuture<Void> enqueue(EventSeats event, PendingWrite write) {
+        if (closed || !writes.offer(write)) {
+            // Décision déjà appliquée en mémoire : on la rejoue depuis la base au prochain accès
+            evict(write.eventId);
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Trop d'inscriptions en cours, réessayez");
+        }
+        event.lastWrite = write.done;
+        return write.done;
+    }
+
+    private void awaitPending(EventSeats event) {
+        CompletableFuture<Void> last = event.lastWrite;
+        if (last != null) {
+            try {
+                last.get(shutdownTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception e) {
+                // Écriture en échec ou trop lente : on relit quand même l'état en base
+            }
+        }
+    }
+
+    private void writeLoop() {
+        List<PendingWrite> batch = new ArrayList<>(batchSize);
+        while (true) {
+            try {
+                batch.add(writes.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            writes.drainTo(batch, batchSize - 1);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> execute(batch));
+            batch.forEach(write -> write.done.complete(null));
+        } catch (RuntimeException batchFailure) {
+            // Lot rejeté : rejoué ligne par ligne pour n'échouer que les écritures fautives
+            Set<Long> failedEvents = new HashSet<>();
+            for (PendingWrite write : batch) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> execute(List.of(write)));
+                    write.done.complete(null);
+                } catch (RuntimeException rowFailure) {
+                    failedEvents.add(write.eventId);
+                    write.done.completeExceptionally(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                            "Inscription refusée : " + NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage()));
+                }
+            }
+            // L'état en mémoire de ces événements ne correspond plus à la base
+            failedEvents.forEach(this::evict);
+            log.warn("Registration batch of {} writes failed, {} events reloaded", batch.size(), failedEvents.size(), batchFailure);
+        }
+    }
+
+    // Une requête JDBC groupée par nature d'écriture : insertions, puis promotions, puis suppressions. Les écritures
+    // de deux inscriptions différentes commutent ; le groupe est exécuté dès qu'une inscription y reviendrait avec une
+    // nature antérieure (désinscription puis réinscription), ce qui garde l'ordre de la file pour chaque inscription
+    private void execute(List<PendingWrite> batch) {
+        List<List<Object[]>> groups = new ArrayList<>(STATEMENTS.size());
+        STATEMENTS.forEach(sql -> groups.add(new ArrayList<>()));
+        Map<List<Long>, Integer> lastStatement = new HashMap<>();
+        for (PendingWrite write : batch) {
+            List<Long> key = List.of(write.eventId, write.userId);
+            Integer previous = lastStatement.get(key);
+            if (previous != null && previous > write.statement) {
+                executeGroups(groups);
+                lastStatement.clear();
+            }
+            lastStatement.put(key, write.statement);
+            groups.get(write.statement).add(write.arguments);
+        }
+        executeGroups(groups);
+    }
+
+    private void executeGroups(List<List<Object[]>> groups) {
+        for (int statement = 0; statement < STATEMENTS.size(); statement++) {
+            if (!groups.get(statement).isEmpty()) {
+                jdbcTemplate.batchUpdate(STATEMENTS.get(statement), groups.get(statement));
+                groups.get(statement).clear();
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        closed = true;
+        // Laisse le thread d'écriture vider la file avant l'arrêt
+        long deadline = System.nanoTime() + shutdownTimeout.toNanos();
+        while (!writes.isEmpty() && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        writer.interrupt();
+        writer.join(shutdownTimeout.toMillis());
+    }
+
+    private static Integer positionOf(EventSeats event, Long userId) {
+        int position = 1;
+        for (Long waiting : event.waitlist) {
+            if (waiting.equals(userId)) {
+                return position;
+            }
+            position++;
+        }
+        return null;
+    }
+
+    private static final class EventSeats {
+        private final ReentrantLock lock = new ReentrantLock();
+        // Périmé tant que l'état n'a pas été lu en base après la dernière éviction
+        private final AtomicLong evictions = new AtomicLong(1);
+        private long loaded;
+        private Integer capacity;
+        private final Set<Long> registered = new HashSet<>();
+        // Ordre d'arrivée, retrait en O(1)
+        private final LinkedHashSet<Long> waitlist = new LinkedHashSet<>();
+        private CompletableFuture<Void> lastWrite;
+
+        // Verrou de l'événement détenu
+        private boolean isStale() {
+            return loaded != evictions.get();
+        }
+    }
+
+    private static final class PendingWrite {
+        private final Long eventId;
+        private final Long userId;
+        // Indice de la requête dans STATEMENTS
+        private final int statement;
+        private final Object[] arguments;
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        private PendingWrite(Long eventId, Long userId, String sql, Object[] arguments) {
+            this.eventId = eventId;
+            this.userId = userId;
+            this.statement = STATEMENTS.indexOf(sql);
+            this.arguments = arguments;
+        }
+
+        static PendingWrite insert(Long eventId, Long userId, String status) {
+            return new PendingWrite(eventId, userId, EventRegistrationRepository.INSERT,
+                    new Object[]{eventId, userId, status, Timestamp.valueOf(LocalDateTime.now())});
+        }
+
+        static PendingWrite delete(Long eventId, Long userId) {
+            return new PendingWrite(eventId, userId, EventRegistrationRepository.DELETE, new Object[]{eventId, userId});
+        }
+
+        static PendingWrite promote(Long eventId, Long userId) {
+            return new PendingWrite(eventId, userId, EventRegistrationRepository.UPDATE_STATUS,
+                    new Object[]{STATUS_REGISTERED, eventId, userId});
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.model.RelatedEntity;
+import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.ProjectRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Contrôle du lien vers l'entité concernée avant l'écriture d'une transaction ou d'une contribution :
+ * type supporté, identifiant présent, et événement ou projet existant. Les organisations n'ont pas
+ * de table ici : seul leur identifiant est exigé.
+ */
+@Service
+public class RelatedEntityValidator {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    public void validate(RelatedEntity relatedTo) {
+        String error = check(relatedTo);
+        if (error != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, error);
+        }
+    }
+
+    // Message d'erreur, ou null si le lien est absent ou valide
+    public String check(RelatedEntity relatedTo) {
+        if (relatedTo == null || (relatedTo.getType() == null && relatedTo.getId() == null)) {
+            return null;
+        }
+        if (!RelatedEntity.isSupportedType(relatedTo.getType())) {
+            return "Type d'entité liée non supporté : " + relatedTo.getType();
+        }
+        if (relatedTo.getId() == null) {
+            return "Identifiant d'entité liée manquant";
+        }
+        boolean exists = switch (relatedTo.getType()) {
+            case RelatedEntity.EVENT -> eventRepository.existsById(relatedTo.getId());
+            case RelatedEntity.PROJECT -> projectRepository.existsById(relatedTo.getId());
+            default -> true;
+        };
+        return exists ? null : "Entité liée introuvable : " + relatedTo.getType() + " " + relatedTo.getId();
+    }
+}
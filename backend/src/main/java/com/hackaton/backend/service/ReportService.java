@@ -0,0 +1,258 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.FinancialReportDTO;
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.model.Contribution;
+import com.hackaton.backend.model.Transaction;
+import com.hackaton.backend.repository.DailyRollupRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Rapports financiers calculés à partir de cumuls journaliers (source, jour, type, catégorie, statut)
+ * maintenus à chaque écriture : un rapport coûte O(jours) et non O(lignes).
+ */
+@Service
+public class ReportService {
+    public static final String SOURCE_TRANSACTION = "transaction";
+    public static final String SOURCE_CONTRIBUTION = "contribution";
+
+    private static final String NO_CATEGORY = "";
+    private static final String ROLLUP_LOCK = "daily_rollups";
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private RebuildLockService rebuildLockService;
+
+    /**
+     * Clé de cumul et montant d'une ligne, capturés avant modification.
+     */
+    public record RollupEntry(String source, LocalDate day, String type, String category, String status, BigDecimal amount) {
+        public static RollupEntry of(Transaction transaction) {
+            return new RollupEntry(SOURCE_TRANSACTION, transaction.getDate().toLocalDate(), transaction.getType(),
+                    transaction.getCategory(), transaction.getStatus(), transaction.getAmount());
+        }
+
+        public static RollupEntry of(Contribution contribution) {
+            return new RollupEntry(SOURCE_CONTRIBUTION, contribution.getDate().toLocalDate(), contribution.getType(),
+                    NO_CATEGORY, contribution.getStatus(), contribution.getAmount());
+        }
+
+        String bucketKey() {
+            return ReportService.bucketKey(source, day, type, category != null ? category : NO_CATEGORY, status);
+        }
+
+        boolean sameBucket(RollupEntry other) {
+            return source.equals(other.source) && day.equals(other.day) && Objects.equals(type, other.type)
+                    && Objects.equals(category, other.category) && Objects.equals(status, other.status);
+        }
+    }
+
+    /**
+     * Répercute le passage de {@code before} à {@code after} sur les cumuls ; l'un ou l'autre
+     * peut être null (création, suppression). Doit s'exécuter dans la transaction de l'écriture.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(RollupEntry before, RollupEntry after) {
+        if (before != null && after != null && before.sameBucket(after)) {
+            BigDecimal delta = after.amount().subtract(before.amount());
+            if (delta.signum() != 0) {
+                rebuildLockService.lockForWrite(ROLLUP_LOCK);
+                upsert(after, delta, 0);
+            }
+            return;
+        }
+        rebuildLockService.lockForWrite(ROLLUP_LOCK);
+        if (before != null) {
+            upsert(before, before.amount().negate(), -1);
+        }
+        if (after != null) {
+            upsert(after, after.amount(), 1);
+        }
+    }
+
+    /**
+     * Répercute un lot de lignes nouvellement créées : une seule mise à jour par cumul touché.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(List<RollupEntry> created) {
+        if (created.isEmpty()) {
+            return;
+        }
+        rebuildLockService.lockForWrite(ROLLUP_LOCK);
+        Map<RollupEntry, long[]> counts = new HashMap<>();
+        Map<RollupEntry, BigDecimal> amounts = new HashMap<>();
+        for (RollupEntry entry : created) {
+            RollupEntry bucket = new RollupEntry(entry.source(), entry.day(), entry.type(), entry.category(), entry.status(), BigDecimal.ZERO);
+            amounts.merge(bucket, entry.amount(), BigDecimal::add);
+            counts.computeIfAbsent(bucket, key -> new long[1])[0]++;
+        }
+        amounts.forEach((bucket, amount) -> upsert(bucket, amount, counts.get(bucket)[0]));
+    }
+
+    private void upsert(RollupEntry entry, BigDecimal amount, long count) {
+        dailyRollupRepository.upsert(entry.bucketKey(), entry.source(), entry.day(), entry.type(),
+                entry.category() != null ? entry.category() : NO_CATEGORY, entry.status(), amount, count);
+    }
+
+    @Transactional(readOnly = true)
+    public FinancialReportDTO getFinancialReport(LocalDate startDate, LocalDate endDate) {
+        BigDecimal initialBalance = balanceBefore(startDate);
+        FinancialReportDTO report = newReport(startDate, endDate, initialBalance);
+
+        List<RollupTotalDTO> categories = dailyRollupRepository.sumByTypeAndCategory(
+                SOURCE_TRANSACTION, startDate, endDate, LedgerBalanceService.STATUS_CANCELLED);
+        for (RollupTotalDTO total : categories) {
+            accumulateTransactions(report, total);
+        }
+        for (RollupTotalDTO total : dailyRollupRepository.sumByTypeAndCategory(
+                SOURCE_CONTRIBUTION, startDate, endDate, LedgerBalanceService.STATUS_CANCELLED)) {
+            accumulateContributions(report, total);
+        }
+        report.setCategories(categories);
+        report.setFinalBalance(initialBalance.add(report.getTotalDeposits()).subtract(report.getTotalWithdrawals()));
+        return report;
+    }
+
+    /**
+     * Découpe [startDate, endDate] en périodes consécutives (mois, année...) et calcule
+     * un rapport par période, chaque solde final servant de solde initial au suivant.
+     */
+    @Transactional(readOnly = true)
+    public List<FinancialReportDTO> getPeriodReports(LocalDate startDate, LocalDate endDate, ChronoUnit period) {
+        List<FinancialReportDTO> reports = new ArrayList<>();
+        for (int i = 0; !startDate.plus(i, period).isAfter(endDate); i++) {
+            LocalDate periodStart = startDate.plus(i, period);
+            LocalDate periodEnd = startDate.plus(i + 1, period).minusDays(1);
+            reports.add(newReport(periodStart, periodEnd.isAfter(endDate) ? endDate : periodEnd, BigDecimal.ZERO));
+        }
+        if (reports.isEmpty()) {
+            return reports;
+        }
+
+        for (RollupTotalDTO total : dailyRollupRepository.sumByDayAndType(
+                SOURCE_TRANSACTION, startDate, endDate, LedgerBalanceService.STATUS_CANCELLED)) {
+            accumulateTransactions(reports.get(periodIndex(startDate, total.getDay(), period)), total);
+        }
+        for (RollupTotalDTO total : dailyRollupRepository.sumByDayAndType(
+                SOURCE_CONTRIBUTION, startDate, endDate, LedgerBalanceService.STATUS_CANCELLED)) {
+            accumulateContributions(reports.get(periodIndex(startDate, total.getDay(), period)), total);
+        }
+
+        BigDecimal balance = balanceBefore(startDate);
+        for (FinancialReportDTO report : reports) {
+            report.setInitialBalance(balance);
+            balance = balance.add(report.getTotalDeposits()).subtract(report.getTotalWithdrawals());
+            report.setFinalBalance(balance);
+        }
+        return reports;
+    }
+
+    /**
+     * Reconstruit tous les cumuls à partir des tables transactions et contributions. Les écritures
+     * concurrentes attendent la fin de la reconstruction pour appliquer leur delta (voir RebuildLockService).
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        rebuildLockService.lockForRebuild(ROLLUP_LOCK);
+        List<RollupTotalDTO> transactionBuckets = dailyRollupRepository.computeTransactionBuckets();
+        List<RollupTotalDTO> contributionBuckets = dailyRollupRepository.computeContributionBuckets();
+        dailyRollupRepository.deleteAllBuckets();
+        insertBuckets(SOURCE_TRANSACTION, transactionBuckets);
+        insertBuckets(SOURCE_CONTRIBUTION, contributionBuckets);
+        Map<String, Object> result = new HashMap<>();
+        result.put("transactionBuckets", transactionBuckets.size());
+        result.put("contributionBuckets", contributionBuckets.size());
+        return result;
+    }
+
+    private void insertBuckets(String source, List<RollupTotalDTO> buckets) {
+        for (RollupTotalDTO bucket : buckets) {
+            upsert(new RollupEntry(source, bucket.getDay(), bucket.getType(), bucket.getCategory(), bucket.getStatus(),
+                    bucket.getAmount()), bucket.getAmount(), bucket.getCount());
+        }
+    }
+
+    /**
+     * Clé unique d'un cumul : empreinte SHA-256 (hexadécimale) des champs séparés par un caractère nul.
+     */
+    static String bucketKey(String source, LocalDate day, String type, String category, String status) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            String key = String.join("\0", source, day.toString(), type, category, status);
+            return HexFormat.of().formatHex(digest.digest(key.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    private BigDecimal balanceBefore(LocalDate date) {
+        BigDecimal balance = BigDecimal.ZERO;
+        for (RollupTotalDTO total : dailyRollupRepository.sumByTypeBefore(
+                SOURCE_TRANSACTION, date, LedgerBalanceService.STATUS_CANCELLED)) {
+            if (LedgerBalanceService.TYPE_DEPOSIT.equalsIgnoreCase(total.getType())) {
+                balance = balance.add(total.getAmount());
+            } else if (LedgerBalanceService.TYPE_WITHDRAWAL.equalsIgnoreCase(total.getType())) {
+                balance = balance.subtract(total.getAmount());
+            }
+        }
+        return balance;
+    }
+
+    // Même découpage que getPeriodReports : between() seul se trompe quand le jour de départ n'existe pas
+    // dans tous les mois (départ le 31 janvier : le 28 février ouvre la deuxième période)
+    private int periodIndex(LocalDate startDate, LocalDate day, ChronoUnit period) {
+        int index = (int) period.between(startDate, day);
+        while (!startDate.plus(index + 1, period).isAfter(day)) {
+            index++;
+        }
+        while (startDate.plus(index, period).isAfter(day)) {
+            index--;
+        }
+        return index;
+    }
+
+    private FinancialReportDTO newReport(LocalDate startDate, LocalDate endDate, BigDecimal initialBalance) {
+        FinancialReportDTO report = new FinancialReportDTO();
+        report.setStartDate(startDate);
+        report.setEndDate(endDate);
+        report.setInitialBalance(initialBalance);
+        report.setFinalBalance(initialBalance);
+        report.setTotalDeposits(BigDecimal.ZERO);
+        report.setTotalWithdrawals(BigDecimal.ZERO);
+        report.setTotalContributions(BigDecimal.ZERO);
+        report.setTransactionCount(0L);
+        report.setContributionCount(0L);
+        return report;
+    }
+
+    private void accumulateTransactions(FinancialReportDTO report, RollupTotalDTO total) {
+        if (LedgerBalanceService.TYPE_DEPOSIT.equalsIgnoreCase(total.getType())) {
+            report.setTotalDeposits(report.getTotalDeposits().add(total.getAmount()));
+        } else if (LedgerBalanceService.TYPE_WITHDRAWAL.equalsIgnoreCase(total.getType())) {
+            report.setTotalWithdrawals(report.getTotalWithdrawals().add(total.getAmount()));
+        }
+        report.setTransactionCount(report.getTransactionCount() + total.getCount());
+    }
+
+    private void accumulateContributions(FinancialReportDTO report, RollupTotalDTO total) {
+        report.setTotalContributions(report.getTotalContributions().add(total.getAmount()));
+        report.setContributionCount(report.getContributionCount() + total.getCount());
+    }
+}
@@ -0,0 +1,539 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.SearchHitDTO;
+import com.hackaton.backend.dto.SearchResultDTO;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+
+/**
+ * Index inversé en mémoire : pour chaque mot (minuscules, sans accents), la liste triée des documents
+ * qui le contiennent avec sa fréquence. Une requête ne parcourt que les listes de ses mots, classées
+ * par BM25 ; tous les mots doivent être présents, le dernier étant traité comme un préfixe.
+ *
+ * Les documents reçoivent des numéros internes croissants : une modification supprime l'ancien
+ * numéro (marqué dans {@code deleted}) et en ajoute un nouveau, ce qui garde les listes triées
+ * sans les réécrire. Les numéros supprimés sont purgés quand ils deviennent trop nombreux.
+ */
+final class SearchIndex {
+    private static final int SNAPSHOT_FORMAT = 1;
+    // Les mots du titre comptent double dans la fréquence
+    private static final int TITLE_WEIGHT = 2;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    // Nombre maximal de mots développés pour le préfixe final de la requête
+    private static final int MAX_PREFIX_TERMS = 64;
+    private static final int MIN_COMPACTION = 1024;
+
+    private static final Pattern ACCENTS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "elle", "elles", "en", "est", "et",
+            "il", "ils", "la", "le", "les", "leur", "leurs", "ne", "nous", "on", "ou", "par", "pas", "pour",
+            "qui", "que", "sa", "se", "ses", "son", "sont", "sur", "un", "une", "vous");
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Integer> docByKey = new HashMap<>();
+    private final TreeMap<String, Postings> postings = new TreeMap<>();
+    private final BitSet deleted = new BitSet();
+
+    private String[] types = new String[1024];
+    private long[] ids = new long[1024];
+    private long[] versions = new long[1024];
+    private String[] titles = new String[1024];
+    private int[] lengths = new int[1024];
+    private int docCount;
+    private long totalLength;
+
+    /**
+     * Ajoute ou remplace un document. Une version plus ancienne que celle déjà indexée est ignorée :
+     * une reconstruction lente ne peut pas écraser une modification faite pendant qu'elle tournait.
+     */
+    void put(SearchDocument document) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = count(document.getTitle(), TITLE_WEIGHT, frequencies) + count(document.getText(), 1, frequencies);
+        long version = document.getVersion() != null ? document.getVersion() : 0L;
+        String key = key(document.getType(), document.getId());
+
+        lock.writeLock().lock();
+        try {
+            Integer previous = docByKey.get(key);
+            if (previous != null) {
+                if (versions[previous] > version) {
+                    return;
+                }
+                delete(previous);
+                compactIfNeeded();
+            }
+            int doc = docCount++;
+            ensureCapacity(docCount);
+            types[doc] = document.getType();
+            ids[doc] = document.getId();
+            versions[doc] = version;
+            titles[doc] = document.getTitle();
+            lengths[doc] = length;
+            totalLength += length;
+            docByKey.put(key, doc);
+            frequencies.forEach((term, frequency) -> postings.computeIfAbsent(term, t -> new Postings()).add(doc, frequency));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(String type, Long id) {
+        lock.writeLock().lock();
+        try {
+            Integer doc = docByKey.remove(key(type, id));
+            if (doc != null) {
+                delete(doc);
+                compactIfNeeded();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return docByKey.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    SearchResultDTO search(String query, String type, int offset, int limit) {
+        List<String> terms = tokenize(query);
+        boolean prefix = !query.isEmpty() && Character.isLetterOrDigit(query.charAt(query.length() - 1));
+
+        lock.readLock().lock();
+        try {
+            List<List<Postings>> groups = new ArrayList<>();
+            for (int i = 0; i < terms.size(); i++) {
+                List<Postings> group = i == terms.size() - 1 && prefix ? expand(terms.get(i)) : exact(terms.get(i));
+                if (group.isEmpty()) {
+                    return new SearchResultDTO(query, 0, offset, limit, List.of());
+                }
+                groups.add(group);
+            }
+            if (groups.isEmpty()) {
+                return new SearchResultDTO(query, 0, offset, limit, List.of());
+            }
+            // Les candidats viennent du mot le plus rare, puis chaque autre mot les filtre
+            groups.sort((a, b) -> Long.compare(totalSize(a), totalSize(b)));
+
+            int live = docByKey.size();
+            double averageLength = live == 0 ? 1 : Math.max(1.0, (double) totalLength / live);
+            List<GroupCursor> filters = new ArrayList<>();
+            for (List<Postings> group : groups.subList(1, groups.size())) {
+                filters.add(new GroupCursor(group, live, averageLength));
+            }
+            TopHits top = new TopHits(type, filters, averageLength, offset + limit);
+
+            // Candidats dans l'ordre croissant des numéros : les curseurs des autres mots ne reculent jamais
+            List<Postings> first = groups.get(0);
+            if (first.size() == 1) {
+                Postings list = first.get(0);
+                double idf = idf(list, live);
+                for (int i = 0; i < list.size; i++) {
+                    int doc = list.docs[i];
+                    top.offer(doc, bm25(idf, list.frequencies[i], norm(doc, averageLength)));
+                }
+            } else {
+                GroupCursor union = new GroupCursor(first, live, averageLength);
+                for (int doc = union.matched.nextSetBit(0); doc >= 0; doc = union.matched.nextSetBit(doc + 1)) {
+                    top.offer(doc, union.scores[doc]);
+                }
+            }
+
+            List<int[]> ranked = new ArrayList<>(top.heap);
+            ranked.sort((a, b) -> Float.compare(Float.intBitsToFloat(b[1]), Float.intBitsToFloat(a[1])));
+            List<SearchHitDTO> hits = new ArrayList<>();
+            for (int i = offset; i < ranked.size(); i++) {
+                int doc = ranked.get(i)[0];
+                hits.add(new SearchHitDTO(types[doc], ids[doc], titles[doc], (double) Float.intBitsToFloat(ranked.get(i)[1])));
+            }
+            return new SearchResultDTO(query, top.total, offset, limit, hits);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Écrit l'index (documents vivants, renumérotés, et listes purgées) pour le recharger au prochain démarrage.
+     * {@code stamp} identifie l'état de la base au moment de l'écriture.
+     */
+    void writeTo(DataOutputStream out, String stamp) throws IOException {
+        lock.readLock().lock();
+        try {
+            int[] renumbered = new int[docCount];
+            int live = 0;
+            for (int doc = 0; doc < docCount; doc++) {
+                renumbered[doc] = deleted.get(doc) ? -1 : live++;
+            }
+
+            out.writeInt(SNAPSHOT_FORMAT);
+            out.writeUTF(stamp);
+            out.writeInt(live);
+            for (int doc = 0; doc < docCount; doc++) {
+                if (renumbered[doc] >= 0) {
+                    out.writeUTF(types[doc]);
+                    out.writeLong(ids[doc]);
+                    out.writeLong(versions[doc]);
+                    writeNullable(out, titles[doc]);
+                    out.writeInt(lengths[doc]);
+                }
+            }
+
+            out.writeInt(postings.size());
+            for (Map.Entry<String, Postings> entry : postings.entrySet()) {
+                Postings list = entry.getValue();
+                int count = 0;
+                for (int i = 0; i < list.size; i++) {
+                    if (renumbered[list.docs[i]] >= 0) {
+                        count++;
+                    }
+                }
+                out.writeUTF(entry.getKey());
+                out.writeInt(count);
+                for (int i = 0; i < list.size; i++) {
+                    if (renumbered[list.docs[i]] >= 0) {
+                        out.writeInt(renumbered[list.docs[i]]);
+                        out.writeInt(list.frequencies[i]);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Relit un index écrit par {@link #writeTo}. Renvoie null si le format ou l'état de la base
+     * ne correspondent plus : l'index doit alors être reconstruit.
+     */
+    static SearchIndex readFrom(DataInputStream in, String expectedStamp) throws IOException {
+        if (in.readInt() != SNAPSHOT_FORMAT || !in.readUTF().equals(expectedStamp)) {
+            return null;
+        }
+        SearchIndex index = new SearchIndex();
+        int live = in.readInt();
+        index.ensureCapacity(live);
+        for (int doc = 0; doc < live; doc++) {
+            index.types[doc] = in.readUTF();
+            index.ids[doc] = in.readLong();
+            index.versions[doc] = in.readLong();
+            index.titles[doc] = readNullable(in);
+            index.lengths[doc] = in.readInt();
+            index.totalLength += index.lengths[doc];
+            index.docByKey.put(key(index.types[doc], index.ids[doc]), doc);
+        }
+        index.docCount = live;
+
+        int terms = in.readInt();
+        for (int t = 0; t < terms; t++) {
+            String term = in.readUTF();
+            int count = in.readInt();
+            Postings list = new Postings(Math.max(count, 1));
+            for (int i = 0; i < count; i++) {
+                list.add(in.readInt(), in.readInt());
+            }
+            if (count > 0) {
+                index.postings.put(term, list);
+            }
+        }
+        return index;
+    }
+
+    /**
+     * Découpe un texte en mots : minuscules, accents et ligatures retirés, mots vides et
+     * lettres isolées (élisions « l' », « d' ») ignorés, pluriel en « s » ramené au singulier.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = ACCENTS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT)
+                .replace("œ", "oe")
+                .replace("æ", "ae");
+        List<String> terms = new ArrayList<>();
+        for (String word : SEPARATORS.split(folded)) {
+            if (word.length() < 2 || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            terms.add(word.length() > 3 && word.endsWith("s") ? word.substring(0, word.length() - 1) : word);
+        }
+        return terms;
+    }
+
+    private static String key(String type, long id) {
+        return type + ':' + id;
+    }
+
+    private static int count(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> terms = tokenize(text);
+        for (String term : terms) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+        return terms.size() * weight;
+    }
+
+    private List<Postings> exact(String term) {
+        Postings list = postings.get(term);
+        return list == null ? List.of() : List.of(list);
+    }
+
+    private List<Postings> expand(String prefix) {
+        List<Postings> group = new ArrayList<>();
+        for (Postings list : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).values()) {
+            group.add(list);
+            if (group.size() == MAX_PREFIX_TERMS) {
+                break;
+            }
+        }
+        return group;
+    }
+
+    private static long totalSize(List<Postings> group) {
+        long size = 0;
+        for (Postings list : group) {
+            size += list.size;
+        }
+        return size;
+    }
+
+    // La fréquence documentaire inclut les documents supprimés non encore purgés : approximation assumée
+    private static double idf(Postings list, int live) {
+        return Math.max(Math.log(1 + (live - list.size + 0.5) / (list.size + 0.5)), 0.01);
+    }
+
+    private static double bm25(double idf, int frequency, double norm) {
+        return idf * frequency * (K1 + 1) / (frequency + norm);
+    }
+
+    private double norm(int doc, double averageLength) {
+        return K1 * (1 - B + B * lengths[doc] / averageLength);
+    }
+
+    /**
+     * Score d'un mot pour des documents interrogés par numéros croissants. Une seule liste : curseur
+     * avancé par sauts exponentiels, la liste n'est parcourue qu'une fois par requête. Préfixe développé
+     * (plusieurs listes) : union accumulée une fois par numéro, plutôt que chercher dans chaque liste.
+     */
+    private final class GroupCursor {
+        private final Postings list;
+        private final double idf;
+        private int position;
+        private final float[] scores;
+        private final BitSet matched;
+
+        GroupCursor(List<Postings> group, int live, double averageLength) {
+            if (group.size() == 1) {
+                list = group.get(0);
+                idf = idf(list, live);
+                scores = null;
+                matched = null;
+                return;
+            }
+            list = null;
+            idf = 0;
+            scores = new float[docCount];
+            matched = new BitSet(docCount);
+            for (Postings expanded : group) {
+                double expandedIdf = idf(expanded, live);
+                for (int i = 0; i < expanded.size; i++) {
+                    int doc = expanded.docs[i];
+                    scores[doc] += (float) bm25(expandedIdf, expanded.frequencies[i], norm(doc, averageLength));
+                    matched.set(doc);
+                }
+            }
+        }
+
+        // Score BM25 du document pour ce mot, -1 s'il ne le contient pas
+        double score(int doc, double norm) {
+            if (list == null) {
+                return matched.get(doc) ? scores[doc] : -1;
+            }
+            position = list.seek(doc, position);
+            if (position < list.size && list.docs[position] == doc) {
+                return bm25(idf, list.frequencies[position], norm);
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * Filtre (type, suppressions, autres mots) et garde les {@code capacity} meilleurs scores ; un
+     * candidat moins bon que le dernier retenu ne coûte aucune allocation.
+     */
+    private final class TopHits {
+        private final String type;
+        private final List<GroupCursor> filters;
+        private final double averageLength;
+        private final int capacity;
+        private final PriorityQueue<int[]> heap;
+        private int total;
+
+        TopHits(String type, List<GroupCursor> filters, double averageLength, int capacity) {
+            this.type = type;
+            this.filters = filters;
+            this.averageLength = averageLength;
+            this.capacity = capacity;
+            heap = new PriorityQueue<>(capacity + 1,
+                    (a, b) -> Float.compare(Float.intBitsToFloat(a[1]), Float.intBitsToFloat(b[1])));
+        }
+
+        void offer(int doc, double firstScore) {
+            if (deleted.get(doc) || (type != null && !type.equals(types[doc]))) {
+                return;
+            }
+            double score = firstScore;
+            double norm = norm(doc, averageLength);
+            for (GroupCursor filter : filters) {
+                double groupScore = filter.score(doc, norm);
+                if (groupScore < 0) {
+                    return;
+                }
+                score += groupScore;
+            }
+            total++;
+            float rounded = (float) score;
+            if (heap.size() == capacity && rounded <= Float.intBitsToFloat(heap.peek()[1])) {
+                return;
+            }
+            heap.add(new int[]{doc, Float.floatToIntBits(rounded)});
+            if (heap.size() > capacity) {
+                heap.poll();
+            }
+        }
+    }
+
+    private void delete(int doc) {
+        deleted.set(doc);
+        totalLength -= lengths[doc];
+        lengths[doc] = 0;
+    }
+
+    private void compactIfNeeded() {
+        int removed = deleted.cardinality();
+        if (removed < MIN_COMPACTION || removed * 4 < docCount) {
+            return;
+        }
+        int[] renumbered = new int[docCount];
+        int live = 0;
+        for (int doc = 0; doc < docCount; doc++) {
+            if (deleted.get(doc)) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            renumbered[doc] = live;
+            types[live] = types[doc];
+            ids[live] = ids[doc];
+            versions[live] = versions[doc];
+            titles[live] = titles[doc];
+            lengths[live] = lengths[doc];
+            docByKey.put(key(types[live], ids[live]), live);
+            live++;
+        }
+        Arrays.fill(titles, live, docCount, null);
+        Arrays.fill(types, live, docCount, null);
+        docCount = live;
+        deleted.clear();
+
+        postings.values().removeIf(list -> list.renumber(renumbered) == 0);
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= ids.length) {
+            return;
+        }
+        int size = Math.max(capacity, ids.length * 2);
+        types = Arrays.copyOf(types, size);
+        ids = Arrays.copyOf(ids, size);
+        versions = Arrays.copyOf(versions, size);
+        titles = Arrays.copyOf(titles, size);
+        lengths = Arrays.copyOf(lengths, size);
+    }
+
+    private static void writeNullable(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    // Liste triée (numéro de document, fréquence) d'un mot
+    private static final class Postings {
+        private int[] docs;
+        private int[] frequencies;
+        private int size;
+
+        Postings() {
+            this(4);
+        }
+
+        Postings(int capacity) {
+            docs = new int[capacity];
+            frequencies = new int[capacity];
+        }
+
+        // Les numéros sont attribués dans l'ordre croissant : l'ajout en fin garde la liste triée
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        // Première position >= from dont le numéro est >= doc (size si aucune)
+        int seek(int doc, int from) {
+            if (from >= size || docs[from] >= doc) {
+                return from;
+            }
+            int step = 1;
+            while (from + step < size && docs[from + step] < doc) {
+                from += step;
+                step *= 2;
+            }
+            int position = Arrays.binarySearch(docs, from + 1, Math.min(from + step + 1, size), doc);
+            return position >= 0 ? position : -position - 1;
+        }
+
+                int renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    docs[kept] = doc;
+                    frequencies[kept] = frequencies[i];
+                    kept++;
+                }
+            }
+            size = kept;
+            return kept;
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.SearchResultDTO;
+import com.hackaton.backend.model.Event;
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.ProjectRepository;
+import com.hackaton.backend.repository.TaskRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+/**
+ * Recherche plein texte sur les événements, projets et tâches, servie entièrement depuis un index
+ * en mémoire. L'index est construit au démarrage (ou relu depuis le disque si la base n'a pas changé
+ * depuis son écriture), puis tenu à jour par les services à chaque création, modification ou suppression.
+ */
+@Service
+public class SearchService {
+    public static final String TYPE_EVENT = "event";
+    public static final String TYPE_PROJECT = "project";
+    public static final String TYPE_TASK = "task";
+    public static final int MAX_LIMIT = 100;
+    public static final int MAX_OFFSET = 1000;
+
+    private static final Logger log = LoggerFactory.getLogger(SearchService.class);
+    private static final Set<String> TYPES = Set.of(TYPE_EVENT, TYPE_PROJECT, TYPE_TASK);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    // Vide : l'index n'est pas écrit sur disque et se reconstruit depuis la base à chaque démarrage
+    @Value("${search.index.path:}")
+    private String indexPath;
+
+    @Value("${search.rebuild.batch-size:1000}")
+    private int rebuildBatchSize;
+
+    private volatile SearchIndex index = new SearchIndex();
+    private volatile boolean ready;
+    // Suppressions arrivées pendant la reconstruction, que les lots lus avant elles ne doivent pas réintroduire.
+    // Son moniteur rend atomiques le test et l'ajout d'un document du lot face à une suppression concurrente.
+    private final Set<String> removedWhileBuilding = new HashSet<>();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        String stamp = databaseStamp();
+        SearchIndex snapshot = readSnapshot(stamp);
+        if (snapshot != null) {
+            index = snapshot;
+            log.info("Search index loaded from {} ({} documents, {} ms)",
+                    indexPath, snapshot.size(), System.currentTimeMillis() - start);
+        } else {
+            rebuild(TYPE_EVENT, eventRepository::findSearchDocuments);
+            rebuild(TYPE_PROJECT, projectRepository::findSearchDocuments);
+            rebuild(TYPE_TASK, taskRepository::findSearchDocuments);
+            log.info("Search index rebuilt from database ({} documents, {} ms)",
+                    index.size(), System.currentTimeMillis() - start);
+        }
+        synchronized (removedWhileBuilding) {
+            removedWhileBuilding.clear();
+            ready = true;
+        }
+    }
+
+    public SearchResultDTO search(String query, String type, int offset, int limit) {
+        if (!ready) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Index de recherche en cours de construction");
+        }
+        if (type != null && !TYPES.contains(type)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Type de recherche inconnu : " + type);
+        }
+        String trimmed = query == null ? "" : query.stripLeading();
+        return index.search(trimmed, type,
+                Math.max(0, Math.min(offset, MAX_OFFSET)),
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+
+    /**
+     * Les méthodes index et remove s'appellent après validation de l'écriture (voir {@link AfterCommit}) :
+     * une création ou modification annulée ne doit pas rester trouvable.
+     */
+    public void index(Event event) {
+        index.put(new SearchDocument(TYPE_EVENT, event.getId(), event.getVersion(), event.getTitle(),
+                join(event.getDescription(), event.getLocation())));
+    }
+
+    public void index(Project project) {
+        index.put(new SearchDocument(TYPE_PROJECT, project.getId(), project.getVersion(), project.getName(),
+                project.getDescription()));
+    }
+
+    public void index(Task task) {
+        index.put(new SearchDocument(TYPE_TASK, task.getId(), task.getVersion(), task.getTitle(),
+                task.getDescription()));
+    }
+
+    public void remove(String type, Long id) {
+        synchronized (removedWhileBuilding) {
+            if (!ready) {
+                removedWhileBuilding.add(type + ':' + id);
+            }
+            index.remove(type, id);
+        }
+    }
+
+    @PreDestroy
+    void writeSnapshot() {
+        if (!ready || indexPath.isBlank()) {
+            return;
+        }
+        Path target = Path.of(indexPath);
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path temporary = Files.createTempFile(parent, "search-index", ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                index.writeTo(out, databaseStamp());
+            }
+            // Remplacement atomique : un arrêt brutal laisse l'ancien fichier intact
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not write search index to {}", indexPath, e);
+        }
+    }
+
+    private void rebuild(String type, BiFunction<Long, PageRequest, List<SearchDocument>> batches) {
+        long afterId = 0L;
+        List<SearchDocument> batch;
+        do {
+            batch = batches.apply(afterId, PageRequest.of(0, rebuildBatchSize));
+            // Verrou tenu pour tout le lot, lu hors verrou : une suppression attend au plus l'indexation d'un lot
+            synchronized (removedWhileBuilding) {
+                for (SearchDocument document : batch) {
+                    if (!removedWhileBuilding.contains(type + ':' + document.getId())) {
+                        index.put(document);
+                    }
+                    afterId = document.getId();
+                }
+            }
+        } while (batch.size() == rebuildBatchSize);
+    }
+
+    private SearchIndex readSnapshot(String stamp) {
+        if (indexPath.isBlank() || !Files.isRegularFile(Path.of(indexPath))) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(Path.of(indexPath))))) {
+            return SearchIndex.readFrom(in, stamp);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable search index {}", indexPath, e);
+            return null;
+        }
+    }
+
+    // Change dès qu'une ligne est ajoutée, modifiée ou supprimée dans l'une des trois tables
+    private String databaseStamp() {
+        return eventRepository.stamp().etag(TYPE_EVENT,
+                projectRepository.stamp().etag(TYPE_PROJECT), taskRepository.stamp().etag(TYPE_TASK));
+    }
+
+    private static String join(String first, String second) {
+        if (first == null) {
+            return second;
+        }
+        return second == null ? first : first + ' ' + second;
+    }
+}
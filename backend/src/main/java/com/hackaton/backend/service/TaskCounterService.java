@@ -0,0 +1,151 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.TaskStatusCountDTO;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.repository.TaskStatusCountRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Nombre de tâches par (projet, statut) et par (assigné, statut), maintenus à chaque écriture
+ * de tâche : la progression de centaines de projets se lit en une requête sur quelques lignes.
+ */
+@Service
+public class TaskCounterService {
+    public static final String SCOPE_PROJECT = "project";
+    public static final String SCOPE_ASSIGNEE = "assignee";
+
+    private static final String COUNTER_LOCK = "task_status_counts";
+
+    @Autowired
+    private TaskStatusCountRepository taskStatusCountRepository;
+
+    @Autowired
+    private RebuildLockService rebuildLockService;
+
+    /**
+     * Clés de compteur d'une tâche, capturées avant modification.
+     */
+    public record CounterEntry(Long projectId, Long assigneeId, String status) {
+        public static CounterEntry of(Task task) {
+            return new CounterEntry(task.getProject() != null ? task.getProject().getId() : null,
+                    task.getAssignedTo() != null ? task.getAssignedTo().getId() : null,
+                    task.getStatus());
+        }
+    }
+
+    /**
+     * Répercute le passage de {@code before} à {@code after} sur les compteurs ; l'un ou l'autre
+     * peut être null (création, suppression). Doit s'exécuter dans la transaction de l'écriture.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordChange(CounterEntry before, CounterEntry after) {
+        if (before != null && before.equals(after)) {
+            return;
+        }
+        Map<Counter, Long> deltas = new HashMap<>();
+        if (before != null) {
+            addDeltas(deltas, before, -1);
+        }
+        if (after != null) {
+            addDeltas(deltas, after, 1);
+        }
+        deltas.values().removeIf(delta -> delta == 0);
+        if (deltas.isEmpty()) {
+            return;
+        }
+        rebuildLockService.lockForWrite(COUNTER_LOCK);
+        // Un seul upsert par compteur réellement modifié (un changement d'assigné ne touche pas le projet)
+        deltas.forEach((counter, delta) ->
+                taskStatusCountRepository.upsert(counter.scope(), counter.scopeId(), counter.status(), delta));
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Long>> getProjectCounts(Collection<Long> projectIds) {
+        return getCounts(SCOPE_PROJECT, projectIds);
+    }
+
+    @Transactional(readOnly = true)
+    public Map<Long, Map<String, Long>> getAssigneeCounts(Collection<Long> userIds) {
+        return getCounts(SCOPE_ASSIGNEE, userIds);
+    }
+
+    /**
+     * Construit les compteurs depuis la table des tâches s'ils ne l'ont jamais été (ligne de verrou
+     * absente). Appelé au démarrage, avant toute écriture : les suivantes n'ont plus qu'à appliquer leur delta.
+     */
+    @Transactional
+    public void seed() {
+        if (!rebuildLockService.exists(COUNTER_LOCK)) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Recalcule tous les compteurs depuis la table des tâches (correction). Les écritures concurrentes
+     * attendent la fin de la reconstruction pour appliquer leur delta (voir RebuildLockService).
+     */
+    @Transactional
+    public Map<String, Object> rebuild() {
+        rebuildLockService.lockForRebuild(COUNTER_LOCK);
+        List<TaskStatusCountDTO> projectCounts = taskStatusCountRepository.computeProjectCounts();
+        List<TaskStatusCountDTO> assigneeCounts = taskStatusCountRepository.computeAssigneeCounts();
+        taskStatusCountRepository.deleteAllCounts();
+        insertCounts(SCOPE_PROJECT, projectCounts);
+        insertCounts(SCOPE_ASSIGNEE, assigneeCounts);
+        Map<String, Object> result = new HashMap<>();
+        result.put("projectCounters", projectCounts.size());
+        result.put("assigneeCounters", assigneeCounts.size());
+        return result;
+    }
+
+    private void insertCounts(String scope, List<TaskStatusCountDTO> counts) {
+        for (TaskStatusCountDTO count : counts) {
+            taskStatusCountRepository.upsert(scope, count.getScopeId(), count.getStatus(), count.getCount());
+        }
+    }
+
+    // Chaque identifiant demandé figure dans la réponse, avec une map vide s'il n'a aucune tâche
+    private Map<Long, Map<String, Long>> getCounts(String scope, Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.removeIf(Objects::isNull);
+        if (distinctIds.size() > UserService.MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trop d'identifiants demandés (maximum " + UserService.MAX_BATCH_IDS + ")");
+        }
+        Map<Long, Map<String, Long>> counts = new LinkedHashMap<>();
+        for (Long id : distinctIds) {
+            counts.put(id, new LinkedHashMap<>());
+        }
+        if (!distinctIds.isEmpty()) {
+            for (TaskStatusCountDTO count : taskStatusCountRepository.findCounts(scope, distinctIds)) {
+                counts.get(count.getScopeId()).put(count.getStatus(), count.getCount());
+            }
+        }
+        return counts;
+    }
+
+    private static void addDeltas(Map<Counter, Long> deltas, CounterEntry entry, long delta) {
+        if (entry.projectId() != null) {
+            deltas.merge(new Counter(SCOPE_PROJECT, entry.projectId(), entry.status()), delta, Long::sum);
+        }
+        if (entry.assigneeId() != null) {
+            deltas.merge(new Counter(SCOPE_ASSIGNEE, entry.assigneeId(), entry.status()), delta, Long::sum);
+        }
+    }
+
+    private record Counter(String scope, Long scopeId, String status) {
+    }
+}
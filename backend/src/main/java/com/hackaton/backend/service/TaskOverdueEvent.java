@@ -0,0 +1,9 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.TaskDTO;
+
+/**
+ * Publiée (événement applicatif Spring) au moment où une tâche non terminée dépasse son échéance.
+ */
+public record TaskOverdueEvent(TaskDTO task) {
+}
@@ -1,33 +1,152 @@
 package com.hackaton.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.FieldSelection;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.TaskDTO;
+import com.hackaton.backend.model.Project;
 import com.hackaton.backend.model.Task;
+import com.hackaton.backend.repository.ProjectRepository;
 import com.hackaton.backend.repository.TaskRepository;
+import com.hackaton.backend.repository.UserRepository;
+import com.hackaton.backend.repository.FieldSelectionRepository;
+import com.hackaton.backend.service.TaskCounterService.CounterEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TaskService {
+    public static final String STATUS_COMPLETED = "completed";
+    public static final String STATUS_CANCELLED = "cancelled";
+    // Statuts pour lesquels une échéance dépassée n'est plus un retard
+    public static final Set<String> CLOSED_STATUSES = Set.of(STATUS_COMPLETED, STATUS_CANCELLED);
+    // Champs modifiables par PATCH (project et assignedTo sous la forme {"id": ...}, comme pour PUT)
+    public static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "dueDate", "priority", "status",
+            "project", "assignedTo");
+    public static final Set<String> NULLABLE_FIELDS = Set.of("description");
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private FieldSelectionRepository fieldSelectionRepository;
+
+    @Autowired
+    private SearchService searchService;
+
+    @Autowired
+    private OverdueTaskService overdueTaskService;
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Task createTask(Task task) {
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskCounterService.recordChange(null, CounterEntry.of(saved));
+        reindex(saved);
+        publishChange(ChangeEvent.ACTION_CREATE, saved);
+        return saved;
     }
 
+    @Transactional
     public Task updateTask(Task task) {
-        if (!taskRepository.existsById(task.getId())) {
-            throw new RuntimeException("Task not found with id: " + task.getId());
+        Task existing = getTaskById(task.getId());
+        CounterEntry before = CounterEntry.of(existing);
+        if (task.getVersion() == null) {
+            // Sans version fournie par le client, la mise à jour reste « dernière écriture gagnante »
+            task.setVersion(existing.getVersion());
         }
-        return taskRepository.save(task);
+        // Flush immédiat : la version incrémentée (ETag de la réponse) est connue avant le retour
+        Task saved = taskRepository.saveAndFlush(task);
+        taskCounterService.recordChange(before, CounterEntry.of(saved));
+        reindex(saved);
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
     }
 
-    public void deleteTask(Long id) {
-        if (!taskRepository.existsById(id)) {
-            throw new RuntimeException("Task not found with id: " + id);
+    /**
+     * Modifie les seuls champs présents dans {@code changes}. {@code expectedVersion} (If-Match ou
+     * clé "version") null : pas de contrôle préalable, seul le flush détecte une écriture concurrente.
+     */
+    @Transactional
+    public Task patchTask(Long id, Long expectedVersion, Map<String, Object> changes) {
+        Task existing = getTaskById(id);
+        EntityPatch.requireVersion(Task.class, id, existing.getVersion(), expectedVersion);
+        CounterEntry before = CounterEntry.of(existing);
+        Task patched = EntityPatch.apply(objectMapper, existing, changes, PATCHABLE_FIELDS, NULLABLE_FIELDS);
+        // Associations reçues sous la forme {"id": ...} : remplacées par des références gérées
+        if (changes.containsKey("project")) {
+            patched.setProject(projectRepository.getReferenceById(requireId("project", patched.getProject().getId())));
         }
-        taskRepository.deleteById(id);
+        if (changes.containsKey("assignedTo")) {
+            patched.setAssignedTo(userRepository.getReferenceById(requireId("assignedTo", patched.getAssignedTo().getId())));
+        }
+        Task saved = taskRepository.saveAndFlush(patched);
+        taskCounterService.recordChange(before, CounterEntry.of(saved));
+        reindex(saved);
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
+    }
+
+    // Raccourcis des PATCH équivalents : mêmes index, compteurs et notifications
+    @Transactional
+    public Task assignTask(Long id, Long userId) {
+        return patchTask(id, null, Map.of("assignedTo", Map.of("id", userId)));
+    }
+
+    @Transactional
+    public Task completeTask(Long id) {
+        return patchTask(id, null, Map.of("status", STATUS_COMPLETED));
+    }
+
+    @Transactional
+    public void deleteTask(Long id) {
+        Task existing = getTaskById(id);
+        CounterEntry before = CounterEntry.of(existing);
+        taskRepository.delete(existing);
+        taskCounterService.recordChange(before, null);
+        AfterCommit.run(() -> {
+            searchService.remove(SearchService.TYPE_TASK, id);
+            overdueTaskService.untrack(id);
+        });
+        publishChange(ChangeEvent.ACTION_DELETE, existing);
+    }
+
+    // Nombre de tâches par statut pour chaque projet demandé
+    public Map<Long, Map<String, Long>> getProjectStatusCounts(Collection<Long> projectIds) {
+        return taskCounterService.getProjectCounts(projectIds);
+    }
+
+    // Nombre de tâches par statut pour chaque utilisateur assigné demandé
+    public Map<Long, Map<String, Long>> getAssigneeStatusCounts(Collection<Long> userIds) {
+        return taskCounterService.getAssigneeCounts(userIds);
+    }
+
+    public Map<String, Object> rebuildStatusCounts() {
+        return taskCounterService.rebuild();
     }
 
     public Task getTaskById(Long id) {
@@ -55,8 +174,9 @@ public class TaskService {
         return taskRepository.findByPriority(priority);
     }
 
-    public List<Task> getOverdueTasks(LocalDateTime date) {
-        return taskRepository.findByDueDateBefore(date);
+    // Tâches non terminées dont l'échéance est passée à cette date, servies depuis le suivi en mémoire
+    public List<TaskDTO> getOverdueTasks(LocalDateTime date) {
+        return getOverdueTasksPage(date, null, PageCursor.MAX_LIMIT).getItems();
     }
 
     public List<Task> getTasksByProjectAndStatus(Long projectId, String status) {
@@ -66,4 +186,133 @@ public class TaskService {
     public List<Task> getTasksByUserAndStatus(Long userId, String status) {
         return taskRepository.findByAssignedToIdAndStatus(userId, status);
     }
-}
\ No newline at end of file
+
+    public CursorPage<TaskDTO> getTasksPage(String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    /**
+     * Comme {@link #getTasksPage(String, int)}, réduit aux champs demandés (plus id et createdAt pour le curseur).
+     */
+    public CursorPage<Map<String, Object>> getTasksFieldsPage(String fields, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        FieldSelection selection = FieldSelection.parse(fields, TaskRepository.LIST_FIELDS, "id", "createdAt");
+        return CursorPage.of(fieldSelectionRepository.findPage(selection, "Task t", TaskRepository.AFTER_CREATED_AT,
+                        Map.of("key", cursor.key(), "id", cursor.id()), PageCursor.limit(limit)),
+                TaskService::byCreatedAtField);
+    }
+
+    public CursorPage<TaskDTO> getTasksByProjectPage(Long projectId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByProjectId(projectId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    public CursorPage<TaskDTO> getTasksByAssignedUserPage(Long userId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByAssignedToId(userId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    public CursorPage<TaskDTO> getTasksByStatusPage(String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByStatus(status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    public CursorPage<TaskDTO> getTasksByPriorityPage(String priority, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByPriority(priority, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    public CursorPage<TaskDTO> getOverdueTasksPage(LocalDateTime date, String after, int limit) {
+        if (overdueTaskService.isReady()) {
+            return overdueTaskService.getOverdue(date, after, limit);
+        }
+        // Suivi pas encore chargé au démarrage : lecture en base
+        PageCursor cursor = PageCursor.ascendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByDueDateBefore(date, CLOSED_STATUSES, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byDueDate);
+    }
+
+    public CursorPage<TaskDTO> getTasksByProjectAndStatusPage(Long projectId, String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByProjectIdAndStatus(projectId, status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    public CursorPage<TaskDTO> getTasksByUserAndStatusPage(Long userId, String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(taskRepository.findPageByAssignedToIdAndStatus(userId, status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TaskService::byCreatedAt);
+    }
+
+    /**
+     * ETag du GET /{id} : la réponse inclut le projet, son propriétaire et l'assigné, dont les versions
+     * font donc partie de l'ETag ("tâche.projet.propriétaire.assigné").
+     */
+    public String getTaskETag(Long id) {
+        return taskRepository.findVersionsById(id).map(versions -> "\"" + versions + "\"").orElse(null);
+    }
+
+    public String getTaskETag(Task task) {
+        Project project = task.getProject();
+        return "\"" + task.getVersion() + "." + project.getVersion() + "." + project.getUser().getVersion()
+                + "." + task.getAssignedTo().getVersion() + "\"";
+    }
+
+    public String getTasksPageETag(String fields, String after, int limit) {
+        return taskRepository.stamp().etag("tasks", fields, after, limit);
+    }
+
+    public String getTasksByProjectPageETag(Long projectId, String after, int limit) {
+        return taskRepository.stampByProjectId(projectId).etag("tasks/project", projectId, after, limit);
+    }
+
+    public String getTasksByAssignedUserPageETag(Long userId, String after, int limit) {
+        return taskRepository.stampByAssignedToId(userId).etag("tasks/user", userId, after, limit);
+    }
+
+    public String getTasksByStatusPageETag(String status, String after, int limit) {
+        return taskRepository.stampByStatus(status).etag("tasks/status", status, after, limit);
+    }
+
+    public String getTasksByPriorityPageETag(String priority, String after, int limit) {
+        return taskRepository.stampByPriority(priority).etag("tasks/priority", priority, after, limit);
+    }
+
+    // Les compteurs, en base, sont mis à jour dans la transaction ; les index en mémoire après sa validation
+    private void reindex(Task saved) {
+        AfterCommit.run(() -> {
+            searchService.index(saved);
+            overdueTaskService.track(saved);
+        });
+    }
+
+    private void publishChange(String action, Task task) {
+        Long assigneeId = task.getAssignedTo() != null ? task.getAssignedTo().getId() : null;
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_TASK, action, task.getId(), assigneeId));
+    }
+
+    private static Long requireId(String field, Long id) {
+        if (id == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Identifiant manquant : " + field + ".id");
+        }
+        return id;
+    }
+
+    private static PageCursor byCreatedAt(TaskDTO task) {
+        return new PageCursor(task.getCreatedAt(), task.getId());
+    }
+
+    private static PageCursor byDueDate(TaskDTO task) {
+        return new PageCursor(task.getDueDate(), task.getId());
+    }
+
+    private static PageCursor byCreatedAtField(Map<String, Object> task) {
+        return new PageCursor((LocalDateTime) task.get("createdAt"), (Long) task.get("id"));
+    }
+}
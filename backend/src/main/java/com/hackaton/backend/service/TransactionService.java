@@ -1,34 +1,168 @@
 package com.hackaton.backend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.BalanceDTO;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.RelatedEntityReportDTO;
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.dto.TransactionDTO;
+import com.hackaton.backend.model.RelatedEntity;
 import com.hackaton.backend.model.Transaction;
 import com.hackaton.backend.repository.TransactionRepository;
+import com.hackaton.backend.service.LedgerBalanceService.LedgerEntry;
+import com.hackaton.backend.service.ReportService.RollupEntry;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 @Service
 public class TransactionService {
+    public static final String STATUS_PENDING = "pending";
+    public static final String STATUS_COMPLETED = "completed";
+    // Champs modifiables par PATCH ; l'utilisateur ne change pas
+    public static final Set<String> PATCHABLE_FIELDS = Set.of("type", "amount", "description", "date", "category",
+            "status", "relatedTo");
+    public static final Set<String> NULLABLE_FIELDS = Set.of("relatedTo");
+
     @Autowired
     private TransactionRepository transactionRepository;
 
+    @Autowired
+    private LedgerBalanceService ledgerBalanceService;
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private AuditLogService auditLogService;
+
+    @Autowired
+    private RelatedEntityValidator relatedEntityValidator;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Transactional
     public Transaction createTransaction(Transaction transaction) {
-        return transactionRepository.save(transaction);
+        relatedEntityValidator.validate(transaction.getRelatedTo());
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerBalanceService.recordChange(null, LedgerEntry.of(saved));
+        reportService.recordChange(null, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_CREATE, saved.getId(),
+                null, AuditRecord.State.of(saved));
+        publishChange(ChangeEvent.ACTION_CREATE, saved);
+        return saved;
     }
 
+    @Transactional
     public Transaction updateTransaction(Transaction transaction) {
-        if (!transactionRepository.existsById(transaction.getId())) {
-            throw new RuntimeException("Transaction not found with id: " + transaction.getId());
+        Transaction existing = getTransactionById(transaction.getId());
+        relatedEntityValidator.validate(transaction.getRelatedTo());
+        LedgerEntry before = LedgerEntry.of(existing);
+        RollupEntry rollupBefore = RollupEntry.of(existing);
+        AuditRecord.State auditBefore = AuditRecord.State.of(existing);
+        if (transaction.getVersion() == null) {
+            // Sans version fournie par le client, la mise à jour reste « dernière écriture gagnante »
+            transaction.setVersion(existing.getVersion());
         }
-        return transactionRepository.save(transaction);
+        // Le merge retrouve l'entité déjà chargée et compare les versions
+        Transaction saved = transactionRepository.saveAndFlush(transaction);
+        ledgerBalanceService.recordChange(before, LedgerEntry.of(saved));
+        reportService.recordChange(rollupBefore, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_UPDATE, saved.getId(),
+                auditBefore, AuditRecord.State.of(saved));
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
     }
 
+    /**
+     * Modifie les seuls champs présents dans {@code changes} : un unique UPDATE des colonnes modifiées,
+     * conditionné par la version, puis solde et cumuls ajustés dans la même transaction.
+     */
+    @Transactional
+    public Transaction patchTransaction(Long id, Long expectedVersion, Map<String, Object> changes) {
+        Transaction existing = getTransactionById(id);
+        EntityPatch.requireVersion(Transaction.class, id, existing.getVersion(), expectedVersion);
+        LedgerEntry before = LedgerEntry.of(existing);
+        RollupEntry rollupBefore = RollupEntry.of(existing);
+        AuditRecord.State auditBefore = AuditRecord.State.of(existing);
+        Transaction patched = EntityPatch.apply(objectMapper, existing, changes, PATCHABLE_FIELDS, NULLABLE_FIELDS);
+        if (changes.containsKey("relatedTo")) {
+            relatedEntityValidator.validate(patched.getRelatedTo());
+        }
+        Transaction saved = transactionRepository.saveAndFlush(patched);
+        ledgerBalanceService.recordChange(before, LedgerEntry.of(saved));
+        reportService.recordChange(rollupBefore, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_UPDATE, id,
+                auditBefore, AuditRecord.State.of(saved));
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
+    }
+
+    @Transactional
     public void deleteTransaction(Long id) {
-        if (!transactionRepository.existsById(id)) {
-            throw new RuntimeException("Transaction not found with id: " + id);
+        Transaction existing = getTransactionById(id);
+        LedgerEntry before = LedgerEntry.of(existing);
+        RollupEntry rollupBefore = RollupEntry.of(existing);
+        transactionRepository.delete(existing);
+        ledgerBalanceService.recordChange(before, null);
+        reportService.recordChange(rollupBefore, null);
+        auditLogService.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_DELETE, id,
+                AuditRecord.State.of(existing), null);
+        publishChange(ChangeEvent.ACTION_DELETE, existing);
+    }
+
+    @Transactional
+    public Transaction processTransaction(Long id) {
+        Transaction transaction = getTransactionById(id);
+        if (LedgerBalanceService.STATUS_CANCELLED.equalsIgnoreCase(transaction.getStatus())) {
+            throw new RuntimeException("Cannot process cancelled transaction with id: " + id);
         }
-        transactionRepository.deleteById(id);
+        return changeStatus(transaction, STATUS_COMPLETED, AuditRecord.ACTION_PROCESS);
+    }
+
+    @Transactional
+    public Transaction cancelTransaction(Long id) {
+        return changeStatus(getTransactionById(id), LedgerBalanceService.STATUS_CANCELLED, AuditRecord.ACTION_CANCEL);
+    }
+
+    private Transaction changeStatus(Transaction transaction, String status, String auditAction) {
+        LedgerEntry before = LedgerEntry.of(transaction);
+        RollupEntry rollupBefore = RollupEntry.of(transaction);
+        AuditRecord.State auditBefore = AuditRecord.State.of(transaction);
+        transaction.setStatus(status);
+        Transaction saved = transactionRepository.save(transaction);
+        ledgerBalanceService.recordChange(before, LedgerEntry.of(saved));
+        reportService.recordChange(rollupBefore, RollupEntry.of(saved));
+        auditLogService.record(AuditRecord.ENTITY_TRANSACTION, auditAction, saved.getId(),
+                auditBefore, AuditRecord.State.of(saved));
+        publishChange(ChangeEvent.ACTION_UPDATE, saved);
+        return saved;
+    }
+
+    // Traitement et annulation sont notifiés comme des mises à jour (changement de statut)
+    private void publishChange(String action, Transaction transaction) {
+        Long userId = transaction.getUser() != null ? transaction.getUser().getId() : null;
+        eventPublisher.publishEvent(ChangeEvent.of(ChangeEvent.ENTITY_TRANSACTION, action, transaction.getId(), userId));
+    }
+
+    public BalanceDTO getCurrentBalance() {
+        return ledgerBalanceService.getBalance();
+    }
+
+    public Map<String, Object> rebuildBalance() {
+        return ledgerBalanceService.rebuild();
     }
 
     public Transaction getTransactionById(Long id) {
@@ -71,4 +205,87 @@ public class TransactionService {
     public List<Transaction> getTransactionsByUserAndCategory(Long userId, String category) {
         return transactionRepository.findByUserIdAndCategory(userId, category);
     }
-}
\ No newline at end of file
+
+    public CursorPage<TransactionDTO> getTransactionsPage(String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByUserPage(Long userId, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByUserId(userId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByTypePage(String type, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByType(type, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByCategoryPage(String category, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByCategory(category, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByStatusPage(String status, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByStatus(status, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByDateRangePage(LocalDateTime start, LocalDateTime end, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByDateBetween(start, end, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByMinAmountPage(BigDecimal amount, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByAmountGreaterThan(amount, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByUserAndTypePage(Long userId, String type, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByUserIdAndType(userId, type, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    public CursorPage<TransactionDTO> getTransactionsByUserAndCategoryPage(Long userId, String category, String after, int limit) {
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        return CursorPage.of(transactionRepository.findPageByUserIdAndCategory(userId, category, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+    }
+
+    /**
+     * Transactions liées à un événement, un projet ou à l'organisation, avec leurs totaux, en un seul appel.
+     */
+    @Transactional(readOnly = true)
+    public RelatedEntityReportDTO<TransactionDTO> getRelatedEntityReport(String relatedType, Long relatedId, String after, int limit) {
+        String type = RelatedEntity.requireSupportedType(relatedType);
+        PageCursor cursor = PageCursor.descendingFrom(after);
+        CursorPage<TransactionDTO> page = CursorPage.of(
+                transactionRepository.findPageByRelatedTo(type, relatedId, cursor.key(), cursor.id(), PageCursor.limit(limit)),
+                TransactionService::byDate);
+        List<RollupTotalDTO> totals = transactionRepository.sumByTypeForRelatedTo(type, relatedId, LedgerBalanceService.STATUS_CANCELLED);
+
+        RelatedEntityReportDTO<TransactionDTO> report = RelatedEntityReportDTO.of(type, relatedId, page, totals);
+        BigDecimal net = BigDecimal.ZERO;
+        for (RollupTotalDTO total : totals) {
+            if (LedgerBalanceService.TYPE_DEPOSIT.equalsIgnoreCase(total.getType())) {
+                net = net.add(total.getAmount());
+            } else if (LedgerBalanceService.TYPE_WITHDRAWAL.equalsIgnoreCase(total.getType())) {
+                net = net.subtract(total.getAmount());
+            }
+        }
+        report.setNetAmount(net);
+        return report;
+    }
+
+    private static PageCursor byDate(TransactionDTO transaction) {
+        return new PageCursor(transaction.getDate(), transaction.getId());
+    }
+}
@@ -0,0 +1,57 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.UserDTO;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+@Service
+public class UserService {
+    public static final int MAX_BATCH_IDS = 5000;
+
+    public static final String DEFAULT_ROLE = "USER";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    public boolean existsByEmail(String email) {
+        return userRepository.existsByEmail(email);
+    }
+
+    // Le rôle n'est jamais pris dans la requête : une inscription ne peut pas créer d'administrateur
+    public User registerUser(User user) {
+        user.setId(null);
+        user.setVersion(null);
+        user.setRole(DEFAULT_ROLE);
+        user.setPassword(passwordEncoder.encode(user.getPassword()));
+        return userRepository.save(user);
+    }
+
+    /**
+     * Résout un lot d'identifiants en une seule requête ; les identifiants inconnus sont ignorés.
+     */
+    public List<UserDTO> getUserSummaries(Collection<Long> ids) {
+        Set<Long> distinctIds = new LinkedHashSet<>(ids);
+        distinctIds.removeIf(Objects::isNull);
+        if (distinctIds.isEmpty()) {
+            return List.of();
+        }
+        if (distinctIds.size() > MAX_BATCH_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Trop d'identifiants demandés (maximum " + MAX_BATCH_IDS + ")");
+        }
+        return userRepository.findSummariesByIdIn(distinctIds);
+    }
+}
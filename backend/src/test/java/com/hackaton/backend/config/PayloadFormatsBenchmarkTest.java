@@ -0,0 +1,107 @@
+package com.hackaton.backend.config;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.EventDTO;
+import com.hackaton.backend.dto.PageCursor;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Taille et temps de sérialisation d'une même page de liste en JSON, Smile et CBOR, avec les
+ * convertisseurs de {@link BinaryFormatsConfig} : page complète et page réduite par ?fields=.
+ * Les tailles sont déterministes ; les temps sont journalisés, pas vérifiés.
+ */
+class PayloadFormatsBenchmarkTest {
+    private static final Logger log = LoggerFactory.getLogger(PayloadFormatsBenchmarkTest.class);
+    private static final int WARMUP_ROUNDS = 2_000;
+    private static final int MEASURED_ROUNDS = 5_000;
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private final BinaryFormatsConfig config = new BinaryFormatsConfig();
+    private final Map<String, ObjectMapper> mappers = Map.of(
+            "json", builder().build(),
+            "smile", config.smileHttpMessageConverter(builder()).getObjectMapper(),
+            "cbor", config.cborHttpMessageConverter(builder()).getObjectMapper());
+
+    @Test
+    void fullPageSizeAndSerializationTime() throws Exception {
+        CursorPage<EventDTO> page = eventPage();
+        Map<String, Integer> sizes = measure("events, all fields", page);
+
+        for (ObjectMapper mapper : mappers.values()) {
+            CursorPage<EventDTO> decoded = mapper.readValue(mapper.writeValueAsBytes(page), new TypeReference<>() {});
+            assertThat(decoded).isEqualTo(page);
+        }
+        // Smile ne répète pas les noms de champ d'un élément à l'autre
+        assertThat(sizes.get("smile")).isLessThan(sizes.get("json"));
+    }
+
+    @Test
+    void sparsePageSizeAndSerializationTime() throws Exception {
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (EventDTO event : eventPage().getItems()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("id", event.getId());
+            item.put("createdAt", event.getCreatedAt());
+            item.put("title", event.getTitle());
+            item.put("startDate", event.getStartDate());
+            items.add(item);
+        }
+        Map<String, Integer> sparse = measure("events, ?fields=title,startDate",
+                new CursorPage<>(items, "next", PageCursor.DEFAULT_LIMIT));
+        CursorPage<EventDTO> full = eventPage();
+
+        for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+            assertThat(sparse.get(mapper.getKey())).isLessThan(mapper.getValue().writeValueAsBytes(full).length);
+        }
+    }
+
+    // Taille en octets par format ; temps moyen journalisé
+    private Map<String, Integer> measure(String label, Object page) throws Exception {
+        Map<String, Integer> sizes = new LinkedHashMap<>();
+        for (String format : List.of("json", "smile", "cbor")) {
+            ObjectMapper mapper = mappers.get(format);
+            int size = mapper.writeValueAsBytes(page).length;
+            for (int round = 0; round < WARMUP_ROUNDS; round++) {
+                size = mapper.writeValueAsBytes(page).length;
+            }
+            long start = System.nanoTime();
+            for (int round = 0; round < MEASURED_ROUNDS; round++) {
+                size = mapper.writeValueAsBytes(page).length;
+            }
+            long perPage = (System.nanoTime() - start) / MEASURED_ROUNDS;
+            sizes.put(format, size);
+            log.info("Payload {} as {}: {} bytes, {} us per page", label, format, size, perPage / 1_000.0);
+        }
+        return sizes;
+    }
+
+    // Même configuration que le mapper de Spring Boot : dates ISO-8601, modules détectés
+    private static Jackson2ObjectMapperBuilder builder() {
+        return new Jackson2ObjectMapperBuilder().featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    }
+
+    private static CursorPage<EventDTO> eventPage() {
+        List<EventDTO> items = new ArrayList<>();
+        for (long id = 1; id <= PageCursor.DEFAULT_LIMIT; id++) {
+            LocalDateTime start = T0.plusDays(id);
+            items.add(new EventDTO(id, "Atelier " + id, "Présentation des projets de l'équipe " + id,
+                    start, start.plusHours(2), "Salle " + (id % 5), "planned", 10 + id % 7,
+                    T0.minusDays(id), T0.minusDays(id).plusHours(1)));
+        }
+        return new CursorPage<>(items, new PageCursor(T0, 50L).encode(), PageCursor.DEFAULT_LIMIT);
+    }
+}
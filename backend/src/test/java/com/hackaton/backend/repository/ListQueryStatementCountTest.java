@@ -0,0 +1,222 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.model.Event;
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.security.UserChangeListener;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Nombre de requêtes SQL des listes (celles des endpoints GET de collection) : une seule requête quel
+ * que soit le nombre de lignes, associations sérialisées comprises. Un N+1 réintroduit (association
+ * passée en EAGER, graphe d'entités retiré) fait échouer le test.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@Import(UserChangeListener.class)
+class ListQueryStatementCountTest {
+    private static final int OWNERS = 5;
+    private static final int PROJECTS_PER_OWNER = 4;
+    private static final int TASKS_PER_PROJECT = 5;
+    private static final String STATUS = "active";
+    private static final String PRIORITY = "high";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    private Statistics statistics;
+    private final List<User> owners = new ArrayList<>();
+    private final List<Project> projects = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+        LocalDateTime now = LocalDateTime.now();
+        for (int o = 0; o < OWNERS; o++) {
+            User owner = user("owner" + o);
+            owners.add(owner);
+            for (int p = 0; p < PROJECTS_PER_OWNER; p++) {
+                Project project = new Project();
+                project.setName("Projet " + o + "-" + p);
+                project.setStartDate(now.minusDays(p));
+                project.setStatus(STATUS);
+                project.setBudget(1000.0 * (p + 1));
+                project.setUser(owner);
+                project.setCreatedAt(now);
+                project.setUpdatedAt(now);
+                entityManager.persist(project);
+                projects.add(project);
+
+                Event event = new Event();
+                event.setTitle("Événement " + o + "-" + p);
+                event.setStartDate(now.plusDays(p + 1));
+                event.setEndDate(now.plusDays(p + 2));
+                event.setLocation("Salle " + p);
+                event.setStatus(STATUS);
+                event.setUser(owner);
+                event.setCreatedAt(now);
+                event.setUpdatedAt(now);
+                entityManager.persist(event);
+            }
+        }
+        // Assignés distincts des propriétaires : chaque tâche référence deux utilisateurs différents
+        List<User> assignees = new ArrayList<>();
+        for (int a = 0; a < TASKS_PER_PROJECT; a++) {
+            assignees.add(user("assignee" + a));
+        }
+        for (Project project : projects) {
+            for (int t = 0; t < TASKS_PER_PROJECT; t++) {
+                Task task = new Task();
+                task.setTitle(project.getName() + " / tâche " + t);
+                task.setDueDate(now.minusDays(t));
+                task.setPriority(PRIORITY);
+                task.setStatus(STATUS);
+                task.setProject(project);
+                task.setAssignedTo(assignees.get(t));
+                task.setCreatedAt(now);
+                task.setUpdatedAt(now);
+                entityManager.persist(task);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void taskListsLoadProjectOwnerAndAssigneeInOneStatement() {
+        Long projectId = projects.get(0).getId();
+        Long assigneeId = taskRepository.findByProjectId(projectId).get(0).getAssignedTo().getId();
+        entityManager.clear();
+
+        assertTasksInOneStatement(() -> taskRepository.findAll());
+        assertTasksInOneStatement(() -> taskRepository.findByProjectId(projectId));
+        assertTasksInOneStatement(() -> taskRepository.findByAssignedToId(assigneeId));
+        assertTasksInOneStatement(() -> taskRepository.findByStatus(STATUS));
+        assertTasksInOneStatement(() -> taskRepository.findByPriority(PRIORITY));
+        assertTasksInOneStatement(() -> taskRepository.findByDueDateBefore(LocalDateTime.now().plusDays(1)));
+        assertTasksInOneStatement(() -> taskRepository.findByProjectIdAndStatus(projectId, STATUS));
+        assertTasksInOneStatement(() -> taskRepository.findByAssignedToIdAndStatus(assigneeId, STATUS));
+
+        PageCursor cursor = PageCursor.descendingFrom(null);
+        assertOneStatement(() -> taskRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+        assertOneStatement(() -> taskRepository.findPageByProjectId(projectId, cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+        assertOneStatement(() -> taskRepository.findPageByStatus(STATUS, cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+    }
+
+    @Test
+    void projectListsLoadOwnerInOneStatement() {
+        Long ownerId = owners.get(0).getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertProjectsInOneStatement(() -> projectRepository.findAll());
+        assertProjectsInOneStatement(() -> projectRepository.findByUserId(ownerId));
+        assertProjectsInOneStatement(() -> projectRepository.findByStatus(STATUS));
+        assertProjectsInOneStatement(() -> projectRepository.findByStartDateBetween(now.minusDays(30), now.plusDays(1)));
+        assertProjectsInOneStatement(() -> projectRepository.findByBudgetGreaterThan(0.0));
+        assertProjectsInOneStatement(() -> projectRepository.findByUserIdAndStatus(ownerId, STATUS));
+
+        PageCursor cursor = PageCursor.descendingFrom(null);
+        assertOneStatement(() -> projectRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+        assertOneStatement(() -> projectRepository.findPageByUserId(ownerId, cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+    }
+
+    @Test
+    void eventListsLoadOwnerInOneStatement() {
+        Long ownerId = owners.get(0).getId();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertEventsInOneStatement(() -> eventRepository.findAll());
+        assertEventsInOneStatement(() -> eventRepository.findByUserId(ownerId));
+        assertEventsInOneStatement(() -> eventRepository.findByStatus(STATUS));
+        assertEventsInOneStatement(() -> eventRepository.findByStartDateBetween(now, now.plusDays(30)));
+        assertEventsInOneStatement(() -> eventRepository.findByUserIdAndStatus(ownerId, STATUS));
+
+        PageCursor cursor = PageCursor.descendingFrom(null);
+        assertOneStatement(() -> eventRepository.findPage(cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+        assertOneStatement(() -> eventRepository.findPageByUserId(ownerId, cursor.key(), cursor.id(), PageCursor.limit(50)).getContent());
+    }
+
+    // Parcourt les associations comme la sérialisation JSON de la réponse
+    private void assertTasksInOneStatement(Supplier<List<Task>> query) {
+        assertOneStatement(() -> {
+            List<Task> tasks = query.get();
+            tasks.forEach(task -> {
+                task.getProject().getUser().getEmail();
+                task.getAssignedTo().getEmail();
+            });
+            return tasks;
+        });
+    }
+
+    private void assertProjectsInOneStatement(Supplier<List<Project>> query) {
+        assertOneStatement(() -> {
+            List<Project> projects = query.get();
+            projects.forEach(project -> project.getUser().getEmail());
+            return projects;
+        });
+    }
+
+    private void assertEventsInOneStatement(Supplier<List<Event>> query) {
+        assertOneStatement(() -> {
+            List<Event> events = query.get();
+            events.forEach(event -> event.getUser().getEmail());
+            return events;
+        });
+    }
+
+    private void assertOneStatement(Supplier<? extends Collection<?>> query) {
+        entityManager.clear();
+        statistics.clear();
+        Collection<?> rows = query.get();
+        assertThat(rows).isNotEmpty();
+        assertThat(statistics.getPrepareStatementCount())
+                .as("requêtes SQL pour %d lignes", rows.size())
+                .isEqualTo(1);
+    }
+
+    private User user(String name) {
+        User user = new User();
+        user.setEmail(name + "@example.com");
+        user.setPassword("secret");
+        user.setFirstName(name);
+        user.setLastName("Test");
+        user.setRole("USER");
+        entityManager.persist(user);
+        return user;
+    }
+}
@@ -0,0 +1,103 @@
+package com.hackaton.backend.repository;
+
+import com.hackaton.backend.dto.PageCursor;
+import com.hackaton.backend.dto.ProjectDTO;
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.security.CustomUserDetailsService;
+import com.hackaton.backend.security.UserChangeListener;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cache de requêtes sur la liste servie par GET /projects/status/{status} : la même page est relue
+ * depuis le cache, et toute écriture validée sur projects l'invalide. Chaque appel au dépôt valide sa
+ * propre transaction, comme en production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserChangeListener.class, CustomUserDetailsService.class})
+class ProjectStatusQueryCacheTest {
+    private static final String STATUS = "active";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Statistics statistics;
+    private User owner;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        owner = new User();
+        owner.setEmail("cache@example.com");
+        owner.setPassword("secret");
+        owner.setFirstName("Cache");
+        owner.setLastName("Test");
+        owner.setRole("USER");
+        owner = userRepository.save(owner);
+        projectRepository.save(project("Projet 1"));
+        projectRepository.save(project("Projet 2"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void statusPageIsServedFromQueryCacheUntilProjectsChange() {
+        statistics.clear();
+        assertThat(page()).hasSize(2);
+        assertThat(statistics.getQueryCachePutCount()).isEqualTo(1);
+
+        assertThat(page()).hasSize(2);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+
+        projectRepository.save(project("Projet 3"));
+        assertThat(page()).hasSize(3);
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(1);
+    }
+
+    private List<ProjectDTO> page() {
+        PageCursor cursor = PageCursor.descendingFrom(null);
+        return projectRepository.findPageByStatus(STATUS, cursor.key(), cursor.id(), PageCursor.limit(50)).getContent();
+    }
+
+    private Project project(String name) {
+        LocalDateTime now = LocalDateTime.now();
+        Project project = new Project();
+        project.setName(name);
+        project.setStartDate(now);
+        project.setStatus(STATUS);
+        project.setBudget(1000.0);
+        project.setUser(owner);
+        project.setCreatedAt(now);
+        project.setUpdatedAt(now);
+        return project;
+    }
+}
@@ -0,0 +1,87 @@
+package com.hackaton.backend.security;
+
+import io.jsonwebtoken.JwtParser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Coût par requête de l'authentification : première vérification d'un jeton (analyse et HMAC)
+ * contre une vérification servie par le cache des jetons déjà vérifiés. Le test vérifie que le
+ * cache évite l'analyse ; les temps sont seulement journalisés, car ils dépendent de la machine.
+ */
+class JwtTokenProviderTimingTest {
+    private static final Logger log = LoggerFactory.getLogger(JwtTokenProviderTimingTest.class);
+    private static final int TOKENS = 2000;
+    private static final int WARMUP_ROUNDS = 3;
+
+    private JwtTokenProvider tokenProvider;
+    private JwtParser parser;
+
+    @BeforeEach
+    void setUp() {
+        tokenProvider = new JwtTokenProvider();
+        ReflectionTestUtils.setField(tokenProvider, "jwtSecret", "hackatonSecretKey2025VerySecureAndLongKeyForJwtTokenGeneration");
+        ReflectionTestUtils.setField(tokenProvider, "jwtExpirationMs", 3_600_000);
+        ReflectionTestUtils.setField(tokenProvider, "verifiedCacheMaxSize", 4L * TOKENS);
+        tokenProvider.init();
+        parser = spy((JwtParser) ReflectionTestUtils.getField(tokenProvider, "parser"));
+        ReflectionTestUtils.setField(tokenProvider, "parser", parser);
+    }
+
+    @Test
+    void cachedVerifySkipsParsing() {
+        // Échauffement du JIT sur des jetons distincts de ceux mesurés
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            List<String> warmup = tokens("warmup" + round);
+            verifyAll(warmup);
+            verifyAll(warmup);
+        }
+        clearInvocations(parser);
+
+        List<String> tokens = tokens("user");
+        long cold = verifyAll(tokens);
+        verify(parser, times(TOKENS)).parseClaimsJws(anyString());
+        long cached = verifyAll(tokens);
+        // Aucune nouvelle analyse (ni HMAC) : tous les jetons viennent du cache
+        verify(parser, times(TOKENS)).parseClaimsJws(anyString());
+
+        log.info("JWT verify: cold {} ns/token, cached {} ns/token", cold / TOKENS, cached / TOKENS);
+        assertThat(tokenProvider.verify(tokens.get(0))).map(JwtTokenProvider.VerifiedToken::username)
+                .contains("user0@example.com");
+    }
+
+    private long verifyAll(List<String> tokens) {
+        long start = System.nanoTime();
+        for (String token : tokens) {
+            Optional<JwtTokenProvider.VerifiedToken> verified = tokenProvider.verify(token);
+            assertThat(verified).isPresent();
+        }
+        return System.nanoTime() - start;
+    }
+
+    private List<String> tokens(String prefix) {
+        List<SimpleGrantedAuthority> authorities = List.of(new SimpleGrantedAuthority("ROLE_USER"));
+        List<String> tokens = new ArrayList<>(TOKENS);
+        for (long id = 0; id < TOKENS; id++) {
+            UserPrincipal principal = new UserPrincipal(id, prefix + id + "@example.com", null, authorities);
+            tokens.add(tokenProvider.generateToken(new UsernamePasswordAuthenticationToken(principal, null, authorities)));
+        }
+        return tokens;
+    }
+}
@@ -0,0 +1,94 @@
+package com.hackaton.backend.security;
+
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.repository.UserRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Révocation des claims des jetons : version persistée, incrémentée par toute modification sauf le
+ * re-hachage du mot de passe, prise en compte après validation. Chaque appel au dépôt valide sa propre
+ * transaction, comme en production.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false"
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({UserChangeListener.class, CustomUserDetailsService.class})
+class UserTokenVersionTest {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CustomUserDetailsService userDetailsService;
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void roleChangeRevokesIssuedClaims() {
+        User user = userRepository.save(user("admin@example.com", "ADMIN"));
+        assertThat(user.getTokenVersion()).isZero();
+        assertThat(userDetailsService.isCurrent(user.getId(), 0)).isTrue();
+
+        User demoted = userRepository.findById(user.getId()).orElseThrow();
+        demoted.setRole("USER");
+        userRepository.save(demoted);
+
+        assertThat(userRepository.findTokenVersionById(user.getId())).contains(1L);
+        assertThat(userDetailsService.isCurrent(user.getId(), 0)).isFalse();
+        assertThat(userDetailsService.isCurrent(user.getId(), 1)).isTrue();
+    }
+
+    @Test
+    void passwordRehashKeepsIssuedClaims() {
+        User user = userRepository.save(user("rehash@example.com", "USER"));
+        UserPrincipal principal = new UserPrincipal(user.getId(), user.getEmail(), user.getPassword(),
+                List.of(new SimpleGrantedAuthority("ROLE_USER")), user.getTokenVersion());
+
+        userDetailsService.updatePassword(principal, "rehashed");
+
+        assertThat(userRepository.findTokenVersionById(user.getId())).contains(0L);
+        assertThat(userDetailsService.isCurrent(user.getId(), 0)).isTrue();
+    }
+
+    @Test
+    void deletionRevokesIssuedClaims() {
+        User user = userRepository.save(user("deleted@example.com", "ADMIN"));
+        assertThat(userDetailsService.isCurrent(user.getId(), 0)).isTrue();
+
+        userRepository.delete(userRepository.findById(user.getId()).orElseThrow());
+
+        assertThat(userDetailsService.isCurrent(user.getId(), 0)).isFalse();
+    }
+
+    @Test
+    void unknownUserIsNeverCurrent() {
+        assertThat(userDetailsService.isCurrent(Long.MAX_VALUE - 1, 0)).isFalse();
+    }
+
+    private static User user(String email, String role) {
+        User user = new User();
+        user.setEmail(email);
+        user.setPassword("secret");
+        user.setFirstName("Test");
+        user.setLastName("User");
+        user.setRole(role);
+        return user;
+    }
+}
@@ -0,0 +1,198 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.AuditRecord;
+import com.hackaton.backend.dto.CursorPage;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Journal d'audit sur un répertoire temporaire : format binaire aller-retour, changement de segment,
+ * reprise après une écriture interrompue (CRC faux, fin tronquée) et lecture page par page.
+ */
+class AuditLogTest {
+    // Quelques dizaines d'enregistrements par segment
+    private static final DataSize SEGMENT_SIZE = DataSize.ofKilobytes(8);
+
+    @TempDir
+    Path directory;
+
+    private AuditLogService service;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void recordSurvivesEncodeAndDecode() {
+        AuditRecord.State before = new AuditRecord.State(7L, "deposit", "catégorie spéciale", new BigDecimal("-1234.5678"),
+                "pending", LocalDateTime.of(2026, 3, 1, 10, 15, 30, 123_456_789));
+        AuditRecord.State after = new AuditRecord.State(null, "deposit", null, null, "completed", null);
+        AuditRecord record = new AuditRecord(42, Instant.ofEpochSecond(1_780_000_000L, 987_654_321), AuditRecord.ENTITY_TRANSACTION,
+                AuditRecord.ACTION_PROCESS, 99L, null, before, after);
+
+        ByteBuffer segment = ByteBuffer.allocate(AuditLogFormat.RECORD_HEADER + AuditLogFormat.MAX_RECORD);
+        ByteBuffer body = ByteBuffer.allocate(AuditLogFormat.MAX_RECORD);
+        AuditLogFormat.encode(record, body);
+        body.flip();
+        segment.putInt(0, body.remaining());
+        segment.putInt(4, AuditLogFormat.crc(body));
+        segment.put(AuditLogFormat.RECORD_HEADER, body, 0, body.remaining());
+
+        assertThat(AuditLogFormat.recordEnd(segment, 0)).isEqualTo(AuditLogFormat.RECORD_HEADER + body.remaining());
+        assertThat(AuditLogFormat.decode(segment, 0)).isEqualTo(record);
+
+        // Un octet altéré : le CRC ne correspond plus
+        segment.put(AuditLogFormat.RECORD_HEADER + 20, (byte) (segment.get(AuditLogFormat.RECORD_HEADER + 20) ^ 1));
+        assertThat(AuditLogFormat.recordEnd(segment, 0)).isEqualTo(AuditLogFormat.CORRUPT);
+    }
+
+    @Test
+    void fullSegmentsRotateWithContinuousSequences() throws Exception {
+        service = start();
+        recordAll(500);
+        awaitDurable(500);
+
+        assertThat(segments()).hasSizeGreaterThan(2);
+        for (Path segment : segments()) {
+            assertThat(Files.size(segment)).isEqualTo(SEGMENT_SIZE.toBytes());
+        }
+        // Chaque segment commence au numéro qui suit le dernier du précédent
+        List<String> problems = new ArrayList<>();
+        assertThat(new AuditLogReader(directory).verify(problems::add)).isEqualTo(500);
+        assertThat(problems).isEmpty();
+        assertThat(sequences(new AuditLogReader(directory).read(0, 1000, Long.MAX_VALUE)))
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, 500).boxed().toList());
+    }
+
+    @Test
+    void tornTailIsDiscardedOnRestart() throws Exception {
+        service = start();
+        recordAll(30);
+        awaitDurable(30);
+        service.shutdown();
+        service = null;
+
+        // Dernier enregistrement altéré (CRC faux), puis début d'un enregistrement jamais terminé
+        Path last = segments().get(segments().size() - 1);
+        try (FileChannel channel = FileChannel.open(last, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, channel.size());
+            List<Integer> offsets = recordOffsets(buffer);
+            int lastRecord = offsets.get(offsets.size() - 1);
+            int end = AuditLogFormat.recordEnd(buffer, lastRecord);
+            buffer.put(end - 1, (byte) (buffer.get(end - 1) ^ 0x5A));
+            buffer.putInt(end + 4, 0xCAFE);
+            buffer.put(end + AuditLogFormat.RECORD_HEADER, (byte) 1);
+            buffer.force();
+        }
+        long lastValid = 29;
+
+        List<String> problems = new ArrayList<>();
+        new AuditLogReader(directory).verify(problems::add);
+        assertThat(problems).singleElement().asString().contains("écriture interrompue");
+
+        service = start();
+        assertThat(service.getStatus().get("durableSequence")).isEqualTo(lastValid);
+        recordAll(5);
+        awaitDurable(lastValid + 5);
+
+        problems.clear();
+        assertThat(new AuditLogReader(directory).verify(problems::add)).isEqualTo(lastValid + 5);
+        assertThat(problems).isEmpty();
+        assertThat(sequences(new AuditLogReader(directory).read(0, 100, Long.MAX_VALUE)))
+                .containsExactlyElementsOf(LongStream.rangeClosed(1, lastValid + 5).boxed().toList());
+    }
+
+    @Test
+    void pagesCoverEveryDurableRecordOnce() throws Exception {
+        service = start();
+        int count = 2 * AuditLogReader.INDEX_INTERVAL + 100;
+        recordAll(count);
+        awaitDurable(count);
+
+        List<Long> seen = new ArrayList<>();
+        String after = null;
+        do {
+            CursorPage<AuditRecord> page = service.getRecords(after, 50);
+            assertThat(page.getItems()).hasSizeLessThanOrEqualTo(50);
+            seen.addAll(sequences(page.getItems()));
+            after = page.getNext();
+        } while (after != null);
+        assertThat(seen).containsExactlyElementsOf(LongStream.rangeClosed(1, count).boxed().toList());
+
+        // Reprise au milieu d'un segment, par l'index clairsemé une fois rempli
+        AuditLogReader reader = new AuditLogReader(directory);
+        for (int round = 0; round < 2; round++) {
+            assertThat(sequences(reader.read(AuditLogReader.INDEX_INTERVAL + 10, 5, Long.MAX_VALUE)))
+                    .containsExactly(267L, 268L, 269L, 270L, 271L);
+        }
+        // Borne supérieure : rien au-delà de la séquence durable demandée
+        assertThat(sequences(reader.read(100, 50, 105))).containsExactly(101L, 102L, 103L, 104L, 105L);
+    }
+
+    private AuditLogService start() throws IOException {
+        AuditLogService started = new AuditLogService(directory.toString(), SEGMENT_SIZE, 64, 1024,
+                Duration.ofSeconds(1), Duration.ofSeconds(5));
+        started.start();
+        return started;
+    }
+
+    private void recordAll(int count) {
+        for (int i = 0; i < count; i++) {
+            AuditRecord.State after = new AuditRecord.State(1L, "deposit", "divers", new BigDecimal(i + ".50"),
+                    "completed", LocalDateTime.of(2026, 3, 1, 10, 0).plusMinutes(i));
+            service.record(AuditRecord.ENTITY_TRANSACTION, AuditRecord.ACTION_CREATE, (long) i, null, after);
+        }
+    }
+
+    private void awaitDurable(long sequence) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while ((long) service.getStatus().get("durableSequence") < sequence && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(service.getStatus().get("durableSequence")).isEqualTo(sequence);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> AuditLogFormat.firstSequenceOf(file) != null).sorted().toList();
+        }
+    }
+
+    private static List<Integer> recordOffsets(ByteBuffer segment) {
+        List<Integer> offsets = new ArrayList<>();
+        int offset = AuditLogFormat.SEGMENT_HEADER;
+        int end;
+        while ((end = AuditLogFormat.recordEnd(segment, offset)) > 0) {
+            offsets.add(offset);
+            offset = end;
+        }
+        return offsets;
+    }
+
+    private static List<Long> sequences(List<AuditRecord> records) {
+        return records.stream().map(AuditRecord::sequence).toList();
+    }
+}
@@ -0,0 +1,113 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.config.IdGeneratorInitializer;
+import com.hackaton.backend.dto.BulkImportReportDTO;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.repository.TransactionRepository;
+import com.hackaton.backend.repository.UserRepository;
+import com.hackaton.backend.security.UserChangeListener;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Import en masse de bout en bout sur H2 en mode MySQL : générateur d'identifiants aligné sur des
+ * lignes existantes, lots validés chacun dans leur transaction, débit mesuré et journalisé. H2 n'est
+ * pas MySQL : le débit sert de point de comparaison entre versions, pas d'objectif de production.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bulk;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.properties.hibernate.generate_statistics=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@ImportAutoConfiguration(JacksonAutoConfiguration.class)
+@Import({BulkImportService.class, LedgerBalanceService.class, ReportService.class, RebuildLockService.class, RelatedEntityValidator.class,
+        IdGeneratorInitializer.class, UserChangeListener.class})
+class BulkImportThroughputTest {
+    private static final Logger log = LoggerFactory.getLogger(BulkImportThroughputTest.class);
+    private static final int ROWS = 20_000;
+    private static final long EXISTING_ID = 10_000;
+
+    @Autowired
+    private BulkImportService bulkImportService;
+
+    @Autowired
+    private IdGeneratorInitializer idGeneratorInitializer;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @MockBean
+    private AuditLogService auditLogService;
+
+    @Test
+    void importsInBatchesAboveExistingIds() throws Exception {
+        User user = new User();
+        user.setEmail("bulk@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Bulk");
+        user.setLastName("Import");
+        user.setRole("ADMIN");
+        user = userRepository.save(user);
+        // Ligne héritée de l'auto-incrément, puis alignement comme au démarrage
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO transactions (id, type, amount, description, date, category, status, user_id, "
+                + "created_at, updated_at) VALUES (?, 'deposit', 1, 'existante', ?, 'divers', 'completed', ?, ?, ?)",
+                EXISTING_ID, now, user.getId(), now, now);
+        idGeneratorInitializer.afterSingletonsInstantiated();
+
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < ROWS; i++) {
+            body.append("{\"type\":\"").append(i % 2 == 0 ? "deposit" : "withdrawal")
+                    .append("\",\"amount\":").append(1 + i % 100)
+                    .append(",\"description\":\"ligne ").append(i)
+                    .append("\",\"date\":\"2026-01-").append(String.format("%02d", 1 + i % 28))
+                    .append("T10:00:00\",\"category\":\"cat").append(i % 10)
+                    .append("\",\"status\":\"completed\",\"user\":{\"id\":").append(user.getId()).append("}}\n");
+        }
+        byte[] bytes = body.toString().getBytes(StandardCharsets.UTF_8);
+
+        long start = System.nanoTime();
+        BulkImportReportDTO report = bulkImportService.importTransactions(new ByteArrayInputStream(bytes), 500);
+        long elapsed = System.nanoTime() - start;
+        log.info("Bulk import: {} rows in {} ms ({} rows/s, {} batches)", report.getInserted(), elapsed / 1_000_000,
+                report.getInserted() * 1_000_000_000L / Math.max(1, elapsed), report.getBatches());
+
+        assertThat(report.getFailed()).isZero();
+        assertThat(report.getInserted()).isEqualTo(ROWS);
+        assertThat(report.getBatches()).isEqualTo(ROWS / 500);
+        assertThat(transactionRepository.count()).isEqualTo(ROWS + 1);
+        assertThat(jdbcTemplate.queryForObject("SELECT MIN(id) FROM transactions WHERE id <> ?", Long.class, EXISTING_ID))
+                .isGreaterThan(EXISTING_ID);
+    }
+}
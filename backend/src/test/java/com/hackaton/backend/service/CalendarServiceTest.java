@@ -0,0 +1,112 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.EventDTO;
+import com.hackaton.backend.dto.ProjectDTO;
+import com.hackaton.backend.model.Event;
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Calendrier en mémoire : les rappels après validation appliqués dans le désordre ne remplacent
+ * pas une version plus récente et ne font pas réapparaître une ligne supprimée.
+ */
+class CalendarServiceTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 9, 0);
+
+    private CalendarService calendar;
+
+    @BeforeEach
+    void setUp() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        ProjectRepository projectRepository = mock(ProjectRepository.class);
+        when(eventRepository.streamAll()).thenReturn(Stream.empty());
+        when(projectRepository.streamAll()).thenReturn(Stream.empty());
+        calendar = new CalendarService();
+        ReflectionTestUtils.setField(calendar, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(calendar, "projectRepository", projectRepository);
+        calendar.load();
+    }
+
+    @Test
+    void olderEventUpdateArrivingLateIsIgnored() {
+        calendar.index(event(1L, 2L, T0.plusDays(5), "Salle B"));
+        calendar.index(event(1L, 1L, T0, "Salle A"));
+
+        assertThat(calendar.getEventsOverlapping(T0.minusDays(1), T0.plusDays(10), null, 10).getItems())
+                .singleElement().satisfies(event -> {
+                    assertThat(event.getStartDate()).isEqualTo(T0.plusDays(5));
+                    assertThat(event.getVersion()).isEqualTo(2L);
+                });
+        // L'ancien lieu n'est pas réindexé
+        assertThat(calendar.getLocationConflicts("Salle A", T0, T0.plusHours(1), null)).isEmpty();
+        assertThat(calendar.getLocationConflicts("salle b", T0.plusDays(5), T0.plusDays(5).plusHours(1), null))
+                .extracting(EventDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void newerEventUpdateReplacesInterval() {
+        calendar.index(event(1L, 0L, T0, "Salle A"));
+        calendar.index(event(1L, 1L, T0.plusDays(5), "Salle A"));
+
+        assertThat(calendar.getEventsOverlapping(T0.minusDays(1), T0.plusDays(1), null, 10).getItems()).isEmpty();
+        assertThat(calendar.getEventsOverlapping(T0.plusDays(4), T0.plusDays(6), null, 10).getItems())
+                .extracting(EventDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void deletedEventIsNotResurrectedByLateUpdate() {
+        calendar.index(event(1L, 0L, T0, "Salle A"));
+        calendar.removeEvent(1L);
+        calendar.index(event(1L, 1L, T0, "Salle A"));
+
+        assertThat(calendar.getEventsOverlapping(T0.minusDays(1), T0.plusDays(1), null, 10).getItems()).isEmpty();
+        assertThat(calendar.getLocationConflicts("Salle A", T0, T0.plusHours(1), null)).isEmpty();
+    }
+
+    @Test
+    void olderProjectUpdateArrivingLateIsIgnored() {
+        calendar.index(project(1L, 3L, T0.plusDays(10)));
+        calendar.index(project(1L, 2L, T0));
+
+        assertThat(calendar.getProjectsOverlapping(T0.minusDays(1), T0.plusDays(20), null, 10).getItems())
+                .singleElement().extracting(ProjectDTO::getStartDate).isEqualTo(T0.plusDays(10));
+
+        calendar.removeProject(1L);
+        calendar.index(project(1L, 4L, T0));
+        assertThat(calendar.getProjectsOverlapping(T0.minusDays(1), T0.plusDays(20), null, 10).getItems()).isEmpty();
+    }
+
+    private static Event event(Long id, Long version, LocalDateTime start, String location) {
+        Event event = new Event();
+        event.setId(id);
+        event.setVersion(version);
+        event.setTitle("Événement " + id);
+        event.setStartDate(start);
+        event.setEndDate(start.plusHours(2));
+        event.setLocation(location);
+        event.setStatus("planned");
+        return event;
+    }
+
+    private static Project project(Long id, Long version, LocalDateTime start) {
+        Project project = new Project();
+        project.setId(id);
+        project.setVersion(version);
+        project.setName("Projet " + id);
+        project.setStartDate(start);
+        project.setEndDate(start.plusDays(3));
+        project.setStatus("active");
+        return project;
+    }
+}
@@ -0,0 +1,88 @@
+package com.hackaton.backend.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Reconnexion au flux de changements : un Last-Event-ID antérieur au dernier changement n'impose un
+ * resync que si un changement correspondant au filtre a été émis depuis, ou si on ne peut plus le savoir.
+ */
+class ChangeFeedServiceTest {
+    private static final int HISTORY = 8;
+
+    private ChangeFeedService service;
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void changesOutsideFilterDoNotForceResync() throws Exception {
+        service = create(100);
+        service.start();
+        String lastSeen = service.lastEventId();
+
+        publish(ChangeEvent.of(ChangeEvent.ENTITY_TASK, ChangeEvent.ACTION_UPDATE, 10L, 2L), 1);
+
+        assertThat(service.missedSince(lastSeen, Set.of(ChangeEvent.ENTITY_PROJECT), null)).isFalse();
+        assertThat(service.missedSince(lastSeen, Set.of(ChangeEvent.ENTITY_TASK), 1L)).isFalse();
+        assertThat(service.missedSince(lastSeen, Set.of(ChangeEvent.ENTITY_TASK), 2L)).isTrue();
+        assertThat(service.missedSince(lastSeen, Set.of(), null)).isTrue();
+        assertThat(service.missedSince(service.lastEventId(), Set.of(ChangeEvent.ENTITY_TASK), 2L)).isFalse();
+    }
+
+    @Test
+    void unknownOrExpiredIdsForceResync() throws Exception {
+        service = create(100);
+        service.start();
+        String lastSeen = service.lastEventId();
+
+        assertThat(service.missedSince("autre-instance:0", Set.of(ChangeEvent.ENTITY_TASK), null)).isTrue();
+        assertThat(service.missedSince("illisible", Set.of(ChangeEvent.ENTITY_TASK), null)).isTrue();
+        assertThat(service.missedSince(lastSeen.replace(":0", ":5"), Set.of(ChangeEvent.ENTITY_TASK), null)).isTrue();
+
+        // Plus de changements que l'historique n'en garde, aucun ne correspond au filtre
+        for (long id = 1; id <= HISTORY + 1; id++) {
+            publish(ChangeEvent.of(ChangeEvent.ENTITY_PROJECT, ChangeEvent.ACTION_UPDATE, id, null), id);
+        }
+        assertThat(service.missedSince(lastSeen, Set.of(ChangeEvent.ENTITY_TASK), null)).isTrue();
+    }
+
+    @Test
+    void lostChangesForceResync() throws Exception {
+        // Diffusion pas encore démarrée : le second changement ne tient pas dans la file
+        service = create(1);
+        String lastSeen = service.lastEventId();
+        service.onChange(ChangeEvent.of(ChangeEvent.ENTITY_PROJECT, ChangeEvent.ACTION_UPDATE, 1L, null));
+        service.onChange(ChangeEvent.of(ChangeEvent.ENTITY_PROJECT, ChangeEvent.ACTION_UPDATE, 2L, null));
+        service.start();
+        awaitSequence(1);
+
+        // Le changement perdu pouvait correspondre à n'importe quel filtre
+        assertThat(service.missedSince(lastSeen, Set.of(ChangeEvent.ENTITY_TASK), null)).isTrue();
+        assertThat(service.missedSince(service.lastEventId(), Set.of(ChangeEvent.ENTITY_TASK), null)).isFalse();
+    }
+
+    private ChangeFeedService create(int dispatchQueueCapacity) {
+        return new ChangeFeedService(16, 100, dispatchQueueCapacity, HISTORY, Duration.ofMinutes(1), Duration.ofMinutes(1));
+    }
+
+    private void publish(ChangeEvent event, long expectedSequence) throws InterruptedException {
+        service.onChange(event);
+        awaitSequence(expectedSequence);
+    }
+
+    private void awaitSequence(long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!service.lastEventId().endsWith(":" + expected) && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(service.lastEventId()).endsWith(":" + expected);
+    }
+}
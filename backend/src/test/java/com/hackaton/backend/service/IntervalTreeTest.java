@@ -0,0 +1,120 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.PageCursor;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Arbre d'intervalles du calendrier : chevauchement bornes incluses, pagination par curseur et
+ * suppression, comparés à un parcours linéaire sur un jeu aléatoire.
+ */
+class IntervalTreeTest {
+    private static final LocalDateTime T0 = LocalDateTime.of(2026, 3, 1, 0, 0);
+
+    @Test
+    void overlappingIncludesBoundsAndIntervalsStartedBefore() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        insert(tree, 1L, 0, 10);
+        insert(tree, 2L, 5, 6);
+        insert(tree, 3L, 12, 20);
+        insert(tree, 4L, 20, 20);
+        insert(tree, 5L, 25, 30);
+
+        // Commencé avant la période mais encore en cours
+        assertThat(overlapping(tree, 8, 9, null, 10)).containsExactly(1L);
+        // Fin égale au début de la période, début égal à sa fin
+        assertThat(overlapping(tree, 10, 12, null, 10)).containsExactly(1L, 3L);
+        assertThat(overlapping(tree, 20, 24, null, 10)).containsExactly(3L, 4L);
+        assertThat(overlapping(tree, 21, 24, null, 10)).isEmpty();
+        assertThat(overlapping(tree, 0, 30, null, 10)).containsExactly(1L, 2L, 3L, 4L, 5L);
+    }
+
+    @Test
+    void pagesFollowStartThenIdFromCursor() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        // Même début : départagés par l'identifiant
+        insert(tree, 7L, 5, 8);
+        insert(tree, 3L, 5, 6);
+        insert(tree, 9L, 1, 40);
+        insert(tree, 4L, 10, 12);
+
+        assertThat(overlapping(tree, 0, 50, null, 2)).containsExactly(9L, 3L);
+        assertThat(overlapping(tree, 0, 50, new PageCursor(hour(5), 3L), 2)).containsExactly(7L, 4L);
+        assertThat(overlapping(tree, 0, 50, new PageCursor(hour(10), 4L), 2)).isEmpty();
+        assertThat(overlapping(tree, 0, 50, null, 0)).isEmpty();
+    }
+
+    @Test
+    void removedIntervalsNoLongerMatch() {
+        IntervalTree<Long> tree = new IntervalTree<>();
+        insert(tree, 1L, 0, 100);
+        insert(tree, 2L, 10, 11);
+
+        assertThat(tree.remove(new PageCursor(hour(0), 1L))).isTrue();
+        assertThat(tree.remove(new PageCursor(hour(0), 1L))).isFalse();
+        // La plus grande fin du sous-arbre ne retient plus l'intervalle supprimé
+        assertThat(overlapping(tree, 50, 60, null, 10)).isEmpty();
+        assertThat(overlapping(tree, 0, 60, null, 10)).containsExactly(2L);
+        assertThat(tree.size()).isEqualTo(1);
+    }
+
+    @Test
+    void matchesLinearScanOnRandomIntervals() {
+        Random random = new Random(42);
+        IntervalTree<Long> tree = new IntervalTree<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 1; id <= 2_000; id++) {
+            int start = random.nextInt(1_000);
+            int end = start + random.nextInt(50);
+            insert(tree, id, start, end);
+            intervals.add(new long[]{id, start, end});
+        }
+        for (int i = 0; i < 500; i++) {
+            long[] removed = intervals.remove(random.nextInt(intervals.size()));
+            assertThat(tree.remove(new PageCursor(hour((int) removed[1]), removed[0]))).isTrue();
+        }
+        intervals.sort((a, b) -> a[1] != b[1] ? Long.compare(a[1], b[1]) : Long.compare(a[0], b[0]));
+
+        for (int i = 0; i < 200; i++) {
+            int from = random.nextInt(1_000);
+            int to = from + random.nextInt(30);
+            List<Long> expected = intervals.stream().filter(interval -> interval[1] <= to && interval[2] >= from)
+                    .map(interval -> interval[0]).toList();
+            // Parcours complet page par page
+            List<Long> paged = new ArrayList<>();
+            PageCursor after = null;
+            List<Long> page;
+            do {
+                page = overlapping(tree, from, to, after, 7);
+                paged.addAll(page);
+                if (!page.isEmpty()) {
+                    long last = page.get(page.size() - 1);
+                    long[] interval = intervals.stream().filter(candidate -> candidate[0] == last).findFirst().orElseThrow();
+                    after = new PageCursor(hour((int) interval[1]), last);
+                }
+            } while (page.size() == 7);
+            assertThat(paged).isEqualTo(expected);
+        }
+        assertThat(tree.size()).isEqualTo(intervals.size());
+    }
+
+    private static List<Long> overlapping(IntervalTree<Long> tree, int from, int to, PageCursor after, int max) {
+        List<Long> out = new ArrayList<>();
+        tree.overlapping(hour(from), hour(to), after, max, out);
+        return out;
+    }
+
+    private static void insert(IntervalTree<Long> tree, Long id, int start, int end) {
+        tree.insert(new PageCursor(hour(start), id), hour(end), id);
+    }
+
+    private static LocalDateTime hour(int offset) {
+        return T0.plusHours(offset);
+    }
+}
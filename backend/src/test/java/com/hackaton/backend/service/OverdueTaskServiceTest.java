@@ -0,0 +1,124 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.CursorPage;
+import com.hackaton.backend.dto.TaskDTO;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.repository.TaskRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Suivi en mémoire des échéances : pagination des tâches en retard, signalement à la création d'une
+ * tâche déjà échue, et rappels après validation appliqués dans le désordre.
+ */
+class OverdueTaskServiceTest {
+    private static final LocalDateTime NOW = LocalDateTime.now();
+
+    private OverdueTaskService service;
+    private TaskRepository taskRepository;
+    private ApplicationEventPublisher eventPublisher;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository = mock(TaskRepository.class);
+        eventPublisher = mock(ApplicationEventPublisher.class);
+        when(taskRepository.findOpenTasks(any(), anyLong(), any())).thenReturn(List.of());
+        service = new OverdueTaskService();
+        ReflectionTestUtils.setField(service, "taskRepository", taskRepository);
+        ReflectionTestUtils.setField(service, "eventPublisher", eventPublisher);
+        ReflectionTestUtils.setField(service, "loadBatchSize", 100);
+        service.load();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void overdueTasksArePagedByDueDate() {
+        service.track(task(1L, 0L, "todo", NOW.minusDays(3)));
+        service.track(task(2L, 0L, "todo", NOW.minusDays(1)));
+        service.track(task(3L, 0L, "in_progress", NOW.minusDays(2)));
+        service.track(task(4L, 0L, "todo", NOW.plusDays(1)));
+        service.track(task(5L, 0L, TaskService.STATUS_COMPLETED, NOW.minusDays(5)));
+
+        CursorPage<TaskDTO> first = service.getOverdue(NOW, null, 2);
+        assertThat(first.getItems()).extracting(TaskDTO::getId).containsExactly(1L, 3L);
+        assertThat(first.getNext()).isNotNull();
+        CursorPage<TaskDTO> second = service.getOverdue(NOW, first.getNext(), 2);
+        assertThat(second.getItems()).extracting(TaskDTO::getId).containsExactly(2L);
+        assertThat(second.getNext()).isNull();
+    }
+
+    @Test
+    void taskCreatedPastDueIsSignalledOnce() {
+        service.track(task(1L, 0L, "todo", NOW.minusHours(1)));
+        service.track(task(1L, 1L, "in_progress", NOW.minusHours(1)));
+
+        verify(eventPublisher, times(1)).publishEvent(argThat((Object event) ->
+                event instanceof TaskOverdueEvent overdue && overdue.task().getId().equals(1L)));
+    }
+
+    @Test
+    void olderUpdateArrivingLateIsIgnored() {
+        service.track(task(1L, 2L, "todo", NOW.minusDays(1)));
+        service.track(task(1L, 1L, "todo", NOW.minusDays(10)));
+
+        assertThat(service.getOverdue(NOW, null, 10).getItems())
+                .singleElement().satisfies(task -> {
+                    assertThat(task.getDueDate()).isEqualTo(NOW.minusDays(1));
+                    assertThat(task.getVersion()).isEqualTo(2L);
+                });
+    }
+
+    @Test
+    void olderOpenStateDoesNotReopenCompletedTask() {
+        service.track(task(1L, 0L, "todo", NOW.plusDays(1)));
+        service.track(task(1L, 2L, TaskService.STATUS_COMPLETED, NOW.minusDays(1)));
+        service.track(task(1L, 1L, "todo", NOW.minusDays(1)));
+
+        assertThat(service.getOverdue(NOW, null, 10).getItems()).isEmpty();
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+
+        // Réouverture plus récente : de nouveau suivie
+        service.track(task(1L, 3L, "todo", NOW.minusDays(1)));
+        assertThat(service.getOverdue(NOW, null, 10).getItems()).extracting(TaskDTO::getId).containsExactly(1L);
+    }
+
+    @Test
+    void deletedTaskIsNotResurrectedByLateUpdate() {
+        service.track(task(1L, 0L, "todo", NOW.minusDays(1)));
+        service.untrack(1L);
+        service.track(task(1L, 1L, "todo", NOW.minusDays(1)));
+
+        assertThat(service.getOverdue(NOW, null, 10).getItems()).isEmpty();
+    }
+
+    private static Task task(Long id, Long version, String status, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setId(id);
+        task.setVersion(version);
+        task.setTitle("Tâche " + id);
+        task.setPriority("medium");
+        task.setStatus(status);
+        task.setDueDate(dueDate);
+        return task;
+    }
+}
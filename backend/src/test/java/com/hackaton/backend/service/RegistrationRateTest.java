@@ -0,0 +1,179 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.security.CustomUserDetailsService;
+import com.hackaton.backend.security.UserChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Inscriptions à débit imposé (5 000 opérations par seconde pendant 5 secondes, -Dregistration.benchmark.seconds=N
+ * pour une autre durée) sur H2 en mode MySQL, écritures par lots réelles : événements sur-souscrits, une
+ * opération sur dix est une désinscription qui promeut le premier en attente. Vérifie le débit validé
+ * observé et qu'aucun événement ne dépasse sa capacité, ni en mémoire ni en base.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:registrations;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({RegistrationService.class, UserChangeListener.class, CustomUserDetailsService.class})
+class RegistrationRateTest {
+    private static final Logger log = LoggerFactory.getLogger(RegistrationRateTest.class);
+    private static final int TARGET_RATE = 5_000;
+    private static final int SECONDS = Integer.getInteger("registration.benchmark.seconds", 5);
+    private static final int OPERATIONS = TARGET_RATE * SECONDS;
+    private static final int EVENTS = 20;
+    private static final int CAPACITY = 100;
+    private static final int DRIVERS = 4;
+    // Tolérance sur le débit : planification et dernier lot en fin de mesure
+    private static final double MIN_RATE_RATIO = 0.9;
+
+    @Autowired
+    private RegistrationService registrationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM event_registrations");
+        jdbcTemplate.update("DELETE FROM events");
+        jdbcTemplate.update("DELETE FROM users");
+    }
+
+    @Test
+    void sustainedRateNeverOversells() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        jdbcTemplate.update("INSERT INTO users (email, password, first_name, last_name, role, version, token_version) "
+                + "VALUES ('organizer@example.com', 'secret', 'Orga', 'Nisateur', 'ADMIN', 0, 0)");
+        Long organizerId = jdbcTemplate.queryForObject("SELECT id FROM users WHERE email = 'organizer@example.com'", Long.class);
+        List<Object[]> events = new ArrayList<>();
+        for (int i = 0; i < EVENTS; i++) {
+            events.add(new Object[]{"Événement " + i, Timestamp.valueOf(now.plusDays(1)), Timestamp.valueOf(now.plusDays(2)),
+                    "Salle " + i, CAPACITY, organizerId, Timestamp.valueOf(now), Timestamp.valueOf(now)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO events (title, start_date, end_date, location, status, capacity, user_id, "
+                + "version, created_at, updated_at) VALUES (?, ?, ?, ?, 'planned', ?, ?, 0, ?, ?)", events);
+        int users = OPERATIONS / EVENTS;
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            rows.add(new Object[]{"participant" + i + "@example.com"});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (email, password, first_name, last_name, role, version, token_version) "
+                + "VALUES (?, 'secret', 'Participant', 'Test', 'USER', 0, 0)", rows);
+        long[] eventIds = jdbcTemplate.queryForList("SELECT id FROM events ORDER BY id", Long.class)
+                .stream().mapToLong(Long::longValue).toArray();
+        long[] userIds = jdbcTemplate.queryForList("SELECT id FROM users WHERE id <> ? ORDER BY id", Long.class, organizerId)
+                .stream().mapToLong(Long::longValue).toArray();
+
+        // Opération i prévue à start + i / TARGET_RATE, quel que soit le retard des précédentes (charge ouverte)
+        CompletableFuture<?>[] results = new CompletableFuture<?>[OPERATIONS];
+        long[] committedAt = new long[OPERATIONS];
+        AtomicInteger unregistered = new AtomicInteger();
+        long intervalNanos = 1_000_000_000L / TARGET_RATE;
+        long start = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(100);
+        ExecutorService drivers = Executors.newFixedThreadPool(DRIVERS);
+        List<Future<?>> submitted = new ArrayList<>();
+        for (int driver = 0; driver < DRIVERS; driver++) {
+            int first = driver;
+            submitted.add(drivers.submit(() -> {
+                // Inscriptions de ce thread encore à désinscrire, par ordre d'arrivée
+                Deque<Integer> registeredHere = new ArrayDeque<>();
+                for (int i = first; i < OPERATIONS; i += DRIVERS) {
+                    long due = start + i * intervalNanos;
+                    long wait = due - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    CompletableFuture<?> result;
+                    if (i % 10 == 9 && !registeredHere.isEmpty()) {
+                        int pair = registeredHere.poll();
+                        result = registrationService.unregister(eventIds[eventOf(pair)], userIds[pair / EVENTS]);
+                        unregistered.incrementAndGet();
+                    } else {
+                        result = registrationService.register(eventIds[eventOf(i)], userIds[i / EVENTS]);
+                        registeredHere.add(i);
+                    }
+                    int operation = i;
+                    results[i] = result.thenRun(() -> committedAt[operation] = System.nanoTime());
+                }
+                return null;
+            }));
+        }
+        for (Future<?> driver : submitted) {
+            driver.get(SECONDS * 10L, TimeUnit.SECONDS);
+        }
+        long issuedAt = System.nanoTime();
+        drivers.shutdown();
+        CompletableFuture.allOf(results).get(30, TimeUnit.SECONDS);
+
+        long lastCommit = Arrays.stream(committedAt).max().orElseThrow();
+        double issuedRate = OPERATIONS * 1e9 / (issuedAt - start);
+        double committedRate = OPERATIONS * 1e9 / (lastCommit - start);
+        long[] latencies = new long[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            latencies[i] = committedAt[i] - (start + i * intervalNanos);
+        }
+        Arrays.sort(latencies);
+        log.info("Registrations: {} operations ({} unregistrations) over {} s, issued {}/s, committed {}/s, "
+                        + "commit latency p50 {} us, p99 {} us", OPERATIONS, unregistered.get(), SECONDS,
+                (long) issuedRate, (long) committedRate, latencies[OPERATIONS / 2] / 1_000,
+                latencies[OPERATIONS * 99 / 100] / 1_000);
+
+        assertThat(committedRate).isGreaterThanOrEqualTo(TARGET_RATE * MIN_RATE_RATIO);
+        int registered = OPERATIONS - 2 * unregistered.get();
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_registrations", Integer.class))
+                .isEqualTo(registered);
+        List<Map<String, Object>> confirmed = jdbcTemplate.queryForList(
+                "SELECT event_id, COUNT(*) AS confirmed FROM event_registrations WHERE status = ? GROUP BY event_id",
+                RegistrationService.STATUS_REGISTERED);
+        assertThat(confirmed).hasSize(EVENTS)
+                .allSatisfy(row -> assertThat(((Number) row.get("confirmed")).intValue()).isEqualTo(CAPACITY));
+        for (long eventId : eventIds) {
+            assertThat(registrationService.getSeats(eventId).getRegistered()).isEqualTo(CAPACITY);
+            // Relu depuis la base : même état qu'en mémoire
+            registrationService.evict(eventId);
+            assertThat(registrationService.getSeats(eventId).getRegistered()).isEqualTo(CAPACITY);
+        }
+    }
+
+    // Couple (événement, utilisateur) unique par opération ; décalé par utilisateur pour que les créneaux
+    // des désinscriptions ne tombent pas toujours sur les mêmes événements
+    private static int eventOf(int operation) {
+        return (operation + operation / EVENTS) % EVENTS;
+    }
+}
@@ -0,0 +1,159 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.EventRegistrationDTO;
+import com.hackaton.backend.repository.EventRegistrationRepository;
+import com.hackaton.backend.repository.EventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Un événement sur-souscrit depuis de nombreux threads : exactement {@code capacity} places
+ * confirmées, en mémoire comme dans les écritures envoyées à la base. Ordre des écritures d'un
+ * lot et file pleine pendant une désinscription.
+ */
+class RegistrationServiceConcurrencyTest {
+    private static final long EVENT_ID = 1L;
+    private static final int CAPACITY = 50;
+    private static final int THREADS = 16;
+    private static final int USERS = 1000;
+
+    private final ConcurrentLinkedQueue<Object[]> inserted = new ConcurrentLinkedQueue<>();
+    private RegistrationService registrationService;
+    private EventRepository eventRepository;
+    private EventRegistrationRepository registrationRepository;
+    private JdbcTemplate jdbcTemplate;
+    private PlatformTransactionManager transactionManager;
+
+    @BeforeEach
+    void setUp() {
+        eventRepository = mock(EventRepository.class);
+        when(eventRepository.findCapacityById(EVENT_ID)).thenReturn(Optional.of(CAPACITY));
+        registrationRepository = mock(EventRegistrationRepository.class);
+        when(registrationRepository.findByEventIdInOrder(anyLong())).thenReturn(List.of());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.batchUpdate(eq(EventRegistrationRepository.INSERT), anyList())).thenAnswer(invocation -> {
+            List<Object[]> rows = invocation.getArgument(1);
+            inserted.addAll(rows);
+            return new int[rows.size()];
+        });
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(null);
+
+        registrationService = new RegistrationService(eventRepository, registrationRepository, jdbcTemplate,
+                transactionManager, 100, USERS, Duration.ofSeconds(5));
+        registrationService.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        registrationService.shutdown();
+    }
+
+    @Test
+    void oversubscribedEventConfirmsExactlyCapacity() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<CompletableFuture<EventRegistrationDTO>> results = new ArrayList<>();
+        try {
+            List<CompletableFuture<CompletableFuture<EventRegistrationDTO>>> submitted = new ArrayList<>();
+            for (long userId = 1; userId <= USERS; userId++) {
+                long user = userId;
+                submitted.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException(e);
+                    }
+                    return registrationService.register(EVENT_ID, user);
+                }, pool));
+            }
+            start.countDown();
+            for (CompletableFuture<CompletableFuture<EventRegistrationDTO>> future : submitted) {
+                results.add(future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        long confirmed = 0;
+        long waitlisted = 0;
+        for (CompletableFuture<EventRegistrationDTO> result : results) {
+            String status = result.get(10, TimeUnit.SECONDS).getStatus();
+            if (RegistrationService.STATUS_REGISTERED.equals(status)) {
+                confirmed++;
+            } else if (RegistrationService.STATUS_WAITLISTED.equals(status)) {
+                waitlisted++;
+            }
+        }
+
+        assertThat(confirmed).isEqualTo(CAPACITY);
+        assertThat(waitlisted).isEqualTo(USERS - CAPACITY);
+        assertThat(registrationService.getSeats(EVENT_ID).getRegistered()).isEqualTo(CAPACITY);
+        assertThat(inserted).hasSize(USERS);
+        assertThat(inserted.stream().filter(row -> RegistrationService.STATUS_REGISTERED.equals(row[2])).count())
+                .isEqualTo(CAPACITY);
+    }
+
+    @Test
+    void reregistrationInSameBatchKeepsQueueOrder() throws Exception {
+        // Thread d'écriture démarré après la mise en file : les trois écritures forment un seul lot
+        RegistrationService service = new RegistrationService(eventRepository, registrationRepository, jdbcTemplate,
+                transactionManager, 100, USERS, Duration.ofSeconds(5));
+        service.register(EVENT_ID, 1L);
+        service.register(EVENT_ID, 2L);
+        service.unregister(EVENT_ID, 1L);
+        CompletableFuture<EventRegistrationDTO> again = service.register(EVENT_ID, 1L);
+        service.start();
+        try {
+            again.get(10, TimeUnit.SECONDS);
+        } finally {
+            service.shutdown();
+        }
+
+        // Insertions groupées, puis suppression, puis la réinscription dans un second groupe
+        InOrder order = inOrder(jdbcTemplate);
+        order.verify(jdbcTemplate).batchUpdate(eq(EventRegistrationRepository.INSERT), anyList());
+        order.verify(jdbcTemplate).batchUpdate(eq(EventRegistrationRepository.DELETE), anyList());
+        order.verify(jdbcTemplate).batchUpdate(eq(EventRegistrationRepository.INSERT), anyList());
+        assertThat(inserted).extracting(row -> row[1]).containsExactly(1L, 2L, 1L);
+    }
+
+    @Test
+    void unregisterSucceedsWhenPromotionCannotBeQueued() {
+        when(eventRepository.findCapacityById(EVENT_ID)).thenReturn(Optional.of(1));
+        // Sans thread d'écriture : la file de trois places se remplit avec la suppression
+        RegistrationService service = new RegistrationService(eventRepository, registrationRepository, jdbcTemplate,
+                transactionManager, 100, 3, Duration.ofMillis(100));
+        service.register(EVENT_ID, 1L);
+        service.register(EVENT_ID, 2L);
+
+        CompletableFuture<Void> deleted = service.unregister(EVENT_ID, 1L);
+
+        assertThat(deleted).isNotCompletedExceptionally();
+    }
+}
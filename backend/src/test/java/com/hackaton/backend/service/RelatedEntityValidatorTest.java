@@ -0,0 +1,62 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.model.RelatedEntity;
+import com.hackaton.backend.repository.EventRepository;
+import com.hackaton.backend.repository.ProjectRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Lien vers l'entité concernée à l'écriture : absent accepté, type inconnu, identifiant manquant et
+ * événement ou projet inexistant refusés en 400.
+ */
+class RelatedEntityValidatorTest {
+    private RelatedEntityValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        EventRepository eventRepository = mock(EventRepository.class);
+        ProjectRepository projectRepository = mock(ProjectRepository.class);
+        when(eventRepository.existsById(1L)).thenReturn(true);
+        when(projectRepository.existsById(2L)).thenReturn(true);
+        validator = new RelatedEntityValidator();
+        ReflectionTestUtils.setField(validator, "eventRepository", eventRepository);
+        ReflectionTestUtils.setField(validator, "projectRepository", projectRepository);
+    }
+
+    @Test
+    void absentOrExistingLinkIsAccepted() {
+        assertThat(validator.check(null)).isNull();
+        assertThat(validator.check(related(null, null))).isNull();
+        assertThat(validator.check(related(RelatedEntity.EVENT, 1L))).isNull();
+        assertThat(validator.check(related(RelatedEntity.PROJECT, 2L))).isNull();
+        assertThat(validator.check(related(RelatedEntity.ORGANIZATION, 3L))).isNull();
+    }
+
+    @Test
+    void unsupportedTypeOrDanglingIdIsRejected() {
+        assertThat(validator.check(related("user", 1L))).contains("non supporté");
+        assertThat(validator.check(related(RelatedEntity.EVENT, null))).contains("manquant");
+        assertThat(validator.check(related(RelatedEntity.EVENT, 2L))).contains("introuvable");
+        assertThat(validator.check(related(RelatedEntity.PROJECT, 1L))).contains("introuvable");
+
+        assertThatThrownBy(() -> validator.validate(related(RelatedEntity.PROJECT, 99L)))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    private static RelatedEntity related(String type, Long id) {
+        RelatedEntity relatedTo = new RelatedEntity();
+        relatedTo.setType(type);
+        relatedTo.setId(id);
+        return relatedTo;
+    }
+}
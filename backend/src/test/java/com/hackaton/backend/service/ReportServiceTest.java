@@ -0,0 +1,157 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.FinancialReportDTO;
+import com.hackaton.backend.dto.RollupTotalDTO;
+import com.hackaton.backend.model.Transaction;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.repository.DailyRollupRepository;
+import com.hackaton.backend.repository.TransactionRepository;
+import com.hackaton.backend.repository.UserRepository;
+import com.hackaton.backend.security.CustomUserDetailsService;
+import com.hackaton.backend.security.UserChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Cumuls journaliers sur H2 en mode MySQL (upsert natif) : découpage des rapports par période et
+ * reconstruction identique aux cumuls maintenus par deltas.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:rollups;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ReportService.class, RebuildLockService.class, UserChangeListener.class, CustomUserDetailsService.class})
+class ReportServiceTest {
+    // Plus long que l'ancienne limite de 64 caractères des colonnes de cumul
+    private static final String LONG_CATEGORY = "catégorie ".repeat(20);
+
+    @Autowired
+    private ReportService reportService;
+
+    @Autowired
+    private DailyRollupRepository dailyRollupRepository;
+
+    @Autowired
+    private TransactionRepository transactionRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("rollups@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Rollup");
+        user.setLastName("Test");
+        user.setRole("ADMIN");
+        user = userRepository.save(user);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dailyRollupRepository.deleteAll();
+        transactionRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void monthlyReportsFollowCalendarBoundariesFromEndOfMonthStart() {
+        record(LocalDate.of(2026, 2, 27), "deposit", "10");
+        record(LocalDate.of(2026, 2, 28), "deposit", "20");
+        record(LocalDate.of(2026, 3, 31), "withdrawal", "5");
+
+        List<FinancialReportDTO> reports = reportService.getPeriodReports(
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 4, 29), ChronoUnit.MONTHS);
+
+        // Périodes : 31/01–27/02, 28/02–30/03, 31/03–29/04
+        assertThat(reports).extracting(FinancialReportDTO::getStartDate).containsExactly(
+                LocalDate.of(2026, 1, 31), LocalDate.of(2026, 2, 28), LocalDate.of(2026, 3, 31));
+        assertThat(reports.get(0).getTotalDeposits()).isEqualByComparingTo("10");
+        assertThat(reports.get(1).getTotalDeposits()).isEqualByComparingTo("20");
+        assertThat(reports.get(2).getTotalWithdrawals()).isEqualByComparingTo("5");
+        assertThat(reports.get(2).getFinalBalance()).isEqualByComparingTo("25");
+    }
+
+    @Test
+    void rebuildMatchesIncrementalRollups() {
+        record(LocalDate.of(2026, 3, 1), "deposit", "100");
+        record(LocalDate.of(2026, 3, 1), "deposit", "50");
+        record(LocalDate.of(2026, 3, 2), "withdrawal", "30");
+        Transaction longCategory = transaction(LocalDate.of(2026, 3, 2), "deposit", "7");
+        longCategory.setCategory(LONG_CATEGORY);
+        save(longCategory);
+
+        List<RollupTotalDTO> incremental = categories();
+        long incrementalRows = dailyRollupRepository.count();
+
+        reportService.rebuild();
+
+        assertThat(dailyRollupRepository.count()).isEqualTo(incrementalRows);
+        assertThat(categories()).usingRecursiveFieldByFieldElementComparator().containsExactlyElementsOf(incremental);
+        assertThat(categories()).extracting(RollupTotalDTO::getCategory).contains(LONG_CATEGORY);
+    }
+
+    private List<RollupTotalDTO> categories() {
+        List<RollupTotalDTO> totals = dailyRollupRepository.sumByTypeAndCategory(ReportService.SOURCE_TRANSACTION,
+                LocalDate.of(2026, 1, 1), LocalDate.of(2026, 12, 31), LedgerBalanceService.STATUS_CANCELLED);
+        totals.forEach(total -> total.setAmount(total.getAmount().stripTrailingZeros()));
+        totals.sort(Comparator.comparing(RollupTotalDTO::getType).thenComparing(RollupTotalDTO::getCategory));
+        return totals;
+    }
+
+    private void record(LocalDate day, String type, String amount) {
+        save(transaction(day, type, amount));
+    }
+
+    // Comme TransactionService : ligne et cumul écrits dans la même transaction
+    private void save(Transaction transaction) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Transaction saved = transactionRepository.save(transaction);
+            reportService.recordChange(null, ReportService.RollupEntry.of(saved));
+        });
+    }
+
+    private Transaction transaction(LocalDate day, String type, String amount) {
+        Transaction transaction = new Transaction();
+        transaction.setType(type);
+        transaction.setAmount(new BigDecimal(amount));
+        transaction.setDescription("rapport");
+        transaction.setDate(day.atTime(10, 0));
+        transaction.setCategory("divers");
+        transaction.setStatus("completed");
+        transaction.setUser(user);
+        return transaction;
+    }
+}
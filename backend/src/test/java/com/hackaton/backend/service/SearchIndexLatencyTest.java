@@ -0,0 +1,103 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.dto.SearchDocument;
+import com.hackaton.backend.dto.SearchHitDTO;
+import com.hackaton.backend.dto.SearchResultDTO;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Latence de recherche sur un index d'un million de documents (-Dsearch.benchmark.documents=N pour
+ * une autre taille) : mot le plus fréquent, plusieurs mots, préfixe court, mot rare, percentiles
+ * journalisés par forme de requête. La cible (moins de 10 ms au p99) se lit dans le journal : une
+ * assertion sur le temps dépendrait de la machine.
+ */
+class SearchIndexLatencyTest {
+    private static final Logger log = LoggerFactory.getLogger(SearchIndexLatencyTest.class);
+    private static final int DOCUMENTS = Integer.getInteger("search.benchmark.documents", 1_000_000);
+    private static final int VOCABULARY = 20_000;
+    // Rangs de Zipf des mots vides, que tokenize() retire : le mot indexé le plus fréquent est le 40e
+    private static final int STOP_WORD_RANKS = 40;
+    private static final int WARMUP_ROUNDS = 50;
+    private static final int MEASURED_ROUNDS = 200;
+    private static final String[] TYPES = {SearchService.TYPE_EVENT, SearchService.TYPE_PROJECT, SearchService.TYPE_TASK};
+    private static final List<String> QUERIES = List.of("mot40 ", "mot57 mot43 ", "mot45 mot49 mot51", "mo", "mot4", "mot1234 ");
+
+    @Test
+    void searchLatencyOverLargeIndex() {
+        Random random = new Random(42);
+        SearchIndex index = new SearchIndex();
+        long buildStart = System.nanoTime();
+        for (long id = 1; id <= DOCUMENTS; id++) {
+            index.put(new SearchDocument(TYPES[(int) (id % TYPES.length)], id, 0L,
+                    words(random, 3), words(random, 12)));
+        }
+        log.info("Search index: {} documents built in {} ms", index.size(), (System.nanoTime() - buildStart) / 1_000_000);
+
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            QUERIES.forEach(query -> index.search(query, null, 0, 20));
+        }
+        long[][] latencies = new long[QUERIES.size()][MEASURED_ROUNDS];
+        int[] totals = new int[QUERIES.size()];
+        for (int round = 0; round < MEASURED_ROUNDS; round++) {
+            for (int q = 0; q < QUERIES.size(); q++) {
+                long start = System.nanoTime();
+                SearchResultDTO result = index.search(QUERIES.get(q), null, 0, 20);
+                latencies[q][round] = System.nanoTime() - start;
+                totals[q] = result.getTotal();
+                assertThat(result.getHits()).isNotEmpty();
+            }
+        }
+        for (int q = 0; q < QUERIES.size(); q++) {
+            Arrays.sort(latencies[q]);
+            log.info("Search \"{}\" over {} documents ({} matches): p50 {} us, p99 {} us", QUERIES.get(q).strip(),
+                    DOCUMENTS, totals[q], latencies[q][MEASURED_ROUNDS / 2] / 1_000,
+                    latencies[q][MEASURED_ROUNDS * 99 / 100] / 1_000);
+        }
+
+        assertThat(index.size()).isEqualTo(DOCUMENTS);
+    }
+
+    @Test
+    void cursorsMatchEveryTermAndPrefix() {
+        SearchIndex index = new SearchIndex();
+        index.put(new SearchDocument(SearchService.TYPE_TASK, 1L, 0L, "budget annuel", "réunion trimestrielle"));
+        index.put(new SearchDocument(SearchService.TYPE_TASK, 2L, 0L, "budget", "atelier"));
+        index.put(new SearchDocument(SearchService.TYPE_EVENT, 3L, 0L, "réunion budget", "annuelle"));
+        index.put(new SearchDocument(SearchService.TYPE_PROJECT, 4L, 0L, "annuaire", "budget réunion"));
+
+        assertThat(ids(index.search("budget ", null, 0, 10))).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+        assertThat(ids(index.search("budget reunion ", null, 0, 10))).containsExactlyInAnyOrder(1L, 3L, 4L);
+        // Dernier mot en préfixe : annuel, annuelle, annuaire
+        assertThat(ids(index.search("reunion annu", null, 0, 10))).containsExactlyInAnyOrder(1L, 3L, 4L);
+        assertThat(ids(index.search("annu", SearchService.TYPE_TASK, 0, 10))).containsExactly(1L);
+        assertThat(index.search("budget ", null, 0, 2).getTotal()).isEqualTo(4);
+        assertThat(index.search("budget ", null, 0, 2).getHits()).hasSize(2);
+
+        index.remove(SearchService.TYPE_EVENT, 3L);
+        assertThat(ids(index.search("budget reunion ", null, 0, 10))).containsExactlyInAnyOrder(1L, 4L);
+    }
+
+    private static List<Long> ids(SearchResultDTO result) {
+        return result.getHits().stream().map(SearchHitDTO::getId).toList();
+    }
+
+    // Fréquence des mots décroissante (loi de Zipf approchée), sans les rangs des mots vides
+    private static String words(Random random, int count) {
+        double lowest = Math.log(STOP_WORD_RANKS + 1) / Math.log(VOCABULARY);
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            double exponent = lowest + (1 - lowest) * random.nextDouble();
+            int rank = (int) Math.min(VOCABULARY - 1, Math.floor(Math.pow(VOCABULARY, exponent)) - 1);
+            text.append(i == 0 ? "" : " ").append("mot").append(rank);
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,164 @@
+package com.hackaton.backend.service;
+
+import com.hackaton.backend.model.Project;
+import com.hackaton.backend.model.Task;
+import com.hackaton.backend.model.User;
+import com.hackaton.backend.repository.ProjectRepository;
+import com.hackaton.backend.repository.RebuildLockRepository;
+import com.hackaton.backend.repository.TaskRepository;
+import com.hackaton.backend.repository.TaskStatusCountRepository;
+import com.hackaton.backend.repository.UserRepository;
+import com.hackaton.backend.security.CustomUserDetailsService;
+import com.hackaton.backend.security.UserChangeListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compteurs de tâches par statut sur H2 en mode MySQL (upsert natif) : construits au premier démarrage
+ * depuis les tâches existantes, une seule fois, puis tenus à jour par deltas ; la reconstruction
+ * redonne les mêmes valeurs.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:counters;MODE=MySQL;DATABASE_TO_LOWER=TRUE;NON_KEYWORDS=VALUE",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.cache.use_second_level_cache=false",
+        "spring.jpa.properties.hibernate.cache.use_query_cache=false",
+        "spring.jpa.show-sql=false"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({TaskCounterService.class, RebuildLockService.class, UserChangeListener.class, CustomUserDetailsService.class})
+class TaskCounterServiceTest {
+
+    @Autowired
+    private TaskCounterService taskCounterService;
+
+    @Autowired
+    private TaskStatusCountRepository taskStatusCountRepository;
+
+    @Autowired
+    private RebuildLockRepository rebuildLockRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private User user;
+    private Project project;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setEmail("counters@example.com");
+        user.setPassword("secret");
+        user.setFirstName("Compteur");
+        user.setLastName("Test");
+        user.setRole("USER");
+        user = userRepository.save(user);
+        project = new Project();
+        project.setName("Projet");
+        project.setStartDate(LocalDateTime.now());
+        project.setStatus("active");
+        project.setBudget(1000.0);
+        project.setUser(user);
+        project = projectRepository.save(project);
+    }
+
+    @AfterEach
+    void tearDown() {
+        taskStatusCountRepository.deleteAll();
+        rebuildLockRepository.deleteAll();
+        taskRepository.deleteAll();
+        projectRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void countersAreSeededOnceFromExistingTasks() {
+        // Tâches antérieures aux compteurs
+        taskRepository.saveAll(List.of(task("todo"), task("todo"), task("completed")));
+
+        taskCounterService.seed();
+        assertThat(projectCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("todo", 2L, "completed", 1L));
+        assertThat(assigneeCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("todo", 2L, "completed", 1L));
+
+        // Déjà construits : un second démarrage ne recalcule pas
+        taskRepository.save(task("todo"));
+        taskCounterService.seed();
+        assertThat(projectCounts()).containsEntry("todo", 2L);
+
+        taskCounterService.rebuild();
+        assertThat(projectCounts()).containsExactlyInAnyOrderEntriesOf(Map.of("todo", 3L, "completed", 1L));
+    }
+
+    @Test
+    void deltasAfterSeedMatchRebuild() {
+        taskRepository.save(task("todo"));
+        taskCounterService.seed();
+
+        Task created = save(task("todo"), null);
+        TaskCounterService.CounterEntry before = TaskCounterService.CounterEntry.of(created);
+        created.setStatus("in_progress");
+        save(created, before);
+        Map<String, Long> incremental = projectCounts();
+        assertThat(incremental).containsEntry("todo", 1L).containsEntry("in_progress", 1L);
+
+        taskCounterService.rebuild();
+        assertThat(projectCounts()).isEqualTo(incremental);
+        assertThat(assigneeCounts()).isEqualTo(incremental);
+    }
+
+    // Comme TaskService : ligne et compteurs écrits dans la même transaction
+    private Task save(Task task, TaskCounterService.CounterEntry before) {
+        return new TransactionTemplate(transactionManager).execute(status -> {
+            Task saved = taskRepository.save(task);
+            taskCounterService.recordChange(before, TaskCounterService.CounterEntry.of(saved));
+            return saved;
+        });
+    }
+
+    private Map<String, Long> projectCounts() {
+        return taskCounterService.getProjectCounts(List.of(project.getId())).get(project.getId());
+    }
+
+    private Map<String, Long> assigneeCounts() {
+        return taskCounterService.getAssigneeCounts(List.of(user.getId())).get(user.getId());
+    }
+
+    private Task task(String status) {
+        Task task = new Task();
+        task.setTitle("Tâche");
+        task.setDueDate(LocalDateTime.now().plusDays(1));
+        task.setPriority("medium");
+        task.setStatus(status);
+        task.setProject(project);
+        task.setAssignedTo(user);
+        return task;
+    }
+}
@@ -1,13 +1,14 @@
 'use client';
 
 import { useState, useEffect } from 'react';
-import { financeService, Transaction } from '../../../services/financeService';
+import { financeService, MonthlyReport, RollupTotal, Transaction } from '../../../services/financeService';
 // import { Chart } from 'chart.js/auto';
 import { Line, Doughnut } from 'react-chartjs-2';
 
 export default function FinanceDashboard() {
   const [transactions, setTransactions] = useState<Transaction[]>([]);
   const [currentBalance, setCurrentBalance] = useState(0);
+  const [totals, setTotals] = useState({ deposits: 0, withdrawals: 0 });
   const [monthlyData, setMonthlyData] = useState<{labels: string[], deposits: number[], withdrawals: number[]}>({
     labels: [],
     deposits: [],
@@ -19,72 +20,50 @@ export default function FinanceDashboard() {
   });
 
   useEffect(() => {
-    // Récupérer les données financières
-    const allTransactions = financeService.getAllTransactions();
-    setTransactions(allTransactions);
-    setCurrentBalance(financeService.getCurrentBalance());
+    // Récupérer toutes les données du tableau de bord en un seul appel
+    financeService.getDashboard().then(dashboard => {
+      if (!dashboard) {
+        return;
+      }
+      setTransactions(dashboard.recentTransactions ?? []);
+      setCurrentBalance(dashboard.balance?.balance ?? 0);
+      setTotals({
+        deposits: dashboard.balance?.totalDeposits ?? 0,
+        withdrawals: dashboard.balance?.totalWithdrawals ?? 0
+      });
 
-    // Préparer les données pour les graphiques mensuels
-    prepareMonthlyData(allTransactions);
-    
-    // Préparer les données pour le graphique des contributions
-    prepareContributionData();
-  }, []);
+      // Préparer les données pour les graphiques mensuels
+      prepareMonthlyData(dashboard.months ?? []);
 
-  const prepareMonthlyData = (transactions: Transaction[]) => {
-    // Grouper les transactions par mois
-    const months: {[key: string]: {deposits: number, withdrawals: number}} = {};
-    
-    transactions.forEach(transaction => {
-      const date = new Date(transaction.date);
-      const monthKey = `${date.getFullYear()}-${date.getMonth() + 1}`;
-      
-      if (!months[monthKey]) {
-        months[monthKey] = { deposits: 0, withdrawals: 0 };
-      }
-      
-      if (transaction.type === 'deposit') {
-        months[monthKey].deposits += transaction.amount;
-      } else {
-        months[monthKey].withdrawals += transaction.amount;
-      }
+      // Préparer les données pour le graphique des contributions
+      prepareContributionData(dashboard.contributionsByRelatedType ?? []);
     });
-    
+  }, []);
+
+  const prepareMonthlyData = (months: MonthlyReport[]) => {
     // Convertir en format pour Chart.js
-    const sortedMonths = Object.keys(months).sort();
-    const labels = sortedMonths.map(month => {
-      const [year, monthNum] = month.split('-');
+    const labels = months.map(month => {
+      const [year, monthNum] = month.startDate.split('-');
       return `${monthNum}/${year}`;
     });
-    
-    const deposits = sortedMonths.map(month => months[month].deposits);
-    const withdrawals = sortedMonths.map(month => months[month].withdrawals);
-    
+
+    const deposits = months.map(month => month.totalDeposits);
+    const withdrawals = months.map(month => month.totalWithdrawals);
+
     setMonthlyData({ labels, deposits, withdrawals });
   };
 
-  const prepareContributionData = () => {
-    const contributions = financeService.getAllContributions();
-    const typeMap: {[key: string]: number} = {};
-    
-    contributions.forEach(contribution => {
-      const type = contribution.relatedTo.type;
-      if (!typeMap[type]) {
-        typeMap[type] = 0;
-      }
-      typeMap[type] += contribution.amount;
-    });
-    
+  const prepareContributionData = (totalsByType: RollupTotal[]) => {
     setContributionsByType({
-      labels: Object.keys(typeMap).map(type => {
-        switch(type) {
+      labels: totalsByType.map(total => {
+        switch(total.type ?? 'organization') {
           case 'organization': return 'Organisation';
           case 'project': return 'Projets';
           case 'event': return 'Événements';
-          default: return type;
+          default: return total.type;
         }
       }),
-      data: Object.values(typeMap)
+      data: totalsByType.map(total => total.amount)
     });
   };
 
@@ -103,14 +82,14 @@ export default function FinanceDashboard() {
         <div className="bg-white p-6 rounded-lg shadow-md">
           <h2 className="text-xl font-semibold mb-2">Revenus Totaux</h2>
           <p className="text-3xl font-bold text-green-600">
-            {financeService.getTotalByType('deposit').toLocaleString('fr-FR', { style: 'currency', currency: 'CFA' })}
+            {totals.deposits.toLocaleString('fr-FR', { style: 'currency', currency: 'CFA' })}
           </p>
         </div>
         
         <div className="bg-white p-6 rounded-lg shadow-md">
           <h2 className="text-xl font-semibold mb-2">Dépenses Totales</h2>
           <p className="text-3xl font-bold text-red-600">
-            {financeService.getTotalByType('withdrawal').toLocaleString('fr-FR', { style: 'currency', currency: 'CFA' })}
+            {totals.withdrawals.toLocaleString('fr-FR', { style: 'currency', currency: 'CFA' })}
           </p>
         </div>
       </div>
@@ -2,6 +2,12 @@ import axios, { AxiosInstance } from 'axios';
 
 const API_BASE_URL = 'http://localhost:8080/api';
 
+export interface CursorPage<T> {
+  items: T[];
+  next: string | null;
+  limit: number;
+}
+
 class ApiService {
   private api: AxiosInstance;
   private static instance: ApiService;
@@ -56,6 +62,19 @@ class ApiService {
     return response.data;
   }
 
+  // Parcourt une liste paginée par curseur et concatène toutes les pages
+  async getAll<T>(endpoint: string): Promise<T[]> {
+    const items: T[] = [];
+    let after: string | null = null;
+    do {
+      const params: Record<string, string> = after ? { after } : {};
+      const response = await this.api.get<CursorPage<T>>(endpoint, { params });
+      items.push(...response.data.items);
+      after = response.data.next;
+    } while (after);
+    return items;
+  }
+
   async post<T>(endpoint: string, data: any): Promise<T> {
     const response = await this.api.post<T>(endpoint, data);
     return response.data;
@@ -66,6 +85,13 @@ class ApiService {
     return response.data;
   }
 
+  // Seuls les champs envoyés sont modifiés ; version (If-Match) facultative, 409 si elle a changé
+  async patch<T>(endpoint: string, data: any, version?: number): Promise<T> {
+    const headers = version !== undefined ? { 'If-Match': `"${version}"` } : undefined;
+    const response = await this.api.patch<T>(endpoint, data, { headers });
+    return response.data;
+  }
+
   async delete<T>(endpoint: string): Promise<T> {
     const response = await this.api.delete<T>(endpoint);
     return response.data;
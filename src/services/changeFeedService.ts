@@ -0,0 +1,112 @@
+const API_BASE_URL = 'http://localhost:8080/api';
+const RETRY_DELAY_MS = 3000;
+
+export type ChangeEntity = 'event' | 'project' | 'task' | 'transaction' | 'contribution';
+
+export interface ChangeNotification {
+  entity: ChangeEntity;
+  action: 'create' | 'update' | 'delete' | 'import' | 'overdue';
+  id: number | null;
+  userId: number | null;
+  timestamp: string;
+}
+
+export interface ChangeFeedOptions {
+  // 'transaction' et 'contribution' : administrateurs uniquement
+  types?: ChangeEntity[];
+  // Un utilisateur ne peut suivre que lui-même (valeur par défaut) ; un administrateur, n'importe qui
+  userId?: number;
+  onChange: (change: ChangeNotification) => void;
+  // Des notifications ont été perdues (client trop lent, reconnexion) : relire les listes affichées
+  onResync: () => void;
+}
+
+// Abonnement au flux /stream/changes. EventSource ne permet pas d'envoyer l'en-tête Authorization :
+// le flux est lu avec fetch, et la connexion est rétablie automatiquement avec Last-Event-ID.
+// Renvoie une fonction de désabonnement.
+export function subscribeToChanges(options: ChangeFeedOptions): () => void {
+  const controller = new AbortController();
+  let lastEventId: string | null = null;
+
+  const params = new URLSearchParams();
+  if (options.types?.length) {
+    params.set('types', options.types.join(','));
+  }
+  if (options.userId !== undefined) {
+    params.set('userId', String(options.userId));
+  }
+  const url = `${API_BASE_URL}/stream/changes${params.toString() ? `?${params}` : ''}`;
+
+  const dispatch = (event: string, data: string, id: string | null) => {
+    if (id) {
+      lastEventId = id;
+    }
+    if (event === 'change') {
+      options.onChange(JSON.parse(data) as ChangeNotification);
+    } else if (event === 'resync') {
+      options.onResync();
+    }
+  };
+
+  const connect = async () => {
+    while (!controller.signal.aborted) {
+      try {
+        const headers: Record<string, string> = { Accept: 'text/event-stream' };
+        const token = localStorage.getItem('token');
+        if (token) {
+          headers.Authorization = `Bearer ${token}`;
+        }
+        if (lastEventId) {
+          headers['Last-Event-ID'] = lastEventId;
+        }
+        const response = await fetch(url, { headers, signal: controller.signal });
+        if (response.status === 401 || response.status === 403 || response.status === 400) {
+          return;
+        }
+        if (!response.ok || !response.body) {
+          throw new Error(`Flux de changements indisponible (${response.status})`);
+        }
+
+        const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+        let buffer = '';
+        for (;;) {
+          const { value, done } = await reader.read();
+          if (done) {
+            break;
+          }
+          buffer += value;
+          let separator;
+          while ((separator = buffer.indexOf('\n\n')) >= 0) {
+            const block = buffer.slice(0, separator);
+            buffer = buffer.slice(separator + 2);
+            let event = 'message';
+            let id: string | null = null;
+            const data: string[] = [];
+            for (const line of block.split('\n')) {
+              if (line.startsWith('event:')) {
+                event = line.slice(6).trim();
+              } else if (line.startsWith('id:')) {
+                id = line.slice(3).trim();
+              } else if (line.startsWith('data:')) {
+                data.push(line.slice(5).trimStart());
+              }
+              // Les lignes commençant par ':' sont les messages de maintien de connexion
+            }
+            if (data.length) {
+              dispatch(event, data.join('\n'), id);
+            }
+          }
+        }
+      } catch (error) {
+        if (controller.signal.aborted) {
+          return;
+        }
+        console.error('Erreur du flux de changements:', error);
+      }
+      await new Promise((resolve) => setTimeout(resolve, RETRY_DELAY_MS));
+    }
+  };
+
+  connect();
+  return () => controller.abort();
+}
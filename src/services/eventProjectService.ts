@@ -37,11 +37,26 @@ export interface Task {
   };
 }
 
+export interface SearchHit {
+  type: 'event' | 'project' | 'task';
+  id: number;
+  title: string;
+  score: number;
+}
+
+export interface SearchResult {
+  query: string;
+  total: number;
+  offset: number;
+  limit: number;
+  hits: SearchHit[];
+}
+
 export const eventProjectService = {
   // Fonctions pour les événements
   getAllEvents: async (): Promise<Event[]> => {
     try {
-      return await apiService.get<Event[]>('/events');
+      return await apiService.getAll<Event>('/events');
     } catch (error) {
       console.error('Erreur lors de la récupération des événements:', error);
       return [];
@@ -68,12 +83,11 @@ export const eventProjectService = {
 
   getEventParticipants: async (event: Event): Promise<User[]> => {
     try {
-      const participants = await Promise.all(
-        event.participants.map(userId =>
-          apiService.get<User>(`/users/${userId}`)
-        )
-      );
-      return participants.filter((user): user is User => user !== null);
+      if (event.participants.length === 0) {
+        return [];
+      }
+      // Un seul appel pour tous les participants
+      return await apiService.post<User[]>('/users/batch', event.participants);
     } catch (error) {
       console.error('Erreur lors de la récupération des participants:', error);
       return [];
@@ -100,7 +114,7 @@ export const eventProjectService = {
 
   updateEvent: async (id: number, eventData: Partial<Omit<Event, 'id'>>): Promise<Event | null> => {
     try {
-      return await apiService.put<Event>(`/events/${id}`, eventData);
+      return await apiService.patch<Event>(`/events/${id}`, eventData);
     } catch (error) {
       console.error('Erreur lors de la mise à jour de l\'événement:', error);
       return null;
@@ -120,7 +134,7 @@ export const eventProjectService = {
   // Fonctions pour les projets
   getAllProjects: async (): Promise<Project[]> => {
     try {
-      return await apiService.get<Project[]>('/projects');
+      return await apiService.getAll<Project>('/projects');
     } catch (error) {
       console.error('Erreur lors de la récupération des projets:', error);
       return [];
@@ -147,7 +161,7 @@ export const eventProjectService = {
 
   updateProject: async (id: number, projectData: Partial<Omit<Project, 'id'>>): Promise<Project | null> => {
     try {
-      return await apiService.put<Project>(`/projects/${id}`, projectData);
+      return await apiService.patch<Project>(`/projects/${id}`, projectData);
     } catch (error) {
       console.error('Erreur lors de la mise à jour du projet:', error);
       return null;
@@ -164,10 +178,20 @@ export const eventProjectService = {
     }
   },
 
+  // Nombre de tâches par statut pour chaque projet, en un seul appel : { [projectId]: { [statut]: nombre } }
+  getProjectTaskCounts: async (projectIds: number[]): Promise<Record<number, Record<string, number>>> => {
+    try {
+      return await apiService.post<Record<number, Record<string, number>>>('/tasks/counts/projects', projectIds);
+    } catch (error) {
+      console.error('Erreur lors de la récupération de la progression des projets:', error);
+      return {};
+    }
+  },
+
   // Fonctions pour les tâches
   getAllTasks: async (): Promise<Task[]> => {
     try {
-      return await apiService.get<Task[]>('/tasks');
+      return await apiService.getAll<Task>('/tasks');
     } catch (error) {
       console.error('Erreur lors de la récupération des tâches:', error);
       return [];
@@ -194,7 +218,7 @@ export const eventProjectService = {
 
   updateTask: async (id: number, taskData: Partial<Omit<Task, 'id'>>): Promise<Task | null> => {
     try {
-      return await apiService.put<Task>(`/tasks/${id}`, taskData);
+      return await apiService.patch<Task>(`/tasks/${id}`, taskData);
     } catch (error) {
       console.error('Erreur lors de la mise à jour de la tâche:', error);
       return null;
@@ -209,5 +233,19 @@ export const eventProjectService = {
       console.error('Erreur lors de la suppression de la tâche:', error);
       return false;
     }
+  },
+
+  // Recherche plein texte côté serveur (titre, nom, description, lieu)
+  search: async (q: string, type?: SearchHit['type'], offset = 0, limit = 20): Promise<SearchResult | null> => {
+    try {
+      const params = new URLSearchParams({ q, offset: String(offset), limit: String(limit) });
+      if (type) {
+        params.set('type', type);
+      }
+      return await apiService.get<SearchResult>(`/search?${params.toString()}`);
+    } catch (error) {
+      console.error('Erreur lors de la recherche:', error);
+      return null;
+    }
   }
 };
\ No newline at end of file
@@ -36,11 +36,56 @@ export interface FinancialReport {
   totalWithdrawals: number;
 }
 
+export interface RelatedEntityReport<T> {
+  relatedType: string;
+  relatedId: number;
+  items: T[];
+  next: string | null;
+  totalAmount: number;
+  netAmount: number;
+  count: number;
+}
+
+export interface RollupTotal {
+  type: string;
+  category?: string;
+  amount: number;
+  count: number;
+}
+
+export interface MonthlyReport {
+  startDate: string;
+  endDate: string;
+  totalDeposits: number;
+  totalWithdrawals: number;
+  totalContributions: number;
+}
+
+export interface FinanceDashboard {
+  balance: { balance: number; totalDeposits: number; totalWithdrawals: number } | null;
+  months: MonthlyReport[] | null;
+  topCategories: RollupTotal[] | null;
+  contributionsByRelatedType: RollupTotal[] | null;
+  pendingCounts: Record<string, number> | null;
+  recentTransactions: Transaction[] | null;
+  unavailable: string[];
+}
+
 export const financeService = {
+  // Tableau de bord : un seul appel, sections calculées en parallèle côté serveur
+  getDashboard: async (months = 12, recent = 5): Promise<FinanceDashboard | null> => {
+    try {
+      return await apiService.get<FinanceDashboard>(`/finance/dashboard?months=${months}&recent=${recent}`);
+    } catch (error) {
+      console.error('Erreur lors de la récupération du tableau de bord:', error);
+      return null;
+    }
+  },
+
   // Fonctions pour les transactions
   getAllTransactions: async (): Promise<Transaction[]> => {
     try {
-      return await apiService.get<Transaction[]>('/transactions');
+      return await apiService.getAll<Transaction>('/transactions');
     } catch (error) {
       console.error('Erreur lors de la récupération des transactions:', error);
       return [];
@@ -58,7 +103,7 @@ export const financeService = {
 
   getTransactionsByType: async (type: 'deposit' | 'withdrawal'): Promise<Transaction[]> => {
     try {
-      return await apiService.get<Transaction[]>(`/transactions/type/${type}`);
+      return await apiService.getAll<Transaction>(`/transactions/type/${type}`);
     } catch (error) {
       console.error('Erreur lors de la récupération des transactions par type:', error);
       return [];
@@ -67,7 +112,7 @@ export const financeService = {
 
   getTransactionsByRelatedEntity: async (type: 'event' | 'project', id: number): Promise<Transaction[]> => {
     try {
-      return await apiService.get<Transaction[]>(`/transactions/related/${type}/${id}`);
+      return await apiService.getAll<Transaction>(`/transactions/related/${type}/${id}?limit=500`);
     } catch (error) {
       console.error('Erreur lors de la récupération des transactions liées:', error);
       return [];
@@ -76,7 +121,7 @@ export const financeService = {
 
   getContributionsByRelatedEntity: async (type: 'event' | 'project', id: number): Promise<Transaction[]> => {
     try {
-      return await apiService.get<Transaction[]>(`/contributions/related/${type}/${id}`);
+      return await apiService.getAll<Transaction>(`/contributions/related/${type}/${id}?limit=500`);
     } catch (error) {
       console.error('Erreur lors de la récupération des transactions liées:', error);
       return [];
@@ -104,7 +149,7 @@ export const financeService = {
 
   updateTransaction: async (id: number, transactionData: Partial<Omit<Transaction, 'id'>>): Promise<Transaction | null> => {
     try {
-      return await apiService.put<Transaction>(`/transactions/${id}`, transactionData);
+      return await apiService.patch<Transaction>(`/transactions/${id}`, transactionData);
     } catch (error) {
       console.error('Erreur lors de la mise à jour de la transaction:', error);
       return null;
@@ -124,7 +169,7 @@ export const financeService = {
   // Fonctions pour les contributions
   getAllContributions: async (): Promise<Contribution[]> => {
     try {
-      return await apiService.get<Contribution[]>('/contributions');
+      return await apiService.getAll<Contribution>('/contributions');
     } catch (error) {
       console.error('Erreur lors de la récupération des contributions:', error);
       return [];